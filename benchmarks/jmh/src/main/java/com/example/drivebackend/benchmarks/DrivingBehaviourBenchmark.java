@@ -0,0 +1,81 @@
+package com.example.drivebackend.benchmarks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.drivebackend.stats.DrivingBehaviour;
+import com.example.drivebackend.stats.DrivingEventDetector;
+
+/**
+ * Driving event detection per point as the ingest runs it, and per upload including decoding and encoding the
+ * trip's state. {@code detectPoint} is meant to stay allocation-free, check with {@code -prof gc}
+ * ({@code gc.alloc.rate.norm} ≈ 0 B/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrivingBehaviourBenchmark {
+
+    // Eine Stunde Stadtverkehr im Sekundentakt, mit gelegentlichen harten Manövern
+    private static final int POINTS = 3600;
+
+    private final DrivingEventDetector detector = new DrivingEventDetector(3.0, 3.5, 4500, Duration.ofSeconds(3), 10);
+    private final Map<?, ?>[] points = new Map<?, ?>[POINTS];
+    private final DrivingBehaviour state = new DrivingBehaviour();
+    private long epochSecond = TelemetryFixtures.TRIP_START_EPOCH_2000;
+    private int next;
+    private byte[] storedState;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        double speed = 0;
+        for (int i = 0; i < POINTS; i++) {
+            double change = random.nextInt(100) < 3 ? random.nextDouble(-15, 15) : random.nextDouble(-2, 2.2);
+            speed = Math.clamp(speed + change, 0, 130);
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("speed", (int) Math.round(speed));
+            point.put("rpm", (int) Math.round(800 + speed * 40 + random.nextInt(0, 600)));
+            points[i] = point;
+        }
+        DrivingBehaviour trip = new DrivingBehaviour();
+        for (int i = 0; i < POINTS; i++) {
+            detector.accept(TelemetryFixtures.TRIP_START_EPOCH_2000 + i, points[i], trip);
+        }
+        storedState = trip.encode();
+    }
+
+    @Benchmark
+    public long detectPoint() {
+        detector.accept(epochSecond++, points[next], state);
+        next = next + 1 == POINTS ? 0 : next + 1;
+        return state.drivingSeconds();
+    }
+
+    @Benchmark
+    public byte[] uploadWithState() {
+        // Die nächsten zehn Sekunden nach der gespeicherten Stunde
+        DrivingBehaviour trip = DrivingBehaviour.decode(storedState);
+        for (int i = 0; i < 10; i++) {
+            detector.accept(TelemetryFixtures.TRIP_START_EPOCH_2000 + POINTS + i, points[i], trip);
+        }
+        return trip.encode();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.drivebackend.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.example.drivebackend.config.JwtAuthenticationFilter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Overhead of {@link JwtAuthenticationFilter} per request: the dashboard case (same cookie on every
+ * request) and a fresh token on every request (nothing can be reused).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "sWmbmPtNIc9QjkX5B1V9KjT8m14Q1Gaqr5q+8SfxumM=";
+    private static final int DISTINCT_TOKENS = 16_384;
+
+    private JwtAuthenticationFilter filter;
+    private HttpServletRequest sameTokenRequest;
+    private HttpServletRequest[] freshTokenRequests;
+    private int next;
+    private final HttpServletResponse response = TelemetryFixtures.stub(HttpServletResponse.class, Map.of());
+    private Authentication authentication;
+    private final FilterChain chain = (request, response) -> {
+        authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+    };
+
+    @Setup
+    public void setUp() {
+        UserDetailsService users = TelemetryFixtures.stub(UserDetailsService.class, Map.of(
+                "loadUserByUsername", args -> User.withUsername((String) args[0]).password("{noop}test").roles("USER").build()));
+        filter = new JwtAuthenticationFilter(SECRET, users);
+
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        long expiration = System.currentTimeMillis() + 86_400_000;
+        sameTokenRequest = request(Jwts.builder().subject("test").expiration(new Date(expiration)).signWith(key).compact());
+        freshTokenRequests = new HttpServletRequest[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            // Unterschiedliche exp-Werte ergeben unterschiedliche Tokens
+            freshTokenRequests[i] = request(Jwts.builder().subject("test").expiration(new Date(expiration + i * 1000L)).signWith(key).compact());
+        }
+    }
+
+    @Benchmark
+    public Authentication sameToken() throws Exception {
+        filter.doFilter(sameTokenRequest, response, chain);
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication freshToken() throws Exception {
+        next = (next + 1) % DISTINCT_TOKENS;
+        filter.doFilter(freshTokenRequests[next], response, chain);
+        return authentication;
+    }
+
+    private static HttpServletRequest request(String token) {
+        Map<String, Object> attributes = new HashMap<>();
+        Cookie[] cookies = { new Cookie("accessToken", token) };
+        return TelemetryFixtures.stub(HttpServletRequest.class, Map.of(
+                "getCookies", args -> cookies,
+                "getAttribute", args -> attributes.get((String) args[0]),
+                "setAttribute", args -> attributes.put((String) args[0], args[1]),
+                "removeAttribute", args -> attributes.remove((String) args[0]),
+                "getDispatcherType", args -> DispatcherType.REQUEST,
+                "getRemoteAddr", args -> "127.0.0.1",
+                "getSession", args -> null));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.drivebackend.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.drivebackend.mapper.TelemetryMapper;
+import com.example.drivebackend.series.LiveTelemetry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The live ring buffer: appending one upload of ten points at ingest, and copying the full ten-minute window
+ * (600 points) for {@code GET /api/telemetry/live}. {@code recordUpload} starts a new buffer every
+ * {@value #UPLOADS} uploads because the ring only accepts points newer than its last one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LiveTelemetryBenchmark {
+
+    private static final int UPLOADS = 4096;
+    private static final int SECONDS_PER_UPLOAD = 10;
+    private static final List<String> SIGNALS = List.of("speed", "rpm");
+
+    private final List<Map<String, Object>> uploads = new ArrayList<>(UPLOADS);
+    private LiveTelemetry ingest;
+    private LiveTelemetry filled;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        long now = Instant.now().getEpochSecond() - TelemetryMapper.EPOCH_2000_OFFSET_SECONDS;
+        long start = now - (long) UPLOADS * SECONDS_PER_UPLOAD;
+        for (int i = 0; i < UPLOADS; i++) {
+            uploads.add(TelemetryFixtures.ingestRequest(start + (long) i * SECONDS_PER_UPLOAD, SECONDS_PER_UPLOAD, random).timed_data());
+        }
+        ingest = newLiveTelemetry();
+        filled = newLiveTelemetry();
+        for (Map<String, Object> upload : uploads) {
+            filled.record(TelemetryFixtures.DEVICE_ID, upload);
+        }
+    }
+
+    @Benchmark
+    public LiveTelemetry recordUpload() {
+        if (next == UPLOADS) {
+            next = 0;
+            ingest = newLiveTelemetry();
+        }
+        ingest.record(TelemetryFixtures.DEVICE_ID, uploads.get(next++));
+        return ingest;
+    }
+
+    @Benchmark
+    public LiveTelemetry.Window readWindow() {
+        return filled.window(TelemetryFixtures.DEVICE_ID, Duration.ofMinutes(10)).orElseThrow();
+    }
+
+    private static LiveTelemetry newLiveTelemetry() {
+        return new LiveTelemetry(600, SIGNALS, 10, Duration.ofMinutes(10), Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.drivebackend.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.drivebackend.stats.DrivingEventDetector;
+import com.example.drivebackend.stats.MovingTimeMetric;
+import com.example.drivebackend.stats.RunningStats;
+import com.example.drivebackend.stats.SignalSketches;
+import com.example.drivebackend.stats.SignalStatistics;
+import com.example.drivebackend.stats.SignalStatisticsEngine;
+
+/**
+ * Signal statistics and sketches of a two-hour trip: the extra work per upload (decode the blobs, feed the
+ * points, encode them), reading the statistics back, rescanning every {@code timed_data} of the trip as a read
+ * without stored statistics would have to, and the speed percentiles of a month (60 trips) from their sketches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignalStatisticsBenchmark {
+
+    @Param({ "1", "10" })
+    public int secondsPerSample;
+
+    private static final int TRIPS_PER_MONTH = 60;
+
+    private final SignalStatisticsEngine engine = new SignalStatisticsEngine(List.of(new MovingTimeMetric(1)),
+            new DrivingEventDetector(3.0, 3.5, 4500, Duration.ofSeconds(3), 10),
+            List.of("speed", "rpm", "coolant_temp", "intake_temp", "oil_temp", "fuel_level"), Duration.ofSeconds(10),
+            List.of("speed", "rpm"), 2);
+    private final List<Map<String, Object>> uploads = new ArrayList<>();
+    private Map<String, Object> nextUpload;
+    private byte[] tripStats;
+    private byte[] deviceStats;
+    private byte[] tripSketches;
+    private final List<byte[]> monthSketches = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        SignalStatistics statistics = new SignalStatistics();
+        SignalSketches sketches = engine.sketches(null);
+        for (int offset = 0; offset < TelemetryFixtures.TRIP_SECONDS; offset += secondsPerSample) {
+            Map<String, Object> timedData = TelemetryFixtures.ingestRequest(TelemetryFixtures.TRIP_START_EPOCH_2000 + offset, secondsPerSample, random)
+                    .timed_data();
+            uploads.add(timedData);
+            engine.accept(timedData, List.of(statistics), List.of(sketches));
+        }
+        nextUpload = TelemetryFixtures.ingestRequest(TelemetryFixtures.TRIP_START_EPOCH_2000 + TelemetryFixtures.TRIP_SECONDS, secondsPerSample, random)
+                .timed_data();
+        tripStats = statistics.encode();
+        deviceStats = statistics.encode();
+        tripSketches = sketches.encode();
+        for (int i = 0; i < TRIPS_PER_MONTH; i++) {
+            monthSketches.add(tripSketches);
+        }
+    }
+
+    @Benchmark
+    public byte[] ingestUpdate() {
+        SignalStatistics trip = SignalStatistics.decode(tripStats);
+        SignalStatistics device = SignalStatistics.decode(deviceStats);
+        SignalSketches sketches = engine.sketches(tripSketches);
+        engine.accept(nextUpload, List.of(trip, device), List.of(sketches));
+        device.encode();
+        sketches.encode();
+        return trip.encode();
+    }
+
+    @Benchmark
+    public double readStored() {
+        double sum = 0;
+        for (RunningStats stats : SignalStatistics.decode(tripStats).signals().values()) {
+            sum += stats.mean() + stats.stddev() + stats.timeWeightedMean();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double rescanTrip() {
+        SignalStatistics statistics = new SignalStatistics();
+        for (Map<String, Object> timedData : uploads) {
+            engine.accept(timedData, statistics);
+        }
+        double sum = 0;
+        for (RunningStats stats : statistics.signals().values()) {
+            sum += stats.mean() + stats.stddev() + stats.timeWeightedMean();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long monthPercentiles() {
+        Histogram merged = SignalSketches.newHistogram(2);
+        for (byte[] sketches : monthSketches) {
+            merged.add(SignalSketches.decodeSignal(sketches, "speed"));
+        }
+        return merged.getValueAtPercentile(95) + merged.getValueAtPercentile(50);
+    }
+}
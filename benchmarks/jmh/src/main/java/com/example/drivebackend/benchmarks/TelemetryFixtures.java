@@ -0,0 +1,111 @@
+package com.example.drivebackend.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+import com.example.drivebackend.dto.TelemetryIngestRequest;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.entities.TelemetryEntity;
+import com.example.drivebackend.entities.TripEntity;
+import com.example.drivebackend.mapper.TelemetryMapper;
+
+/**
+ * Realistic payloads for the benchmarks: the dongle samples 20 metrics at 1 Hz and uploads them in batches
+ * of {@code secondsPerSample} seconds, a trip lasts two hours.
+ */
+final class TelemetryFixtures {
+
+    static final String DEVICE_ID = "bench-device";
+    static final int TRIP_SECONDS = 2 * 60 * 60;
+    static final long TRIP_START_EPOCH_2000 = 820_859_363L;
+
+    private static final String[] METRICS = {
+            "speed", "rpm", "throttle", "engine_load", "coolant_temp", "intake_temp", "oil_temp", "fuel_level",
+            "fuel_rate", "maf", "map", "lambda", "battery_voltage", "gear", "steering_angle", "brake_pressure",
+            "lat", "lon", "altitude", "accel_x"
+    };
+
+    private TelemetryFixtures() {
+    }
+
+    /**
+     * Ingest request as Jackson would deserialize it: {@code timed_data} keyed by epoch-2000 seconds,
+     * integer metrics as {@link Integer}, the rest as {@link Double}.
+     */
+    static TelemetryIngestRequest ingestRequest(long startEpoch2000, int secondsPerSample, SplittableRandom random) {
+        Map<String, Object> timedData = new LinkedHashMap<>();
+        for (int s = 0; s < secondsPerSample; s++) {
+            timedData.put(Long.toString(startEpoch2000 + s), metrics(random));
+        }
+        Map<String, Object> aggregatedData = new LinkedHashMap<>();
+        aggregatedData.put("distance", 14.0 * secondsPerSample);
+        return new TelemetryIngestRequest(DEVICE_ID, startEpoch2000, startEpoch2000 + secondsPerSample - 1,
+                aggregatedData, timedData, null);
+    }
+
+    /**
+     * The stored samples of one two-hour trip, ordered by start time like the repository returns them.
+     */
+    static List<TelemetryEntity> trip(TelemetryMapper mapper, DeviceEntity device, TripEntity trip, long startEpoch2000,
+                                      int secondsPerSample, SplittableRandom random) {
+        List<TelemetryEntity> samples = new ArrayList<>(TRIP_SECONDS / secondsPerSample);
+        for (int offset = 0; offset < TRIP_SECONDS; offset += secondsPerSample) {
+            TelemetryEntity sample = mapper.toEntity(ingestRequest(startEpoch2000 + offset, secondsPerSample, random));
+            sample.setId(UUID.randomUUID());
+            sample.setDevice(device);
+            sample.setTrip(trip);
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    static DeviceEntity device() {
+        DeviceEntity device = new DeviceEntity();
+        device.setDeviceId(DEVICE_ID);
+        return device;
+    }
+
+    static TripEntity tripEntity(DeviceEntity device, long startEpoch2000) {
+        TripEntity trip = new TripEntity();
+        trip.setId(UUID.randomUUID());
+        trip.setDevice(device);
+        trip.setStartTime(Instant.ofEpochSecond(startEpoch2000 + TelemetryMapper.EPOCH_2000_OFFSET_SECONDS));
+        trip.setEndTime(trip.getStartTime().plusSeconds(TRIP_SECONDS));
+        trip.setTrip_distance_km(100.8f);
+        trip.setTelemetry_count(TRIP_SECONDS);
+        return trip;
+    }
+
+    /**
+     * Minimal stand-in for a Spring Data repository or service interface: answers the named methods,
+     * everything else fails loudly so a benchmark never silently measures a no-op.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+
+    private static Map<String, Object> metrics(SplittableRandom random) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            values.put(metric, switch (metric) {
+                case "speed", "rpm", "gear", "fuel_level", "coolant_temp", "intake_temp", "oil_temp" -> random.nextInt(0, 7000);
+                default -> Math.round(random.nextDouble(-180, 180) * 1e5) / 1e5;
+            });
+        }
+        return values;
+    }
+}
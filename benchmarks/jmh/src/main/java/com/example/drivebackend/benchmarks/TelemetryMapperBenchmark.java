@@ -0,0 +1,63 @@
+package com.example.drivebackend.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.drivebackend.dto.TelemetryIngestRequest;
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.entities.TelemetryEntity;
+import com.example.drivebackend.mapper.TelemetryMapper;
+
+/**
+ * Ingest request to entity and entity to response, the MapStruct part of every ingest and read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelemetryMapperBenchmark {
+
+    @Param({ "1", "10" })
+    public int secondsPerSample;
+
+    private final TelemetryMapper mapper = Mappers.getMapper(TelemetryMapper.class);
+    private TelemetryIngestRequest request;
+    private TelemetryEntity entity;
+
+    @Setup
+    public void setUp() {
+        request = TelemetryFixtures.ingestRequest(TelemetryFixtures.TRIP_START_EPOCH_2000, secondsPerSample, new SplittableRandom(42));
+        DeviceEntity device = TelemetryFixtures.device();
+        entity = mapper.toEntity(request);
+        entity.setId(UUID.randomUUID());
+        entity.setDevice(device);
+        entity.setTrip(TelemetryFixtures.tripEntity(device, TelemetryFixtures.TRIP_START_EPOCH_2000));
+    }
+
+    @Benchmark
+    public TelemetryEntity toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public TelemetryResponse toDto() {
+        return mapper.toDto(entity);
+    }
+}
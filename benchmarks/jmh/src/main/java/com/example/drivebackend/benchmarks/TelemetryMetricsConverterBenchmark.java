@@ -0,0 +1,55 @@
+package com.example.drivebackend.benchmarks;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.drivebackend.entities.TelemetryMetricsConverter;
+
+/**
+ * JSON round trip of {@code timed_data}, which runs for every stored and every loaded telemetry row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelemetryMetricsConverterBenchmark {
+
+    @Param({ "1", "10" })
+    public int secondsPerSample;
+
+    private final TelemetryMetricsConverter converter = new TelemetryMetricsConverter();
+    private Map<String, Object> timedData;
+    private String timedDataJson;
+
+    @Setup
+    public void setUp() {
+        timedData = TelemetryFixtures.ingestRequest(TelemetryFixtures.TRIP_START_EPOCH_2000, secondsPerSample, new SplittableRandom(42))
+                .timed_data();
+        timedDataJson = converter.convertToDatabaseColumn(timedData);
+    }
+
+    @Benchmark
+    public String toDatabaseColumn() {
+        return converter.convertToDatabaseColumn(timedData);
+    }
+
+    @Benchmark
+    public Map<String, Object> toEntityAttribute() {
+        return converter.convertToEntityAttribute(timedDataJson);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.drivebackend.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.drivebackend.dto.TripDetailsResponse;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.entities.TelemetryEntity;
+import com.example.drivebackend.entities.TripEntity;
+import com.example.drivebackend.mapper.TelemetryMapper;
+import com.example.drivebackend.repository.DeviceRepository;
+import com.example.drivebackend.repository.TelemetrySampleRepository;
+import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.routing.RecentDeviceWrites;
+import com.example.drivebackend.series.LiveTelemetry;
+import com.example.drivebackend.services.SignalStatisticsService;
+import com.example.drivebackend.services.TelemetryArchiveService;
+import com.example.drivebackend.services.TelemetryCompactionService;
+import com.example.drivebackend.services.TripSegmentationService;
+import com.example.drivebackend.services.impl.TelemetryServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link TelemetryServiceImpl#fetchTripDetails} without the database: entity to DTO mapping, grouping by trip
+ * and copying the per-sample maps into the response. Repositories return preloaded entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripDetailsBenchmark {
+
+    @Param({ "1", "10" })
+    public int secondsPerSample;
+
+    @Param({ "1", "5" })
+    public int trips;
+
+    private TelemetryServiceImpl telemetryService;
+
+    @Setup
+    public void setUp() {
+        TelemetryMapper mapper = Mappers.getMapper(TelemetryMapper.class);
+        SplittableRandom random = new SplittableRandom(42);
+        DeviceEntity device = TelemetryFixtures.device();
+
+        List<TripEntity> tripEntities = new ArrayList<>();
+        List<TelemetryEntity> samples = new ArrayList<>();
+        for (int i = 0; i < trips; i++) {
+            long start = TelemetryFixtures.TRIP_START_EPOCH_2000 + i * 86_400L;
+            TripEntity trip = TelemetryFixtures.tripEntity(device, start);
+            tripEntities.add(trip);
+            samples.addAll(TelemetryFixtures.trip(mapper, device, trip, start, secondsPerSample, random));
+        }
+
+        TelemetrySampleRepository telemetrySampleRepository = TelemetryFixtures.stub(TelemetrySampleRepository.class,
+                Map.of("findAllByDevice_DeviceIdOrderByStartTimeAsc", args -> samples));
+        TripRepository tripRepository = TelemetryFixtures.stub(TripRepository.class,
+                Map.of("findAllById", args -> tripEntities));
+        TelemetryArchiveService archiveService = TelemetryFixtures.stub(TelemetryArchiveService.class,
+                Map.of("readArchived", args -> List.of()));
+        DeviceRepository deviceRepository = TelemetryFixtures.stub(DeviceRepository.class, Map.of());
+
+        telemetryService = new TelemetryServiceImpl(telemetrySampleRepository, deviceRepository, tripRepository, mapper, archiveService,
+                new SimpleMeterRegistry(), new RecentDeviceWrites(Duration.ZERO, ""),
+                TelemetryFixtures.stub(TripSegmentationService.class, Map.of()),
+                TelemetryFixtures.stub(SignalStatisticsService.class, Map.of()),
+                TelemetryFixtures.stub(TelemetryCompactionService.class, Map.of()),
+                new LiveTelemetry(600, List.of("speed", "rpm"), 10, Duration.ofMinutes(10), Duration.ofMinutes(1), new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public Map<UUID, TripDetailsResponse> fetchTripDetails() {
+        return telemetryService.fetchTripDetails(TelemetryFixtures.DEVICE_ID, null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.drivebackend.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import com.example.drivebackend.controller.DeviceController;
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.entities.TripEntity;
+import com.example.drivebackend.mapper.TelemetryMapper;
+import com.example.drivebackend.series.TripSeries;
+import com.example.drivebackend.services.TripSeriesService;
+
+/**
+ * The aggregation loop of {@link DeviceController#getVehicleStats} over cached off-heap trip columns
+ * (distance sum, average speed over every timed entry, drive time), and building the columns of the trips
+ * from their decoded samples as a cache miss does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VehicleStatsBenchmark {
+
+    private static final List<String> SIGNALS = List.of("speed", "rpm");
+
+    @Param({ "1", "10" })
+    public int secondsPerSample;
+
+    @Param({ "1", "5" })
+    public int trips;
+
+    private Map<UUID, List<TelemetryResponse>> grouped;
+    private DeviceController controller;
+
+    @Setup
+    public void setUp() {
+        TelemetryMapper mapper = Mappers.getMapper(TelemetryMapper.class);
+        SplittableRandom random = new SplittableRandom(42);
+        DeviceEntity device = TelemetryFixtures.device();
+
+        grouped = new LinkedHashMap<>();
+        for (int i = 0; i < trips; i++) {
+            long start = TelemetryFixtures.TRIP_START_EPOCH_2000 + i * 86_400L;
+            TripEntity trip = TelemetryFixtures.tripEntity(device, start);
+            grouped.put(trip.getId(), TelemetryFixtures.trip(mapper, device, trip, start, secondsPerSample, random)
+                    .stream()
+                    .map(mapper::toDto)
+                    .toList());
+        }
+
+        List<TripSeries> series = buildSeries();
+        TripSeriesService tripSeriesService = TelemetryFixtures.stub(TripSeriesService.class,
+                Map.of("fetchTripSeries", args -> series));
+        controller = new DeviceController(null, null, null, null, null, null, null, null, tripSeriesService);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> getVehicleStats() {
+        return controller.getVehicleStats(TelemetryFixtures.DEVICE_ID, null, null);
+    }
+
+    @Benchmark
+    public List<TripSeries> buildSeries() {
+        List<TripSeries> series = new ArrayList<>(grouped.size());
+        for (Map.Entry<UUID, List<TelemetryResponse>> trip : grouped.entrySet()) {
+            series.add(TripSeries.of(trip.getKey(), trip.getValue(), SIGNALS, true));
+        }
+        return series;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.drivebackend.loadgen;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A dashboard user clicking through the pages of random simulated devices while they are uploading.
+ * Reads are not retried; every endpoint has its own histogram.
+ */
+final class DashboardReader implements Runnable {
+
+    record Endpoint(OperationStats stats, String pathTemplate) {
+    }
+
+    static final List<String[]> ENDPOINTS = List.of(
+            new String[] { "stats", "/api/devices/stats?deviceId=%s" },
+            new String[] { "trips-list", "/api/trips/list?deviceId=%s&page=0&pageSize=20" },
+            new String[] { "telemetry-latest", "/api/telemetry/latest?deviceId=%s" },
+            new String[] { "trips-weekday", "/api/trips/weekday?deviceId=%s" },
+            new String[] { "trips-time-of-day", "/api/trips/time-of-day?deviceId=%s" });
+
+    private final List<Endpoint> endpoints;
+    private final LoadOptions options;
+    private final LoadClient client;
+    private final long deadlineNanos;
+    private final SplittableRandom random;
+
+    DashboardReader(List<Endpoint> endpoints, LoadOptions options, LoadClient client, long deadlineNanos, long seed) {
+        this.endpoints = endpoints;
+        this.options = options;
+        this.client = client;
+        this.deadlineNanos = deadlineNanos;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void run() {
+        long intervalNanos = options.readInterval().toNanos();
+        long nextReadAt = System.nanoTime();
+        try {
+            while (nextReadAt < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+                String deviceId = options.devicePrefix() + random.nextInt(options.devices());
+                for (Endpoint endpoint : endpoints) {
+                    client.send(client.read(endpoint.pathTemplate().formatted(deviceId)), endpoint.stats(), nextReadAt, 0);
+                    nextReadAt += intervalNanos;
+                    LockSupport.parkNanos(nextReadAt - System.nanoTime());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
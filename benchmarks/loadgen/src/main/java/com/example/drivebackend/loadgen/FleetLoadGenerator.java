@@ -0,0 +1,169 @@
+package com.example.drivebackend.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Drives {@code POST /api/telemetry} with a simulated dongle fleet while dashboard readers hit the
+ * read endpoints, and reports latency percentiles, throughput and error rates per operation.
+ *
+ * <p>Output in {@code --report-dir}: one HdrHistogram interval log per operation ({@code <op>.hlog},
+ * readable with HistogramLogProcessor), the full percentile distribution ({@code <op>-percentiles.txt},
+ * in milliseconds) and a {@code summary.json} for comparing runs.
+ */
+public final class FleetLoadGenerator {
+
+    private static final double[] PERCENTILES = { 50, 95, 99, 99.9 };
+
+    private FleetLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            if (!e.getMessage().isEmpty()) {
+                System.err.println(e.getMessage());
+            }
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LoadClient client = new LoadClient(options);
+        if (options.username() != null) {
+            client.login();
+        }
+
+        OperationStats uploads = new OperationStats("upload");
+        OperationStats bursts = new OperationStats("upload-offline-burst");
+        List<DashboardReader.Endpoint> endpoints = DashboardReader.ENDPOINTS.stream()
+                .map(endpoint -> new DashboardReader.Endpoint(new OperationStats(endpoint[0]), endpoint[1]))
+                .toList();
+        List<OperationStats> operations = new ArrayList<>(List.of(uploads, bursts));
+        endpoints.forEach(endpoint -> operations.add(endpoint.stats()));
+
+        Files.createDirectories(options.reportDir());
+        Map<OperationStats, HistogramLogWriter> logs = new LinkedHashMap<>();
+        for (OperationStats operation : operations) {
+            HistogramLogWriter log = new HistogramLogWriter(options.reportDir().resolve(operation.name() + ".hlog").toFile());
+            log.outputLogFormatVersion();
+            log.outputStartTime(System.currentTimeMillis());
+            log.outputLegend();
+            logs.put(operation, log);
+        }
+
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + options.duration().toNanos();
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        long rampStepNanos = options.rampUp().toNanos() / Math.max(1, options.devices());
+        for (int i = 0; i < options.devices(); i++) {
+            SimulatedDevice device = new SimulatedDevice(options.devicePrefix() + i, options, client, uploads, bursts,
+                    deadlineNanos, 1000L + i);
+            scheduler.schedule(() -> workers.submit(device), i * rampStepNanos, TimeUnit.NANOSECONDS);
+        }
+        for (int i = 0; i < options.readers(); i++) {
+            workers.submit(new DashboardReader(endpoints, options, client, deadlineNanos, 2000L + i));
+        }
+
+        long reportMillis = options.reportInterval().toMillis();
+        scheduler.scheduleAtFixedRate(() -> report(logs, startNanos, options.reportInterval()),
+                reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+
+        // Nach Ablauf noch laufende Requests abwarten (maximal ein Request-Timeout inklusive Retries)
+        TimeUnit.NANOSECONDS.sleep(deadlineNanos - System.nanoTime());
+        workers.shutdown();
+        if (!workers.awaitTermination(2, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        scheduler.shutdownNow();
+        report(logs, startNanos, options.reportInterval());
+        logs.values().forEach(HistogramLogWriter::close);
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        summarize(operations, elapsedSeconds, options.reportDir(), System.out);
+    }
+
+    private static synchronized void report(Map<OperationStats, HistogramLogWriter> logs, long startNanos, Duration interval) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "[%6.0fs]", (System.nanoTime() - startNanos) / 1e9));
+        logs.forEach((operation, log) -> {
+            Histogram histogram = operation.nextInterval();
+            log.outputIntervalHistogram(histogram);
+            if (histogram.getTotalCount() > 0) {
+                line.append(String.format(Locale.ROOT, "  %s %.1f/s p50=%.1fms p99=%.1fms", operation.name(),
+                        histogram.getTotalCount() / (interval.toMillis() / 1000.0),
+                        histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0));
+            }
+        });
+        System.out.println(line);
+    }
+
+    private static void summarize(List<OperationStats> operations, double elapsedSeconds, Path reportDir, PrintStream out)
+            throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("elapsed_seconds", elapsedSeconds);
+        Map<String, Object> results = new LinkedHashMap<>();
+
+        out.printf(Locale.ROOT, "%n%-22s %9s %9s %9s %9s %9s %9s %10s %8s %8s%n",
+                "operation", "count", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "req/s", "errors", "retries");
+        for (OperationStats operation : operations) {
+            Histogram total = operation.total();
+            long count = total.getTotalCount();
+            double errorRate = count == 0 ? 0 : operation.errorCount() / (double) count;
+            out.printf(Locale.ROOT, "%-22s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %10.1f %7.2f%% %8d%n",
+                    operation.name(), count,
+                    millis(total, 50), millis(total, 95), millis(total, 99), millis(total, 99.9),
+                    total.getMaxValue() / 1000.0, count / elapsedSeconds, errorRate * 100, operation.retries());
+            operation.errorsByCause().forEach((cause, errors) -> out.printf("    %s: %d%n", cause, errors));
+
+            try (PrintStream percentiles = new PrintStream(reportDir.resolve(operation.name() + "-percentiles.txt").toFile())) {
+                total.outputPercentileDistribution(percentiles, 1000.0);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", count);
+            result.put("successes", operation.successes());
+            result.put("throughput_per_second", count / elapsedSeconds);
+            result.put("error_rate", errorRate);
+            result.put("errors_by_cause", operation.errorsByCause());
+            result.put("retries", operation.retries());
+            Map<String, Double> latency = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + String.valueOf(percentile).replace(".0", ""), millis(total, percentile));
+            }
+            latency.put("max", total.getMaxValue() / 1000.0);
+            result.put("latency_ms", latency);
+            results.put(operation.name(), result);
+        }
+        summary.put("operations", results);
+
+        Path file = reportDir.resolve("summary.json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+        out.println("\nReport written to " + reportDir.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.drivebackend.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared HTTP client: one connection pool, requests run on virtual threads.
+ */
+final class LoadClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final LoadOptions options;
+    private String readAuthHeader;
+    private String readAuthValue;
+
+    LoadClient(LoadOptions options) {
+        this.options = options;
+        this.readAuthHeader = "X-API-KEY";
+        this.readAuthValue = options.apiKey();
+    }
+
+    /**
+     * Log in like the dashboard does and use the JWT cookie for all reads.
+     */
+    void login() throws IOException, InterruptedException {
+        String body = "{\"username\":\"" + options.username() + "\",\"password\":\"" + options.password() + "\"}";
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        String cookie = response.headers().firstValue("Set-Cookie")
+                .filter(value -> response.statusCode() == 200)
+                .orElseThrow(() -> new IOException("Login failed with status " + response.statusCode()));
+        readAuthHeader = "Cookie";
+        readAuthValue = cookie.substring(0, cookie.indexOf(';'));
+    }
+
+    HttpRequest upload(String json) {
+        return HttpRequest.newBuilder(uri("/api/telemetry"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("X-API-KEY", options.apiKey())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest read(String pathAndQuery) {
+        return HttpRequest.newBuilder(uri(pathAndQuery))
+                .timeout(REQUEST_TIMEOUT)
+                .header(readAuthHeader, readAuthValue)
+                .GET()
+                .build();
+    }
+
+    /**
+     * Send the request, retrying I/O errors and 5xx with exponential backoff, and record the outcome.
+     * The latency covers all attempts, measured from {@code intendedStartNanos}.
+     *
+     * @return true if the server accepted the request
+     */
+    boolean send(HttpRequest request, OperationStats stats, long intendedStartNanos, int maxRetries) throws InterruptedException {
+        String cause = null;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                stats.retry();
+                Thread.sleep(100L << attempt);
+            }
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                if (status < 300) {
+                    stats.success(System.nanoTime() - intendedStartNanos);
+                    return true;
+                }
+                cause = "HTTP " + status;
+                if (status < 500) {
+                    break;
+                }
+            } catch (IOException e) {
+                cause = e.getClass().getSimpleName();
+            }
+        }
+        stats.error(System.nanoTime() - intendedStartNanos, cause);
+        return false;
+    }
+
+    private URI uri(String pathAndQuery) {
+        return options.baseUrl().resolve(pathAndQuery);
+    }
+}
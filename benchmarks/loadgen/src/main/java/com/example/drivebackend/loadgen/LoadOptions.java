@@ -0,0 +1,99 @@
+package com.example.drivebackend.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load generator, given as {@code --name=value}.
+ */
+record LoadOptions(
+        URI baseUrl,
+        String apiKey,
+        String username,
+        String password,
+        int devices,
+        String devicePrefix,
+        Duration duration,
+        Duration rampUp,
+        int batchSeconds,
+        double speedup,
+        Duration maxParkPause,
+        double offlineProbability,
+        double duplicateProbability,
+        int maxRetries,
+        int readers,
+        Duration readInterval,
+        Duration reportInterval,
+        Path reportDir
+) {
+
+    static final String USAGE = """
+            Simulates a fleet of dongles uploading telemetry while dashboards read.
+
+              --base-url=http://localhost:8080   Backend under test
+              --api-key=...                       X-API-KEY (default: $API_KEY_VALUE)
+              --username=... --password=...       Dashboard login; without it reads use the API key
+              --devices=50                        Simulated devices
+              --device-prefix=loadgen-            Prefix for the generated device IDs
+              --duration=5m                       Test duration (s, m, h)
+              --ramp-up=30s                       Devices start evenly spread over this time
+              --batch-seconds=10                  Seconds of 1 Hz timed_data per upload
+              --speedup=1                         Simulated seconds per real second
+              --max-park-pause=20s                Real pause between two trips (simulated gap is always > 30 min)
+              --offline-probability=0.1           Share of trips with an offline burst
+              --duplicate-probability=0.01        Share of uploads re-sent because the ACK got lost
+              --max-retries=3                     Retries on I/O errors and 5xx
+              --readers=4                         Concurrent dashboard readers
+              --read-interval=1s                  Pause between two reads of one reader
+              --report-interval=10s               Interval of the console report and the .hlog entries
+              --report-dir=target/loadgen/report  Histogram logs, percentile distributions and summary.json
+            """;
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.equals("--help") || !arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException(arg.equals("--help") ? "" : "Unknown argument: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        String apiKey = values.getOrDefault("api-key", System.getenv("API_KEY_VALUE"));
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalArgumentException("--api-key is required");
+        }
+        return new LoadOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                apiKey,
+                values.get("username"),
+                values.get("password"),
+                Integer.parseInt(values.getOrDefault("devices", "50")),
+                values.getOrDefault("device-prefix", "loadgen-"),
+                duration(values.getOrDefault("duration", "5m")),
+                duration(values.getOrDefault("ramp-up", "30s")),
+                Integer.parseInt(values.getOrDefault("batch-seconds", "10")),
+                Double.parseDouble(values.getOrDefault("speedup", "1")),
+                duration(values.getOrDefault("max-park-pause", "20s")),
+                Double.parseDouble(values.getOrDefault("offline-probability", "0.1")),
+                Double.parseDouble(values.getOrDefault("duplicate-probability", "0.01")),
+                Integer.parseInt(values.getOrDefault("max-retries", "3")),
+                Integer.parseInt(values.getOrDefault("readers", "4")),
+                duration(values.getOrDefault("read-interval", "1s")),
+                duration(values.getOrDefault("report-interval", "10s")),
+                Path.of(values.getOrDefault("report-dir", "target/loadgen/report")));
+    }
+
+    private static Duration duration(String value) {
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Invalid duration: " + value);
+        };
+    }
+}
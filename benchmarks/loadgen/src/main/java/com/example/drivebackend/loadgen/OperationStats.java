@@ -0,0 +1,79 @@
+package com.example.drivebackend.loadgen;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histogram and counters for one kind of request. Latencies are recorded in microseconds,
+ * measured from the intended send time so that a slow server does not hide its own queueing
+ * (coordinated omission).
+ */
+final class OperationStats {
+
+    private final String name;
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram total = new Histogram(3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void success(long latencyNanos) {
+        recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        successes.increment();
+    }
+
+    void error(long latencyNanos, String cause) {
+        recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        errors.computeIfAbsent(cause, ignored -> new LongAdder()).increment();
+    }
+
+    void retry() {
+        retries.increment();
+    }
+
+    /**
+     * Histogram of everything recorded since the previous call; it is also folded into {@link #total()}.
+     * Only called from the reporter thread.
+     */
+    Histogram nextInterval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        return interval;
+    }
+
+    Histogram total() {
+        return total;
+    }
+
+    long successes() {
+        return successes.sum();
+    }
+
+    long retries() {
+        return retries.sum();
+    }
+
+    long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<String, Long> errorsByCause() {
+        Map<String, Long> result = new TreeMap<>();
+        errors.forEach((cause, count) -> result.put(cause, count.sum()));
+        return result;
+    }
+}
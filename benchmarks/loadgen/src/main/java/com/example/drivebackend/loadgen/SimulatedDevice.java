@@ -0,0 +1,139 @@
+package com.example.drivebackend.loadgen;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One dongle: drives trips of 10-90 minutes, samples 20 metrics at 1 Hz and uploads them every
+ * {@code batchSeconds}. Between trips the simulated clock jumps by more than the backend's trip gap
+ * (30 minutes), so every trip becomes a new trip server-side. Some trips lose connectivity for a while;
+ * the buffered uploads are then sent back to back, like the ESP32 does after reconnecting.
+ */
+final class SimulatedDevice implements Runnable {
+
+    private static final long EPOCH_2000_OFFSET_SECONDS = 946_684_800L;
+    private static final Duration TRIP_GAP = Duration.ofMinutes(30);
+    private static final String[] INT_METRICS = { "speed", "rpm", "gear", "fuel_level", "coolant_temp", "intake_temp", "oil_temp" };
+    private static final String[] DOUBLE_METRICS = {
+            "throttle", "engine_load", "fuel_rate", "maf", "map", "lambda", "battery_voltage", "steering_angle",
+            "brake_pressure", "lat", "lon", "altitude", "accel_x"
+    };
+
+    private final String deviceId;
+    private final LoadOptions options;
+    private final LoadClient client;
+    private final OperationStats uploads;
+    private final OperationStats bursts;
+    private final long deadlineNanos;
+    private final SplittableRandom random;
+
+    SimulatedDevice(String deviceId, LoadOptions options, LoadClient client, OperationStats uploads, OperationStats bursts,
+                    long deadlineNanos, long seed) {
+        this.deviceId = deviceId;
+        this.options = options;
+        this.client = client;
+        this.uploads = uploads;
+        this.bursts = bursts;
+        this.deadlineNanos = deadlineNanos;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void run() {
+        // Simulierte Uhr startet eine Woche in der Vergangenheit, damit die Daten nicht in der Zukunft liegen
+        long clock = Instant.now().minus(Duration.ofDays(7)).getEpochSecond() - EPOCH_2000_OFFSET_SECONDS
+                + random.nextInt(0, 3600);
+        long uploadIntervalNanos = (long) (options.batchSeconds() * 1_000_000_000L / options.speedup());
+        long nextSendAt = System.nanoTime();
+        try {
+            while (System.nanoTime() < deadlineNanos) {
+                int tripSeconds = random.nextInt(10, 91) * 60;
+                int uploadsPerTrip = tripSeconds / options.batchSeconds();
+                int offlineFrom = random.nextDouble() < options.offlineProbability() ? random.nextInt(uploadsPerTrip) : -1;
+                // Ohne Funkloch bleibt der Bereich leer, sonst würden die ersten Uploads jeder Fahrt gepuffert
+                int offlineUntil = offlineFrom >= 0 ? offlineFrom + random.nextInt(6, 60) : -1;
+                Deque<String> buffered = new ArrayDeque<>();
+
+                for (int i = 0; i < uploadsPerTrip && System.nanoTime() < deadlineNanos; i++) {
+                    double distance = options.batchSeconds() * random.nextDouble(5, 35);
+                    String payload = payload(clock, distance);
+                    clock += options.batchSeconds();
+
+                    if (i >= offlineFrom && i < offlineUntil) {
+                        buffered.add(payload);
+                    } else {
+                        flush(buffered);
+                        upload(payload, nextSendAt);
+                    }
+                    nextSendAt += uploadIntervalNanos;
+                    sleepUntil(nextSendAt);
+                }
+                flush(buffered);
+
+                // Geparkt: simulierte Lücke immer größer als TRIP_GAP, real nur eine kurze Pause
+                clock += TRIP_GAP.getSeconds() + random.nextInt(60, 4 * 3600);
+                nextSendAt = System.nanoTime() + (long) (random.nextDouble() * options.maxParkPause().toNanos());
+                sleepUntil(nextSendAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void upload(String payload, long intendedStart) throws InterruptedException {
+        long start = Math.min(intendedStart, System.nanoTime());
+        boolean accepted = client.send(client.upload(payload), uploads, start, options.maxRetries());
+        // ACK verloren: das Gerät schickt dasselbe Paket noch einmal
+        if (accepted && random.nextDouble() < options.duplicateProbability()) {
+            uploads.retry();
+            client.send(client.upload(payload), uploads, System.nanoTime(), options.maxRetries());
+        }
+    }
+
+    private void flush(Deque<String> buffered) throws InterruptedException {
+        while (!buffered.isEmpty()) {
+            client.send(client.upload(buffered.poll()), bursts, System.nanoTime(), options.maxRetries());
+        }
+    }
+
+    private String payload(long startEpoch2000, double distance) {
+        StringBuilder json = new StringBuilder(256 + options.batchSeconds() * 420);
+        json.append("{\"deviceId\":\"").append(deviceId)
+                .append("\",\"start_time\":").append(startEpoch2000)
+                .append(",\"end_time\":").append(startEpoch2000 + options.batchSeconds() - 1)
+                .append(",\"aggregated_data\":{\"distance\":").append(String.format(Locale.ROOT, "%.1f", distance))
+                .append("},\"timed_data\":{");
+        for (int s = 0; s < options.batchSeconds(); s++) {
+            if (s > 0) {
+                json.append(',');
+            }
+            json.append('"').append(startEpoch2000 + s).append("\":{");
+            for (String metric : INT_METRICS) {
+                int value = metric.equals("speed") ? random.nextInt(0, 160) : random.nextInt(0, 7000);
+                json.append('"').append(metric).append("\":").append(value).append(',');
+            }
+            for (int m = 0; m < DOUBLE_METRICS.length; m++) {
+                json.append('"').append(DOUBLE_METRICS[m]).append("\":")
+                        .append(String.format(Locale.ROOT, "%.5f", random.nextDouble(-180, 180)))
+                        .append(m < DOUBLE_METRICS.length - 1 ? "," : "");
+            }
+            json.append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
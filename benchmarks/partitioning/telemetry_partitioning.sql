@@ -0,0 +1,101 @@
+-- Telemetry partitioning benchmark (PostgreSQL)
+--
+-- Baut einen synthetischen Datensatz über 3 Jahre (20 Geräte, 2 Fahrstunden pro Tag, ein Sample pro Minute,
+-- ca. 2,6 Mio. Zeilen) zweimal auf: als normale Tabelle und monatlich partitioniert wie mit
+-- app.telemetry.partitioning.enabled=true. Anschließend werden die Abfragen aus TelemetrySampleRepository
+-- und die Retention (DELETE vs. DROP PARTITION) auf beiden Varianten gemessen.
+--
+-- Ausführen gegen die lokale Datenbank aus docker-compose-local.yaml:
+--   psql -h localhost -p 5433 -U admin -d drive-db -f benchmarks/partitioning/telemetry_partitioning.sql
+-- Die Tabellen bench_* werden am Ende wieder gelöscht.
+
+DROP TABLE IF EXISTS bench_telemetry_plain;
+DROP TABLE IF EXISTS bench_telemetry_part;
+
+CREATE TABLE bench_telemetry_plain (
+    id uuid PRIMARY KEY,
+    device_id varchar(255) NOT NULL,
+    trip_id uuid,
+    start_time timestamp(6) with time zone NOT NULL,
+    end_time timestamp(6) with time zone,
+    timed_data text,
+    aggregated_data text
+);
+CREATE INDEX ON bench_telemetry_plain (device_id, start_time);
+
+CREATE TABLE bench_telemetry_part (LIKE bench_telemetry_plain INCLUDING DEFAULTS) PARTITION BY RANGE (start_time);
+ALTER TABLE bench_telemetry_part ADD PRIMARY KEY (id, start_time);
+CREATE INDEX ON bench_telemetry_part (device_id, start_time);
+CREATE TABLE bench_telemetry_part_default PARTITION OF bench_telemetry_part DEFAULT;
+
+DO $$
+DECLARE
+    m date;
+BEGIN
+    FOR m IN SELECT generate_series(date '2023-01-01', date '2025-12-01', interval '1 month')::date LOOP
+        EXECUTE format('CREATE TABLE bench_telemetry_part_%s PARTITION OF bench_telemetry_part FOR VALUES FROM (%L) TO (%L)',
+                       to_char(m, 'YYYY_MM'), m, (m + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO bench_telemetry_plain
+SELECT gen_random_uuid(),
+       'device-' || d,
+       md5('device-' || d || day::text)::uuid,
+       day + interval '7 hours' + (minute || ' minutes')::interval,
+       day + interval '7 hours' + (minute || ' minutes')::interval + interval '59 seconds',
+       '{"0":{"speed":' || (random() * 130)::int || ',"rpm":' || (800 + random() * 4000)::int || ',"temp":90}}',
+       '{"distance":' || (random() * 2000)::int || '}'
+FROM generate_series(1, 20) d,
+     generate_series(timestamptz '2023-01-01 00:00:00+00', timestamptz '2025-12-31 00:00:00+00', interval '1 day') day,
+     generate_series(0, 119) minute;
+
+INSERT INTO bench_telemetry_part SELECT * FROM bench_telemetry_plain;
+
+VACUUM ANALYZE bench_telemetry_plain;
+VACUUM ANALYZE bench_telemetry_part;
+
+SELECT 'rows' AS metric, count(*) AS value FROM bench_telemetry_plain
+UNION ALL SELECT 'plain table + indexes (MB)', pg_total_relation_size('bench_telemetry_plain') / 1024 / 1024
+UNION ALL SELECT 'largest partition + indexes (MB)', pg_total_relation_size('bench_telemetry_part_2025_12') / 1024 / 1024;
+
+-- findAllByDeviceIdInRange: eine Woche
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT * FROM bench_telemetry_plain
+WHERE device_id = 'device-7' AND start_time >= '2025-06-02' AND start_time <= '2025-06-09' ORDER BY start_time;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT * FROM bench_telemetry_part
+WHERE device_id = 'device-7' AND start_time >= '2025-06-02' AND start_time <= '2025-06-09' ORDER BY start_time;
+
+-- findAllByDeviceIdInRange: ein Quartal
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT * FROM bench_telemetry_plain
+WHERE device_id = 'device-7' AND start_time >= '2024-04-01' AND start_time <= '2024-07-01' ORDER BY start_time;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT * FROM bench_telemetry_part
+WHERE device_id = 'device-7' AND start_time >= '2024-04-01' AND start_time <= '2024-07-01' ORDER BY start_time;
+
+-- findTopByDevice_DeviceIdOrderByStartTimeDesc (läuft bei jedem Ingest)
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT * FROM bench_telemetry_plain WHERE device_id = 'device-7' ORDER BY start_time DESC LIMIT 1;
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF, SUMMARY ON)
+SELECT * FROM bench_telemetry_part WHERE device_id = 'device-7' ORDER BY start_time DESC LIMIT 1;
+
+-- Retention: ältesten Monat entfernen
+EXPLAIN (ANALYZE, COSTS OFF, SUMMARY ON)
+DELETE FROM bench_telemetry_plain WHERE start_time >= '2023-01-01' AND start_time < '2023-02-01';
+
+DO $$
+DECLARE
+    started timestamptz := clock_timestamp();
+BEGIN
+    ALTER TABLE bench_telemetry_part DETACH PARTITION bench_telemetry_part_2023_01;
+    DROP TABLE bench_telemetry_part_2023_01;
+    RAISE NOTICE 'DETACH + DROP PARTITION: % ms', round(extract(epoch FROM clock_timestamp() - started) * 1000, 2);
+END $$;
+
+DROP TABLE bench_telemetry_plain;
+DROP TABLE bench_telemetry_part;
@@ -0,0 +1,191 @@
+package com.example.drivebackend.readbench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.drivebackend.readbench.ReadBenchmarkSuite.Endpoint;
+import com.example.drivebackend.readbench.ReadBenchmarkSuite.Target;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * SQL statements per request with the Hibernate second-level and query cache switched off and on. One dataset
+ * is generated, then the application is started once per mode and replays the same dashboard sequence (device
+ * list, trip list, trip details, trips of a week, time of day) for the same random devices and trips, first
+ * read-only and then with an upload before every pass. Statements are taken from the {@code Server-Timing}
+ * header, so nothing but the cache settings differ between the modes.
+ */
+public final class CacheRoundTripBenchmark {
+
+    private static final Pattern STATEMENTS = Pattern.compile("sql;desc=\"(\\d+) statements\"");
+    private static final List<String> ENDPOINTS = List.of("devices", "trips-list", "trip-details", "trips-grouped-7d", "trips-time-of-day");
+
+    private CacheRoundTripBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        String jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:h2:file:./target/readbench/db");
+        String username = options.getOrDefault("username", "sa");
+        String password = options.getOrDefault("password", "");
+        int passes = Integer.parseInt(options.getOrDefault("passes", "200"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/readbench"));
+        DatasetSpec spec = DatasetSpec.parse(options.getOrDefault("size", "5x0.5"), DatasetGenerator.spec(options));
+
+        List<Target> targets;
+        try (HikariDataSource dataSource = DatasetGenerator.dataSource(jdbcUrl, username, password)) {
+            DatasetGenerator.migrate(dataSource);
+            DatasetGenerator.truncate(dataSource);
+            DatasetGenerator.load(dataSource, spec, 4);
+            DatasetGenerator.analyze(dataSource);
+            targets = ReadBenchmarkSuite.targets(dataSource, spec);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("started_at", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+        report.put("dataset", spec);
+        report.put("passes", passes);
+        Map<String, Object> modes = new LinkedHashMap<>();
+        report.put("modes", modes);
+        for (boolean cache : new boolean[]{false, true}) {
+            String mode = cache ? "cache-on" : "cache-off";
+            System.out.printf(Locale.ROOT, "%n== %s%n", mode);
+            try (ConfigurableApplicationContext context = ReadBenchmarkSuite.start(jdbcUrl, username, password,
+                    "--app.server-timing.enabled=true",
+                    "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+                    "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cache)) {
+                URI baseUrl = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                Map<String, Object> phases = new LinkedHashMap<>();
+                phases.put("read-only", run(baseUrl, targets, spec, passes, null));
+                phases.put("with-ingest", run(baseUrl, targets, spec, passes, "cachebench-" + mode));
+                modes.put(mode, phases);
+            }
+        }
+
+        Files.createDirectories(reportDir);
+        Path file = reportDir.resolve("cache-report.json");
+        new ObjectMapper().findAndRegisterModules().enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValue(file.toFile(), report);
+        printComparison(modes);
+        System.out.println("\nReport written to " + file.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /**
+     * One phase: {@code passes} times the dashboard sequence for a random target, optionally after an upload.
+     */
+    private static Map<String, Object> run(URI baseUrl, List<Target> targets, DatasetSpec spec, int passes,
+                                           String ingestDevice) throws IOException, InterruptedException {
+        // Gleicher Seed in beiden Modi: dieselben Geräte und Fahrten in derselben Reihenfolge
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        Map<String, long[]> statements = new LinkedHashMap<>();
+        Map<String, Histogram> latencies = new LinkedHashMap<>();
+        long uploadTime = spec.end().getEpochSecond() + 86_400;
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            for (int pass = 0; pass < passes; pass++) {
+                Target target = targets.get(random.nextInt(targets.size()));
+                if (ingestDevice != null) {
+                    String body = "{\"deviceId\":\"" + ingestDevice + "\",\"start_time\":" + uploadTime + ",\"end_time\":" + (uploadTime + 10)
+                            + ",\"aggregated_data\":{\"distance\":100},\"timed_data\":{\"0\":{\"speed\":50}}}";
+                    uploadTime += 10;
+                    send(http, HttpRequest.newBuilder(baseUrl.resolve("/api/telemetry"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body)), "ingest", statements, latencies);
+                }
+                for (Endpoint endpoint : ReadBenchmarkSuite.ENDPOINTS) {
+                    if (ENDPOINTS.contains(endpoint.name())) {
+                        send(http, HttpRequest.newBuilder(baseUrl.resolve(endpoint.path().apply(target))).GET(),
+                                endpoint.name(), statements, latencies);
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        long totalStatements = 0;
+        long totalRequests = 0;
+        for (Map.Entry<String, long[]> entry : statements.entrySet()) {
+            long[] counts = entry.getValue();
+            Histogram histogram = latencies.get(entry.getKey());
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", counts[1]);
+            endpoint.put("statements_per_request", (double) counts[0] / counts[1]);
+            endpoint.put("p50_ms", histogram.getValueAtPercentile(50) / 1000.0);
+            endpoint.put("p95_ms", histogram.getValueAtPercentile(95) / 1000.0);
+            result.put(entry.getKey(), endpoint);
+            totalStatements += counts[0];
+            totalRequests += counts[1];
+            System.out.printf(Locale.ROOT, "%-11s %-18s %8.2f statements/request  p50 %6.1f ms%n",
+                    ingestDevice == null ? "read-only" : "with-ingest", entry.getKey(),
+                    endpoint.get("statements_per_request"), endpoint.get("p50_ms"));
+        }
+        result.put("total_statements", totalStatements);
+        result.put("total_requests", totalRequests);
+        return result;
+    }
+
+    private static void send(HttpClient http, HttpRequest.Builder builder, String name,
+                             Map<String, long[]> statements, Map<String, Histogram> latencies) throws IOException, InterruptedException {
+        HttpRequest request = builder.timeout(Duration.ofSeconds(60)).header("X-API-KEY", ReadBenchmarkSuite.API_KEY).build();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(name + " returned " + response.statusCode());
+        }
+        Matcher matcher = STATEMENTS.matcher(response.headers().firstValue("Server-Timing").orElse(""));
+        if (!matcher.find()) {
+            throw new IllegalStateException(name + " has no statement count in Server-Timing");
+        }
+        long[] counts = statements.computeIfAbsent(name, ignored -> new long[2]);
+        counts[0] += Long.parseLong(matcher.group(1));
+        counts[1]++;
+        latencies.computeIfAbsent(name, ignored -> new Histogram(3)).recordValue(micros);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printComparison(Map<String, Object> modes) {
+        Map<String, Object> off = (Map<String, Object>) modes.get("cache-off");
+        Map<String, Object> on = (Map<String, Object>) modes.get("cache-on");
+        System.out.printf(Locale.ROOT, "%n%-12s %14s %14s %10s%n", "phase", "stmts off", "stmts on", "reduction");
+        for (String phase : off.keySet()) {
+            long before = (long) ((Map<String, Object>) off.get(phase)).get("total_statements");
+            long after = (long) ((Map<String, Object>) on.get(phase)).get("total_statements");
+            System.out.printf(Locale.ROOT, "%-12s %14d %14d %9.1f%%%n", phase, before, after,
+                    before == 0 ? 0.0 : 100.0 * (before - after) / before);
+        }
+    }
+}
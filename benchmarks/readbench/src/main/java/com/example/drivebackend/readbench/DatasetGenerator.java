@@ -0,0 +1,356 @@
+package com.example.drivebackend.readbench;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Bulk-loads a synthetic driving history straight into the database, bypassing HTTP and JPA.
+ * Rows look exactly like the ones written by {@code TelemetryServiceImpl#ingestTelemetry}: one telemetry
+ * row per upload with epoch-2000 keyed {@code timed_data}, trips with summed distance and sample count.
+ * IDs and values are derived from the seed, so the same spec always produces the same data.
+ *
+ * <p>Standalone: {@code ./mvnw -Preadbench -Dreadbench.main=com.example.drivebackend.readbench.DatasetGenerator
+ * -Dreadbench.args="--jdbc-url=... --devices=50 --years=2"}
+ */
+public final class DatasetGenerator {
+
+    static final String DEVICE_PREFIX = "bench-";
+
+    private static final long EPOCH_2000_OFFSET_SECONDS = 946_684_800L;
+    private static final int BATCH_ROWS = 500;
+    private static final String[] NOTE_CATEGORIES = { "Inspektion", "Bremsen", "Reifen", "Öl", "Elektrik" };
+    private static final String[] NOTE_TEXTS = {
+            "Bremsbeläge vorne gewechselt", "Ölwechsel mit Filter", "Sommerreifen montiert", "Batterie getauscht",
+            "Inspektion mit Zündkerzen", "Bremsscheiben hinten erneuert", "Klimaanlage gewartet"
+    };
+
+    /**
+     * Row counts and load time of one generated dataset.
+     */
+    record LoadResult(long devices, long trips, long telemetryRows, long repairNotes, Duration duration) {
+    }
+
+    private DatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        DatasetSpec template = spec(options);
+        DatasetSpec spec = DatasetSpec.parse(options.getOrDefault("devices", "10") + "x" + options.getOrDefault("years", "1"), template);
+
+        try (HikariDataSource dataSource = dataSource(options.getOrDefault("jdbc-url", "jdbc:h2:file:./target/readbench/db"),
+                options.getOrDefault("username", "sa"), options.getOrDefault("password", ""))) {
+            migrate(dataSource);
+            if (Boolean.parseBoolean(options.getOrDefault("truncate", "true"))) {
+                truncate(dataSource);
+            }
+            LoadResult result = load(dataSource, spec, Integer.parseInt(options.getOrDefault("threads", "4")));
+            analyze(dataSource);
+            System.out.printf(Locale.ROOT, "Loaded %d devices, %d trips, %d telemetry rows, %d repair notes in %ds%n",
+                    result.devices(), result.trips(), result.telemetryRows(), result.repairNotes(), result.duration().toSeconds());
+        }
+    }
+
+    /**
+     * Spec defaults shared by the generator and the benchmark suite.
+     */
+    static DatasetSpec spec(Map<String, String> options) {
+        return new DatasetSpec("template", 0, 0,
+                Double.parseDouble(options.getOrDefault("trips-per-day", "2")),
+                Integer.parseInt(options.getOrDefault("trip-minutes", "40")),
+                Integer.parseInt(options.getOrDefault("batch-seconds", "10")),
+                Integer.parseInt(options.getOrDefault("notes-per-year", "6")),
+                Instant.parse(options.getOrDefault("end", "2026-01-01T00:00:00Z")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+    }
+
+    static HikariDataSource dataSource(String url, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(8);
+        if (url.startsWith("jdbc:postgresql")) {
+            // Batches als Multi-Row-INSERT schicken, sonst kostet jede Zeile einen Roundtrip
+            config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        }
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Same migrations and settings as the application, so the generator can fill an empty database.
+     */
+    static void migrate(DataSource dataSource) throws SQLException {
+        // {vendor} löst nur Spring Boot auf, Flyway selbst nicht
+        String vendor;
+        try (Connection connection = dataSource.getConnection()) {
+            vendor = isPostgres(connection) ? "postgresql" : "h2";
+        }
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/" + vendor)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    static void truncate(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            if (isPostgres(connection)) {
+                statement.execute("TRUNCATE telemetry, telemetry_chunk, trip_signal_data, trips, repair_note, telemetry_segment, device_signal_stats, device");
+            } else {
+                statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                for (String table : List.of("telemetry", "telemetry_chunk", "trip_signal_data", "trips", "repair_note", "telemetry_segment", "device_signal_stats", "device")) {
+                    statement.execute("TRUNCATE TABLE " + table);
+                }
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+    }
+
+    static void analyze(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(isPostgres(connection) ? "VACUUM ANALYZE" : "ANALYZE");
+        }
+    }
+
+    /**
+     * Insert the dataset, one device per task; every task commits its own batches.
+     */
+    static LoadResult load(DataSource dataSource, DatasetSpec spec, int threads) throws Exception {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO device (device_id, name) VALUES (?, ?)")) {
+            for (int i = 0; i < spec.devices(); i++) {
+                insert.setString(1, DEVICE_PREFIX + i);
+                insert.setString(2, "Testwagen " + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        AtomicLong trips = new AtomicLong();
+        AtomicLong rows = new AtomicLong();
+        AtomicLong notes = new AtomicLong();
+        long expectedRows = spec.expectedTelemetryRows();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < spec.devices(); i++) {
+                int device = i;
+                tasks.add(executor.submit(() -> {
+                    new DeviceWriter(spec, device).write(dataSource, trips, rows, notes);
+                    System.out.printf(Locale.ROOT, "  %s: device %d done, %d/%d telemetry rows%n",
+                            spec.name(), device, rows.get(), expectedRows);
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+        return new LoadResult(spec.devices(), trips.get(), rows.get(), notes.get(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    static boolean isPostgres(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+    }
+
+    /**
+     * Generates and writes the history of one device.
+     */
+    private static final class DeviceWriter {
+
+        private final DatasetSpec spec;
+        private final String deviceId;
+        private final SplittableRandom random;
+        private double lat;
+        private double lon;
+
+        DeviceWriter(DatasetSpec spec, int device) {
+            this.spec = spec;
+            this.deviceId = DEVICE_PREFIX + device;
+            this.random = new SplittableRandom(spec.seed() * 31 + device);
+            this.lat = 48.0 + random.nextDouble(0, 5);
+            this.lon = 8.0 + random.nextDouble(0, 5);
+        }
+
+        void write(DataSource dataSource, AtomicLong tripCount, AtomicLong rowCount, AtomicLong noteCount) throws SQLException {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement tripInsert = connection.prepareStatement(
+                         "INSERT INTO trips (id, device_id, start_time, end_time, trip_distance_km, telemetry_count) VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement telemetryInsert = connection.prepareStatement(
+                         "INSERT INTO telemetry (id, device_id, trip_id, start_time, end_time, timed_data, aggregated_data) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement noteInsert = connection.prepareStatement(
+                         "INSERT INTO repair_note (id, device_id, note_text, note_date, note_price, category) VALUES (?, ?, ?, ?, ?, ?)")) {
+                connection.setAutoCommit(false);
+
+                Instant firstDay = spec.end().truncatedTo(ChronoUnit.DAYS).minus(Duration.ofDays(spec.days()));
+                int pendingRows = 0;
+                for (int day = 0; day < spec.days(); day++) {
+                    Instant midnight = firstDay.plus(Duration.ofDays(day));
+                    // Poisson-artig: ganze Fahrten plus eine weitere mit der Restwahrscheinlichkeit
+                    int trips = (int) spec.tripsPerDay() + (random.nextDouble() < spec.tripsPerDay() % 1 ? 1 : 0);
+                    long previousEnd = 0;
+                    for (int t = 0; t < trips; t++) {
+                        long tripStart = Math.max(previousEnd + 3600,
+                                midnight.getEpochSecond() + random.nextLong(6 * 3600, 20 * 3600));
+                        int uploads = Math.max(1, (int) (spec.tripMinutes() * 60 * random.nextDouble(0.5, 1.5)) / spec.batchSeconds());
+                        UUID tripId = uuid();
+                        double distanceKm = 0;
+                        for (int u = 0; u < uploads; u++) {
+                            long start = tripStart + (long) u * spec.batchSeconds();
+                            double distance = addTelemetry(telemetryInsert, tripId, start);
+                            distanceKm += distance / 1000;
+                        }
+                        previousEnd = tripStart + (long) uploads * spec.batchSeconds();
+
+                        tripInsert.setObject(1, tripId);
+                        tripInsert.setString(2, deviceId);
+                        tripInsert.setObject(3, timestamp(tripStart));
+                        tripInsert.setObject(4, timestamp(tripStart + (long) (uploads - 1) * spec.batchSeconds()));
+                        tripInsert.setFloat(5, (float) distanceKm);
+                        tripInsert.setInt(6, uploads);
+                        tripInsert.addBatch();
+                        tripCount.incrementAndGet();
+                        rowCount.addAndGet(uploads);
+                        pendingRows += uploads;
+
+                        if (pendingRows >= BATCH_ROWS) {
+                            // Fahrten zuerst, die Telemetrie referenziert sie per Fremdschlüssel
+                            tripInsert.executeBatch();
+                            telemetryInsert.executeBatch();
+                            connection.commit();
+                            pendingRows = 0;
+                        }
+                    }
+                }
+                tripInsert.executeBatch();
+                telemetryInsert.executeBatch();
+
+                long notes = Math.round(spec.notesPerYear() * spec.years());
+                LocalDate firstDate = LocalDate.ofInstant(firstDay, ZoneOffset.UTC);
+                for (long n = 0; n < notes; n++) {
+                    noteInsert.setObject(1, uuid());
+                    noteInsert.setString(2, deviceId);
+                    noteInsert.setString(3, NOTE_TEXTS[random.nextInt(NOTE_TEXTS.length)]);
+                    noteInsert.setDate(4, Date.valueOf(firstDate.plusDays(random.nextInt(Math.max(1, spec.days())))));
+                    noteInsert.setBigDecimal(5, BigDecimal.valueOf(random.nextInt(2_000, 150_000), 2));
+                    noteInsert.setString(6, NOTE_CATEGORIES[random.nextInt(NOTE_CATEGORIES.length)]);
+                    noteInsert.addBatch();
+                }
+                noteInsert.executeBatch();
+                noteCount.addAndGet(notes);
+                connection.commit();
+            }
+        }
+
+        /**
+         * One upload: {@code batchSeconds} samples of the 20 dongle metrics with a plausible speed profile.
+         *
+         * @return driven distance in meters, as sent in {@code aggregated_data.distance}
+         */
+        private double addTelemetry(PreparedStatement insert, UUID tripId, long startEpochSeconds) throws SQLException {
+            long startEpoch2000 = startEpochSeconds - EPOCH_2000_OFFSET_SECONDS;
+            StringBuilder json = new StringBuilder(spec.batchSeconds() * 420);
+            json.append('{');
+            double distance = 0;
+            double speed = random.nextDouble(20, 120);
+            for (int s = 0; s < spec.batchSeconds(); s++) {
+                speed = Math.clamp(speed + random.nextDouble(-4, 4), 0, 180);
+                distance += speed / 3.6;
+                lat += speed / 3.6 / 111_000 * random.nextDouble(-1, 1);
+                lon += speed / 3.6 / 75_000 * random.nextDouble(-1, 1);
+                int gear = speed < 1 ? 0 : Math.min(7, 1 + (int) (speed / 25));
+                if (s > 0) {
+                    json.append(',');
+                }
+                json.append('"').append(startEpoch2000 + s).append("\":{")
+                        .append("\"speed\":").append((int) speed)
+                        .append(",\"rpm\":").append(800 + (int) (speed * 2400 / Math.max(1, gear * 20)))
+                        .append(",\"throttle\":").append(decimal(random.nextDouble(0, 100)))
+                        .append(",\"engine_load\":").append(decimal(random.nextDouble(10, 90)))
+                        .append(",\"coolant_temp\":").append(random.nextInt(85, 95))
+                        .append(",\"intake_temp\":").append(random.nextInt(15, 45))
+                        .append(",\"oil_temp\":").append(random.nextInt(90, 110))
+                        .append(",\"fuel_level\":").append(random.nextInt(5, 100))
+                        .append(",\"fuel_rate\":").append(decimal(random.nextDouble(0.5, 25)))
+                        .append(",\"maf\":").append(decimal(random.nextDouble(2, 200)))
+                        .append(",\"map\":").append(decimal(random.nextDouble(20, 250)))
+                        .append(",\"lambda\":").append(decimal(random.nextDouble(0.8, 1.2)))
+                        .append(",\"battery_voltage\":").append(decimal(random.nextDouble(13.2, 14.6)))
+                        .append(",\"gear\":").append(gear)
+                        .append(",\"steering_angle\":").append(decimal(random.nextDouble(-90, 90)))
+                        .append(",\"brake_pressure\":").append(decimal(random.nextDouble(0, 60)))
+                        .append(",\"lat\":").append(Math.round(lat * 1e6) / 1e6)
+                        .append(",\"lon\":").append(Math.round(lon * 1e6) / 1e6)
+                        .append(",\"altitude\":").append(decimal(random.nextDouble(100, 800)))
+                        .append(",\"accel_x\":").append(decimal(random.nextDouble(-3, 3)))
+                        .append('}');
+            }
+            json.append('}');
+
+            insert.setObject(1, uuid());
+            insert.setString(2, deviceId);
+            insert.setObject(3, tripId);
+            insert.setObject(4, timestamp(startEpochSeconds));
+            insert.setObject(5, timestamp(startEpochSeconds + spec.batchSeconds() - 1));
+            insert.setString(6, json.toString());
+            insert.setString(7, "{\"distance\":" + decimal(distance) + "}");
+            insert.addBatch();
+            return distance;
+        }
+
+        private static OffsetDateTime timestamp(long epochSeconds) {
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), ZoneOffset.UTC);
+        }
+
+        private UUID uuid() {
+            // Version-4-Bits setzen, damit die IDs wie die von Hibernate aussehen
+            long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+            long low = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+            return new UUID(high, low);
+        }
+
+        private static double decimal(double value) {
+            // String.format wäre bei Millionen Werten der Flaschenhals
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
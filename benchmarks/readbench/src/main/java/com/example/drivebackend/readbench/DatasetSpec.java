@@ -0,0 +1,47 @@
+package com.example.drivebackend.readbench;
+
+import java.time.Instant;
+
+/**
+ * Shape of a synthetic history: {@code devices} cars with {@code years} of driving up to {@code end}.
+ * Every day has about {@code tripsPerDay} trips of about {@code tripMinutes}; every telemetry row holds
+ * {@code batchSeconds} seconds of 1 Hz {@code timed_data}, like an upload of the dongle.
+ *
+ * @param name label in the report, by default {@code <devices>x<years>}
+ */
+record DatasetSpec(
+        String name,
+        int devices,
+        double years,
+        double tripsPerDay,
+        int tripMinutes,
+        int batchSeconds,
+        int notesPerYear,
+        Instant end,
+        long seed
+) {
+
+    /**
+     * Parse {@code <devices>x<years>}, e.g. {@code 20x1.5}; all other values come from {@code template}.
+     */
+    static DatasetSpec parse(String size, DatasetSpec template) {
+        int split = size.indexOf('x');
+        if (split <= 0) {
+            throw new IllegalArgumentException("Invalid size, expected <devices>x<years>: " + size);
+        }
+        return new DatasetSpec(size, Integer.parseInt(size.substring(0, split)), Double.parseDouble(size.substring(split + 1)),
+                template.tripsPerDay(), template.tripMinutes(), template.batchSeconds(), template.notesPerYear(),
+                template.end(), template.seed());
+    }
+
+    int days() {
+        return (int) Math.round(years * 365);
+    }
+
+    /**
+     * Expected number of telemetry rows, used for progress output and the report.
+     */
+    long expectedTelemetryRows() {
+        return Math.round(devices * days() * tripsPerDay * tripMinutes * 60.0 / batchSeconds);
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.drivebackend.readbench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.drivebackend.Application;
+import com.example.drivebackend.services.TelemetryCompactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Times every read endpoint against datasets of growing size. For each size the database is truncated,
+ * filled by {@link DatasetGenerator} and analyzed, then the application is started in-process on a
+ * random port and every endpoint is called sequentially (warmup, then measured iterations) for random
+ * devices and trips. The report ({@code report.json} plus a timestamped copy) holds row counts, load time
+ * and latency percentiles per size and endpoint, so scaling curves can be compared across releases.
+ * With {@code --compact=true} all trips are compacted into chunk rows before measuring, the report then also
+ * holds the row counts and table sizes after compaction.
+ */
+public final class ReadBenchmarkSuite {
+
+    static final String API_KEY = "readbench";
+    private static final int SAMPLED_DEVICES = 10;
+
+    /**
+     * A device/trip combination the endpoints are called with.
+     */
+    record Target(String deviceId, UUID tripId, Instant tripStart) {
+    }
+
+    record Endpoint(String name, Function<Target, String> path) {
+    }
+
+    static final List<Endpoint> ENDPOINTS = List.of(
+            new Endpoint("devices", t -> "/api/devices"),
+            new Endpoint("device-stats", t -> "/api/devices/stats?deviceId=" + t.deviceId()),
+            new Endpoint("device-stats-30d", t -> "/api/devices/stats?deviceId=" + t.deviceId() + range(t, 30)),
+            new Endpoint("trips-list", t -> "/api/trips/list?deviceId=" + t.deviceId() + "&page=0&pageSize=20"),
+            new Endpoint("trip-details", t -> "/api/trips/" + t.tripId() + "?deviceId=" + t.deviceId()),
+            new Endpoint("trips-grouped-7d", t -> "/api/trips?deviceId=" + t.deviceId() + range(t, 7)),
+            new Endpoint("trips-weekday", t -> "/api/trips/weekday?deviceId=" + t.deviceId()),
+            new Endpoint("trips-time-of-day", t -> "/api/trips/time-of-day?deviceId=" + t.deviceId()),
+            new Endpoint("telemetry-latest", t -> "/api/telemetry/latest?deviceId=" + t.deviceId()),
+            new Endpoint("telemetry-1d", t -> "/api/telemetry?deviceId=" + t.deviceId() + range(t, 1)),
+            new Endpoint("telemetry-trip", t -> "/api/telemetry?deviceId=" + t.deviceId() + "&tripId=" + t.tripId()),
+            new Endpoint("notes", t -> "/api/devices/" + t.deviceId() + "/notes?page=0&pageSize=20"),
+            new Endpoint("notes-search", t -> "/api/devices/" + t.deviceId() + "/notes/search?q=inspektion"),
+            new Endpoint("notes-costs", t -> "/api/devices/" + t.deviceId() + "/notes/costs?groupBy=month"),
+            new Endpoint("export-trips", t -> "/api/export/trips?deviceId=" + t.deviceId()),
+            new Endpoint("export-telemetry-30d", t -> "/api/export/telemetry?format=ndjson&deviceId=" + t.deviceId() + range(t, 30)));
+
+    private ReadBenchmarkSuite() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        String jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:h2:file:./target/readbench/db");
+        String username = options.getOrDefault("username", "sa");
+        String password = options.getOrDefault("password", "");
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "20"));
+        Duration maxTime = Duration.ofSeconds(Long.parseLong(options.getOrDefault("max-seconds-per-endpoint", "60")));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout-seconds", "300")));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/readbench"));
+        boolean compact = Boolean.parseBoolean(options.getOrDefault("compact", "false"));
+        DatasetSpec template = DatasetGenerator.spec(options);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("version", System.getProperty("readbench.version", "unknown"));
+        report.put("started_at", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+        report.put("java", Runtime.version().toString());
+        report.put("warmup", warmup);
+        report.put("iterations", iterations);
+        report.put("compact", compact);
+        List<Map<String, Object>> sizes = new ArrayList<>();
+        report.put("sizes", sizes);
+
+        for (String size : options.getOrDefault("sizes", "1x0.1,2x0.5,4x1").split(",")) {
+            DatasetSpec spec = DatasetSpec.parse(size.trim(), template);
+            System.out.printf(Locale.ROOT, "%n== %s: %d devices, %.2f years, ~%d telemetry rows%n",
+                    spec.name(), spec.devices(), spec.years(), spec.expectedTelemetryRows());
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            List<Target> targets;
+            try (HikariDataSource dataSource = DatasetGenerator.dataSource(jdbcUrl, username, password)) {
+                DatasetGenerator.migrate(dataSource);
+                DatasetGenerator.truncate(dataSource);
+                DatasetGenerator.LoadResult load = DatasetGenerator.load(dataSource, spec, threads);
+                DatasetGenerator.analyze(dataSource);
+                try (Connection connection = dataSource.getConnection()) {
+                    report.putIfAbsent("database", connection.getMetaData().getDatabaseProductName() + " "
+                            + connection.getMetaData().getDatabaseProductVersion());
+                }
+                result.put("name", spec.name());
+                result.put("spec", spec);
+                Map<String, Long> rows = new LinkedHashMap<>();
+                rows.put("devices", load.devices());
+                rows.put("trips", load.trips());
+                rows.put("telemetry", load.telemetryRows());
+                rows.put("repair_note", load.repairNotes());
+                result.put("rows", rows);
+                result.put("load_seconds", load.duration().toMillis() / 1000.0);
+                result.put("table_bytes", tableBytes(dataSource));
+                targets = targets(dataSource, spec);
+            }
+
+            try (ConfigurableApplicationContext context = start(jdbcUrl, username, password)) {
+                if (compact) {
+                    long start = System.nanoTime();
+                    int samples = context.getBean(TelemetryCompactionService.class).compactTripsFinishedBefore(Instant.now());
+                    result.put("compaction_seconds", (System.nanoTime() - start) / 1_000_000 / 1000.0);
+                    result.put("compacted_samples", samples);
+                    DataSource dataSource = context.getBean(JdbcTemplate.class).getDataSource();
+                    reclaim(dataSource);
+                    result.put("rows_after_compaction", rowCounts(dataSource));
+                    result.put("table_bytes_after_compaction", tableBytes(dataSource));
+                    System.out.printf(Locale.ROOT, "compacted %d samples in %.1f s: %s%n", samples,
+                            (Double) result.get("compaction_seconds"), result.get("rows_after_compaction"));
+                }
+                URI baseUrl = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                result.put("endpoints", measure(baseUrl, targets, spec.seed(), warmup, iterations, maxTime, timeout));
+            }
+            sizes.add(result);
+        }
+
+        Files.createDirectories(reportDir);
+        Path file = reportDir.resolve("report-" + Instant.now().truncatedTo(ChronoUnit.SECONDS).toString().replace(':', '-') + ".json");
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules().enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.writeValue(file.toFile(), report);
+        Files.copy(file, reportDir.resolve("report.json"), StandardCopyOption.REPLACE_EXISTING);
+        printScaling(sizes);
+        System.out.println("\nReport written to " + file.toAbsolutePath());
+        System.exit(0);
+    }
+
+    /**
+     * Start the application on a random port against the given database.
+     *
+     * @param extraArgs further {@code --name=value} properties, e.g. to switch a feature off
+     */
+    static ConfigurableApplicationContext start(String jdbcUrl, String username, String password, String... extraArgs) {
+        byte[] secret = new byte[32];
+        new SplittableRandom().nextBytes(secret);
+        boolean postgres = jdbcUrl.startsWith("jdbc:postgresql");
+        // Als Kommandozeilenargumente, damit sie vor Umgebungsvariablen wie SPRING_DATASOURCE_URL gewinnen
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect." + (postgres ? "PostgreSQLDialect" : "H2Dialect"),
+                "--api.key.value=" + API_KEY,
+                "--app.is-production=false",
+                "--app.auth.username=readbench",
+                "--app.auth.password=unused",
+                "--app.auth.secret=" + Base64.getEncoder().encodeToString(secret),
+                "--app.photos.dir=target/readbench/photos"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(Application.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Up to {@link #SAMPLED_DEVICES} devices with all of their trips; the endpoints pick from these at random.
+     */
+    static List<Target> targets(DataSource dataSource, DatasetSpec spec) throws SQLException {
+        List<Target> targets = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement trips = connection.prepareStatement("SELECT id, start_time FROM trips WHERE device_id = ?")) {
+            for (int i = 0; i < Math.min(spec.devices(), SAMPLED_DEVICES); i++) {
+                String deviceId = DatasetGenerator.DEVICE_PREFIX + i;
+                trips.setString(1, deviceId);
+                try (ResultSet rs = trips.executeQuery()) {
+                    while (rs.next()) {
+                        targets.add(new Target(deviceId, rs.getObject(1, UUID.class), rs.getObject(2, OffsetDateTime.class).toInstant()));
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static Map<String, Long> tableBytes(DataSource dataSource) throws SQLException {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            if (!DatasetGenerator.isPostgres(connection)) {
+                return sizes;
+            }
+            for (String table : List.of("telemetry", "telemetry_chunk", "trips", "repair_note")) {
+                // Bei partitionierten Tabellen zählt pg_total_relation_size nur die leere Elterntabelle
+                try (ResultSet rs = statement.executeQuery("SELECT COALESCE(SUM(pg_total_relation_size(relid)), "
+                        + "pg_total_relation_size('" + table + "')) FROM pg_partition_tree('" + table + "')")) {
+                    rs.next();
+                    sizes.put(table, rs.getLong(1));
+                }
+            }
+        }
+        return sizes;
+    }
+
+    // Gelöschte Zeilen geben erst nach VACUUM FULL Platz frei, sonst zeigen die Tabellengrößen nichts
+    private static void reclaim(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(DatasetGenerator.isPostgres(connection) ? "VACUUM FULL ANALYZE telemetry" : "ANALYZE");
+        }
+    }
+
+    private static Map<String, Long> rowCounts(DataSource dataSource) throws SQLException {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String table : List.of("telemetry", "telemetry_chunk")) {
+                try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                    rs.next();
+                    rows.put(table, rs.getLong(1));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static Map<String, Object> measure(URI baseUrl, List<Target> targets, long seed, int warmup, int iterations,
+                                               Duration maxTime, Duration timeout) throws InterruptedException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            System.out.printf(Locale.ROOT, "%-22s %6s %9s %9s %9s %9s %11s %7s%n",
+                    "endpoint", "n", "p50 ms", "p95 ms", "p99 ms", "max ms", "avg bytes", "errors");
+            for (Endpoint endpoint : ENDPOINTS) {
+                // Gleicher Seed pro Endpunkt: jede Version sieht dieselbe Folge von Geräten und Fahrten
+                SplittableRandom random = new SplittableRandom(seed + endpoint.name().hashCode());
+                Histogram histogram = new Histogram(3);
+                long bytes = 0;
+                int errors = 0;
+                long deadline = System.nanoTime() + maxTime.toNanos();
+                for (int i = 0; i < warmup + iterations && (i <= warmup || System.nanoTime() < deadline); i++) {
+                    Target target = targets.get(random.nextInt(targets.size()));
+                    HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(endpoint.path().apply(target)))
+                            .timeout(timeout)
+                            .header("X-API-KEY", API_KEY)
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    long size = -1;
+                    try {
+                        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream body = response.body()) {
+                            long read = body.transferTo(OutputStream.nullOutputStream());
+                            size = response.statusCode() < 300 ? read : -1;
+                        }
+                    } catch (IOException e) {
+                        size = -1;
+                    }
+                    long micros = (System.nanoTime() - start) / 1000;
+                    if (i < warmup) {
+                        continue;
+                    }
+                    histogram.recordValue(micros);
+                    if (size < 0) {
+                        errors++;
+                    } else {
+                        bytes += size;
+                    }
+                }
+
+                long count = histogram.getTotalCount();
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("iterations", count);
+                result.put("errors", errors);
+                result.put("p50_ms", histogram.getValueAtPercentile(50) / 1000.0);
+                result.put("p95_ms", histogram.getValueAtPercentile(95) / 1000.0);
+                result.put("p99_ms", histogram.getValueAtPercentile(99) / 1000.0);
+                result.put("max_ms", histogram.getMaxValue() / 1000.0);
+                result.put("mean_ms", histogram.getMean() / 1000.0);
+                result.put("avg_response_bytes", count > errors ? bytes / (count - errors) : 0);
+                results.put(endpoint.name(), result);
+                System.out.printf(Locale.ROOT, "%-22s %6d %9.1f %9.1f %9.1f %9.1f %11d %7d%n", endpoint.name(), count,
+                        result.get("p50_ms"), result.get("p95_ms"), result.get("p99_ms"), result.get("max_ms"),
+                        result.get("avg_response_bytes"), errors);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * p50 per endpoint and size side by side, the scaling curve at a glance.
+     */
+    @SuppressWarnings("unchecked")
+    private static void printScaling(List<Map<String, Object>> sizes) {
+        StringBuilder header = new StringBuilder(String.format(Locale.ROOT, "%n%-22s", "p50 ms"));
+        sizes.forEach(size -> header.append(String.format(Locale.ROOT, " %12s", size.get("name"))));
+        System.out.println(header);
+        for (Endpoint endpoint : ENDPOINTS) {
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-22s", endpoint.name()));
+            for (Map<String, Object> size : sizes) {
+                Map<String, Object> result = (Map<String, Object>) ((Map<String, Object>) size.get("endpoints")).get(endpoint.name());
+                line.append(String.format(Locale.ROOT, " %12.1f", (Double) result.get("p50_ms")));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static String range(Target target, int days) {
+        Instant end = target.tripStart().plus(Duration.ofDays(1)).truncatedTo(ChronoUnit.DAYS);
+        return "&since=" + end.minus(Duration.ofDays(days)) + "&end=" + end;
+    }
+}
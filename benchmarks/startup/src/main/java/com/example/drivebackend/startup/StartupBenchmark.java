@@ -0,0 +1,215 @@
+package com.example.drivebackend.startup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Time to the first successful ingest of a freshly started backend, for the plain jar and for the fast-startup
+ * build (AOT plus CDS archive, {@code mvn -Pfast-startup package}). Every run starts a new JVM, posts one upload
+ * as soon as the port accepts connections and stops the JVM again after the first {@code 201}.
+ */
+public final class StartupBenchmark {
+
+    private static final String API_KEY = "startup-bench";
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+
+    /**
+     * JVM flags per mode; {@code application.jsa} is resolved relative to the fast-startup directory.
+     */
+    static final Map<String, List<String>> MODES = new LinkedHashMap<>();
+
+    static {
+        MODES.put("jar", List.of());
+        MODES.put("aot", List.of("-Dspring.aot.enabled=true"));
+        MODES.put("cds", List.of("-XX:SharedArchiveFile=application.jsa"));
+        MODES.put("aot-cds", List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"));
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        Path dir = Path.of(options.getOrDefault("dir", "target/fast-startup")).toAbsolutePath();
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "jar,aot-cds").split(","));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> jvmArgs = options.containsKey("jvm-args") ? Arrays.asList(options.get("jvm-args").trim().split("\\s+")) : List.of();
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout-seconds", "180")));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/startupbench")).toAbsolutePath();
+
+        Path jar = findJar(dir);
+        for (String mode : modes) {
+            if (!MODES.containsKey(mode)) {
+                throw new IllegalArgumentException("Unknown mode " + mode + ", expected one of " + MODES.keySet());
+            }
+        }
+        if (modes.stream().anyMatch(mode -> mode.contains("cds")) && !Files.exists(dir.resolve("application.jsa"))) {
+            throw new IllegalStateException("No CDS archive in " + dir + ", build it with: mvn -Pfast-startup package");
+        }
+        Files.createDirectories(reportDir);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("started_at", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+        report.put("java", Runtime.version().toString());
+        report.put("jar", jar.getFileName().toString());
+        report.put("jvm_args", jvmArgs);
+        report.put("runs", runs);
+        Map<String, Object> results = new LinkedHashMap<>();
+        report.put("modes", results);
+
+        for (String mode : modes) {
+            List<Map<String, Object>> modeRuns = new ArrayList<>();
+            for (int run = 1; run <= runs; run++) {
+                Map<String, Object> result = run(dir, jar, mode, run, jvmArgs, timeout, reportDir);
+                System.out.printf(Locale.ROOT, "%-8s run %d: first ingest after %6d ms (Spring: started in %s s, JVM running %s s, first request %d ms)%n",
+                        mode, run, result.get("time_to_first_ingest_ms"), result.get("spring_started_seconds"),
+                        result.get("jvm_running_seconds"), result.get("first_ingest_request_ms"));
+                modeRuns.add(result);
+            }
+            Map<String, Object> modeResult = new LinkedHashMap<>();
+            modeResult.put("jvm_flags", MODES.get(mode));
+            modeResult.put("time_to_first_ingest_ms", summary(modeRuns.stream().mapToLong(r -> (long) r.get("time_to_first_ingest_ms")).toArray()));
+            modeResult.put("runs", modeRuns);
+            results.put(mode, modeResult);
+        }
+
+        Path file = reportDir.resolve("report-" + Instant.now().truncatedTo(ChronoUnit.SECONDS).toString().replace(':', '-') + ".json");
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(file.toFile(), report);
+        Files.copy(file, reportDir.resolve("report.json"), StandardCopyOption.REPLACE_EXISTING);
+
+        System.out.println("\nTime to first successful ingest (ms):");
+        System.out.printf(Locale.ROOT, "%-8s %8s %8s %8s%n", "mode", "min", "median", "max");
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Long> summary = (Map<String, Long>) ((Map<String, Object>) entry.getValue()).get("time_to_first_ingest_ms");
+            System.out.printf(Locale.ROOT, "%-8s %8d %8d %8d%n", entry.getKey(), summary.get("min"), summary.get("median"), summary.get("max"));
+        }
+        System.out.println("\nReport written to " + file);
+    }
+
+    private static Map<String, Object> run(Path dir, Path jar, String mode, int run, List<String> jvmArgs,
+                                           Duration timeout, Path reportDir) throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(MODES.get(mode));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + port, "--spring.main.banner-mode=off"));
+
+        Path log = reportDir.resolve("logs").resolve(mode + "-" + run + ".log");
+        Files.createDirectories(log.getParent());
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        // Pflicht-Properties der App, falls nicht gesetzt; die Datenbank kommt wie gewohnt aus der Umgebung (Standard H2)
+        Map<String, String> env = builder.environment();
+        env.put("API_KEY_VALUE", API_KEY);
+        env.putIfAbsent("IS_PROD", "false");
+        env.putIfAbsent("USERNAME", "startupbench");
+        env.putIfAbsent("PASSWORD", "unused");
+        env.putIfAbsent("SECRET_JWT", "startupbench-secret-with-at-least-32-bytes");
+        env.put("PHOTO_STORAGE_DIR", reportDir.resolve("photos").toString());
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        long epoch = Instant.now().getEpochSecond();
+        HttpRequest ingest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/telemetry"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("X-API-KEY", API_KEY)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"deviceId\":\"startupbench-" + mode + "-" + run + "\",\"start_time\":" + epoch
+                        + ",\"end_time\":" + (epoch + 10) + ",\"aggregated_data\":{\"distance\":100},\"timed_data\":{\"0\":{\"speed\":50}}}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " run " + run + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(mode + " run " + run + " did not accept an upload within " + timeout + ", see " + log);
+                }
+                long requestStart = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(ingest, HttpResponse.BodyHandlers.discarding());
+                    long end = System.nanoTime();
+                    if (response.statusCode() == 201) {
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("time_to_first_ingest_ms", (end - start) / 1_000_000);
+                        result.put("first_ingest_request_ms", (end - requestStart) / 1_000_000);
+                        Matcher started = STARTED.matcher(Files.readString(log));
+                        boolean found = started.find();
+                        result.put("spring_started_seconds", found ? Double.parseDouble(started.group(1)) : null);
+                        result.put("jvm_running_seconds", found ? Double.parseDouble(started.group(2)) : null);
+                        return result;
+                    }
+                } catch (ConnectException e) {
+                    // Port noch nicht offen
+                }
+                Thread.sleep(10);
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Path findJar(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalStateException(dir + " does not exist, build it with: mvn -Pfast-startup package");
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + dir));
+        }
+    }
+
+    private static Map<String, Long> summary(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        Map<String, Long> summary = new LinkedHashMap<>();
+        summary.put("min", sorted[0]);
+        summary.put("median", sorted[sorted.length / 2]);
+        summary.put("max", sorted[sorted.length - 1]);
+        return summary;
+    }
+}
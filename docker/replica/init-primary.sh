@@ -0,0 +1,4 @@
+#!/bin/sh
+# Streaming-Replikation für das Replikat aus docker-compose-replica.yaml erlauben
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -5,16 +5,45 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.services.DeviceApiKeyService;
+
 import java.io.IOException;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
 
 public class ApiKeyFilter extends OncePerRequestFilter {
-    private final String apiKey;
 
-    public ApiKeyFilter(String apiKey) {
-        this.apiKey = apiKey;
+    /**
+     * Request attribute holding the {@link DeviceEntity} a per-device key belongs to.
+     */
+    public static final String DEVICE_ATTRIBUTE = "com.example.drivebackend.config.ApiKeyFilter.device";
+
+    /**
+     * Role of per-device keys, only allowed to upload telemetry.
+     */
+    public static final String DEVICE_ROLE = "DEVICE";
+
+    /**
+     * Role of the fleet-wide key, everything except the dashboard-only endpoints.
+     */
+    public static final String FLEET_KEY_ROLE = "API";
+
+    private final byte[] apiKey;
+    private final DeviceApiKeyService deviceApiKeyService;
+
+    /**
+     * @param apiKey Fleet-wide key, blank to only accept per-device keys
+     */
+    public ApiKeyFilter(String apiKey, DeviceApiKeyService deviceApiKeyService) {
+        this.apiKey = apiKey == null || apiKey.isBlank() ? null : apiKey.getBytes(StandardCharsets.UTF_8);
+        this.deviceApiKeyService = deviceApiKeyService;
     }
 
     @Override
@@ -23,11 +52,23 @@ public class ApiKeyFilter extends OncePerRequestFilter {
 
         String requestKey = request.getHeader("X-API-KEY");
 
-        if (apiKey.equals(requestKey)) {
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken("API_USER", null, Collections.emptyList());
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        if (requestKey != null) {
+            Optional<DeviceEntity> device = deviceApiKeyService.resolve(requestKey);
+            if (device.isPresent()) {
+                // Gerät hängt am Request, der Ingest muss es nicht noch einmal laden
+                request.setAttribute(DEVICE_ATTRIBUTE, device.get());
+                authenticate(device.get().getDeviceId(), DEVICE_ROLE);
+            } else if (apiKey != null && MessageDigest.isEqual(apiKey, requestKey.getBytes(StandardCharsets.UTF_8))) {
+                authenticate("API_USER", FLEET_KEY_ROLE);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static void authenticate(String principal, String role) {
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.drivebackend.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.drivebackend.entities.CacheRegions;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hit ratio per second-level and query cache region, next to the raw {@code hibernate.second.level.cache.requests}
+ * and {@code hibernate.cache.query.requests} counters of hibernate-micrometer.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public MeterBinder hibernateCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : CacheRegions.ALL) {
+                Gauge.builder("hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                        .description("Share of cache lookups in the region that were hits since startup")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        // null, wenn der Cache abgeschaltet ist (HIBERNATE_CACHE_ENABLED=false)
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / lookups;
+    }
+}
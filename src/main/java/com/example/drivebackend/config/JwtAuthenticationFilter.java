@@ -1,6 +1,7 @@
 package com.example.drivebackend.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
@@ -19,11 +20,30 @@ import org.springframework.web.util.WebUtils;
 import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Upper bound for cached tokens and users; the dashboard has a handful of logins, so this is only
+     * reached when someone sends a lot of distinct (e.g. forged) tokens.
+     */
+    static final int MAX_CACHED = 1024;
+
     private final String secret;
+    private volatile JwtParser parser;
     private final UserDetailsService userDetailsService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    // Key ist der SHA-256 des Tokens, damit keine gültigen Tokens im Heap herumliegen
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    // Benutzer kommen aus der Konfiguration (app.auth.*) und ändern sich zur Laufzeit nicht
+    private final Map<String, UserDetails> users = new ConcurrentHashMap<>();
 
     public JwtAuthenticationFilter(String secret, UserDetailsService userDetailsService) {
         this.secret = secret;
@@ -50,34 +70,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // 2. Create Key from Secret
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-
-            // 3. Validate Token & Parse Claims
-            Claims claims = Jwts.parser()
-                    .verifyWith(key) // verify signature with secret
-                    .build()
-                    .parseSignedClaims(token) // parse the JWT
-                    .getPayload(); // extract the body (claims)
-
-            String username = claims.getSubject();
+            // 1. Only authenticate once
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // 4. If valid and not already authenticated
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // 2. Reuse an earlier verification of the same token while it has not expired
+                UserDetails userDetails = verify(token);
 
-                // Load user details from memory
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (userDetails != null) {
+                    // Create authentication token
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities());
 
-                // Create authentication token
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
+                    authToken.setDetails(detailsSource.buildDetails(request));
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // 5. Set Authentication in Context
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                    // 3. Set Authentication in Context
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
             }
 
         } catch (Exception e) {
@@ -87,4 +97,85 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    /**
+     * Verify the token, or take the result of an earlier verification of the same token.
+     *
+     * @return the user, or {@code null} if the token has no subject
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    private UserDetails verify(String token) {
+        String hash = hash(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(hash);
+        if (cached != null) {
+            if (now < cached.expiresAt()) {
+                return cached.user();
+            }
+            verifiedTokens.remove(hash, cached);
+        }
+
+        // Validate Token & Parse Claims
+        Claims claims = parser().parseSignedClaims(token).getPayload();
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+        UserDetails userDetails = loadUser(username);
+
+        // Ohne exp wird nicht gecacht, der Parser prüft dann bei jedem Request
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            if (verifiedTokens.size() >= MAX_CACHED) {
+                verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+                if (verifiedTokens.size() >= MAX_CACHED) {
+                    verifiedTokens.clear();
+                }
+            }
+            verifiedTokens.put(hash, new VerifiedToken(userDetails, expiration.getTime()));
+        }
+        return userDetails;
+    }
+
+    private UserDetails loadUser(String username) {
+        UserDetails cached = users.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        // Load user details from memory
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (users.size() >= MAX_CACHED) {
+            users.clear();
+        }
+        users.put(username, userDetails);
+        return userDetails;
+    }
+
+    /**
+     * Built on the first token rather than in the constructor, so a secret that is too short for HMAC-SHA only
+     * rejects tokens instead of failing the startup.
+     */
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            current = Jwts.parser()
+                    .verifyWith(key) // verify signature with secret
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(UserDetails user, long expiresAt) {
+    }
 }
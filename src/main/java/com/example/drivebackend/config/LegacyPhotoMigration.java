@@ -0,0 +1,65 @@
+package com.example.drivebackend.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.services.PhotoStorageService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Moves photos from the old {@code device.note_photo} BYTEA column into the {@link PhotoStorageService}.
+ * Runs once per startup and is a no-op when the column does not exist or is already empty.
+ */
+@Component
+@RequiredArgsConstructor
+public class LegacyPhotoMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyPhotoMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PhotoStorageService photoStorageService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> deviceIds;
+        try {
+            deviceIds = jdbcTemplate.queryForList(
+                    "SELECT device_id FROM device WHERE note_photo IS NOT NULL", String.class);
+        } catch (DataAccessException e) {
+            // Spalte existiert nicht (neue Datenbank) -> nichts zu migrieren
+            return;
+        }
+
+        // Ein Foto nach dem anderen laden, damit nie alle Bilder gleichzeitig im Heap liegen
+        for (String deviceId : deviceIds) {
+            byte[] photo = jdbcTemplate.queryForObject(
+                    "SELECT note_photo FROM device WHERE device_id = ?", byte[].class, deviceId);
+            if (photo == null) {
+                continue;
+            }
+            try {
+                String hash = photoStorageService.store(photo);
+                jdbcTemplate.update(
+                        "UPDATE device SET note_photo_hash = ?, note_photo = NULL WHERE device_id = ?", hash, deviceId);
+                // Am Persistence Context vorbei geschrieben, der Second-Level-Cache weiß davon nichts
+                entityManagerFactory.getCache().evict(DeviceEntity.class, deviceId);
+                log.info("Migrated photo of device {} to blob store ({})", deviceId, hash);
+            } catch (IOException e) {
+                log.warn("Could not migrate photo of device {}", deviceId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.drivebackend.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.drivebackend.routing.RecentDeviceWrites;
+import com.example.drivebackend.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Replaces the auto-configured pool with primary plus read replicas as soon as {@code app.datasource.replica.urls}
+ * is set. Read-only transactions ({@code TelemetryService}, {@code ExportService}, Spring Data's own find
+ * methods) go to the replicas, writes, Flyway and JDBC jobs stay on the primary.
+ * <p>
+ * The replica pools are deliberately no beans: the health endpoint only reports the primary, an unavailable
+ * replica just means reads fall back.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.urls:}'.isBlank()")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final RecentDeviceWrites recentDeviceWrites;
+
+    public ReadReplicaConfig(RecentDeviceWrites recentDeviceWrites) {
+        this.recentDeviceWrites = recentDeviceWrites;
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replica.urls}") List<String> urls,
+                                 @Value("${app.datasource.replica.username:}") String username,
+                                 @Value("${app.datasource.replica.password:}") String password,
+                                 @Value("${app.datasource.replica.connection-timeout:2s}") Duration connectionTimeout,
+                                 @Value("${app.datasource.replica.retry-after:30s}") Duration retryAfter) {
+        // Primary wie bisher aus spring.datasource.*, Pool-Einstellungen aus spring.datasource.hikari.*
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        pools.add(primary);
+
+        // Ohne eigenen Benutzer gelten die Zugangsdaten der Primary
+        boolean ownCredentials = !username.isBlank();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(ownCredentials ? username : properties.determineUsername())
+                    .password(ownCredentials ? password : properties.determinePassword())
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName(name);
+            replica.setReadOnly(true);
+            // Kurzes Timeout: ein hängendes Replikat soll schnell auf die Primary umleiten, nicht den Request blockieren
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Ohne Verbindung beim Start hochfahren, das Replikat kann später kommen
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(replica);
+            replicas.put(name, replica);
+        }
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, retryAfter, meterRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(recentDeviceWrites)).addPathPatterns("/api/**");
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.drivebackend.config;
+
+import java.util.Map;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.drivebackend.routing.RecentDeviceWrites;
+import com.example.drivebackend.routing.RoutingContext;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Pins reads for a device to the primary while its last write is within the read-your-writes window. The
+ * device comes from the {@code deviceId} path variable ({@code /api/devices/{deviceId}/...}) or request
+ * parameter, which covers all device-scoped endpoints. Successful writes on these endpoints (name, notes,
+ * photo) are recorded here, uploads by {@code TelemetryService} itself since their device is in the body.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final RecentDeviceWrites recentDeviceWrites;
+
+    public ReadYourWritesInterceptor(RecentDeviceWrites recentDeviceWrites) {
+        this.recentDeviceWrites = recentDeviceWrites;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (recentDeviceWrites.isRecent(deviceId(request))) {
+            RoutingContext.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RoutingContext.clear();
+        if (ex == null && response.getStatus() < 400 && !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            String deviceId = deviceId(request);
+            if (deviceId != null) {
+                recentDeviceWrites.record(deviceId);
+            }
+        }
+    }
+
+    // Streaming-Exporte laufen in einem anderen Thread weiter, der Request-Thread wird hier frei
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RoutingContext.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String deviceId(HttpServletRequest request) {
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables != null && pathVariables.containsKey("deviceId")) {
+            return pathVariables.get("deviceId");
+        }
+        return request.getParameter("deviceId");
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.drivebackend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.drivebackend.repository.RepairNoteRepository;
+import com.example.drivebackend.services.RepairNoteSearchService;
+import com.example.drivebackend.services.impl.InMemoryRepairNoteSearchService;
+import com.example.drivebackend.services.impl.PostgresRepairNoteSearchService;
+
+@Configuration
+public class RepairNoteSearchConfig {
+
+    // PostgreSQL bekommt tsvector/GIN, alles andere (H2) den In-Memory-Index
+    @Bean
+    public RepairNoteSearchService repairNoteSearchService(DataSource dataSource,
+                                                           RepairNoteRepository repairNoteRepository) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if ("PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                return new PostgresRepairNoteSearchService(repairNoteRepository);
+            }
+        }
+        return new InMemoryRepairNoteSearchService(repairNoteRepository);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -16,15 +17,22 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.example.drivebackend.services.DeviceApiKeyService;
+
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    @Value("${api.key.value}")
+    @Value("${api.key.value:}")
     private String apiKeyValue;
 
+    @Autowired
+    private DeviceApiKeyService deviceApiKeyService;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
@@ -43,8 +51,11 @@ public class SecurityConfig {
                 .httpBasic(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming-Antworten (Export) laufen als ASYNC-Dispatch, der Request wurde vorher schon autorisiert
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/login",
+                                "/actuator/health",
                                 "/h2-console/**",
                                 "/v3/api-docs/**",
                                 "/api-docs/**",
@@ -54,9 +65,16 @@ public class SecurityConfig {
                                 "/api-docs.yaml",
                                 "/error")
                         .permitAll()
-                        .anyRequest().authenticated())
+                        // Ein Geräte-Key darf nur Telemetrie hochladen, alles andere ist Dashboard bzw. Flotten-Key
+                        .requestMatchers(HttpMethod.POST, "/api/telemetry")
+                        .hasAnyRole(ApiKeyFilter.DEVICE_ROLE, ApiKeyFilter.FLEET_KEY_ROLE, "USER")
+                        // Profiling nur mit Dashboard-Login, nicht mit dem API-Key der Geräte
+                        .requestMatchers("/api/admin/**").hasRole("USER")
+                        // Geräte-Keys nur über das Dashboard ausstellen, nicht mit einem API-Key
+                        .requestMatchers("/api/devices/*/api-key").hasRole("USER")
+                        .anyRequest().hasAnyRole("USER", ApiKeyFilter.FLEET_KEY_ROLE))
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
-                .addFilterBefore(new ApiKeyFilter(apiKeyValue), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new ApiKeyFilter(apiKeyValue, deviceApiKeyService), UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -0,0 +1,53 @@
+package com.example.drivebackend.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import com.example.drivebackend.timing.CountingStatementInspector;
+import com.example.drivebackend.timing.RequestTimings;
+
+/**
+ * Wires the {@code Server-Timing} collection: SQL statements via Hibernate's statement inspector,
+ * repository time via a Spring Data invocation listener, JSON time in {@code TelemetryMetricsConverter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(@Value("${app.server-timing.log:false}") boolean logRequests) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(logRequests));
+        // Vor Spring Security, damit auch abgewiesene Requests den Header bekommen
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(
+                            invocation -> RequestTimings.recordRepositoryCall(invocation.getDuration(TimeUnit.NANOSECONDS))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.drivebackend.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.drivebackend.timing.RequestTimings;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Collects DB and JSON time per request and sends it as {@code Server-Timing} header, optionally also as
+ * one log line per request. The header is added right before the body is written, i.e. after the
+ * controller has done its database work.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean logRequests;
+
+    public ServerTimingFilter(boolean logRequests) {
+        this.logRequests = logRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        TimingResponse timingResponse = new TimingResponse(response, timings);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            timingResponse.addServerTiming();
+            RequestTimings.clear();
+            if (logRequests) {
+                log.info("{} {} status={} total_ms={} db_ms={} repository_calls={} sql_statements={} json_ms={} json_conversions={}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        Math.round(timings.totalMillis()), Math.round(timings.repositoryMillis()), timings.repositoryCalls(),
+                        timings.statements(), Math.round(timings.jsonMillis()), timings.jsonConversions());
+            }
+        }
+    }
+
+    /**
+     * Adds the header on the first write, flush or error, as long as the response is not committed yet.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                setHeader("Server-Timing", timings.toServerTiming());
+            }
+            added = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
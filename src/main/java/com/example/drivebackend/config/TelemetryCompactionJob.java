@@ -0,0 +1,30 @@
+package com.example.drivebackend.config;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.drivebackend.services.TelemetryCompactionService;
+
+@Component
+@ConditionalOnProperty(name = "app.compaction.enabled", havingValue = "true")
+public class TelemetryCompactionJob {
+
+    private final TelemetryCompactionService telemetryCompactionService;
+    private final Duration minAge;
+
+    public TelemetryCompactionJob(TelemetryCompactionService telemetryCompactionService,
+                                  @Value("${app.compaction.min-age:1d}") Duration minAge) {
+        this.telemetryCompactionService = telemetryCompactionService;
+        this.minAge = minAge;
+    }
+
+    @Scheduled(cron = "${app.compaction.cron:0 15 * * * *}")
+    public void compactFinishedTrips() {
+        telemetryCompactionService.compactTripsFinishedBefore(Instant.now().minus(minAge));
+    }
+}
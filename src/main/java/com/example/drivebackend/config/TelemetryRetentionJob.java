@@ -0,0 +1,30 @@
+package com.example.drivebackend.config;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.drivebackend.services.TelemetryArchiveService;
+
+@Component
+@ConditionalOnProperty(name = "app.retention.enabled", havingValue = "true")
+public class TelemetryRetentionJob {
+
+    private final TelemetryArchiveService telemetryArchiveService;
+    private final Duration hotAge;
+
+    public TelemetryRetentionJob(TelemetryArchiveService telemetryArchiveService,
+                                 @Value("${app.retention.hot-age:180d}") Duration hotAge) {
+        this.telemetryArchiveService = telemetryArchiveService;
+        this.hotAge = hotAge;
+    }
+
+    @Scheduled(cron = "${app.retention.cron:0 30 3 * * *}")
+    public void archiveColdTelemetry() {
+        telemetryArchiveService.archiveBefore(Instant.now().minus(hotAge));
+    }
+}
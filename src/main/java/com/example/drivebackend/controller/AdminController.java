@@ -0,0 +1,102 @@
+package com.example.drivebackend.controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.drivebackend.dto.ResegmentationStatus;
+import com.example.drivebackend.services.ProfilingService;
+import com.example.drivebackend.services.TripSegmentationService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ProfilingService profilingService;
+    private final TripSegmentationService tripSegmentationService;
+
+    @Operation(summary = "Record JFR", description = "Run a Java Flight Recorder recording for the given time and download the .jfr file (dashboard login only, not the device API key)")
+    @ApiResponse(responseCode = "200", description = "JFR file, sent once the recording is finished")
+    @ApiResponse(responseCode = "400", description = "Invalid duration or settings")
+    @ApiResponse(responseCode = "409", description = "Another recording is running")
+    @PostMapping("/jfr")
+    public ResponseEntity<StreamingResponseBody> recordJfr(
+            @Parameter(description = "Duration in seconds (1-600)") @RequestParam(value = "seconds", defaultValue = "60") int seconds,
+            @Parameter(description = "JFR settings: default or profile") @RequestParam(value = "settings", defaultValue = "profile") String settings
+    ) throws IOException {
+        Duration duration = Duration.ofSeconds(seconds);
+        if (seconds < 1 || duration.compareTo(ProfilingService.MAX_DURATION) > 0 || !ProfilingService.SETTINGS.contains(settings)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Recording recording;
+        try {
+            recording = profilingService.startRecording(duration, settings);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        // Aufnahme läuft schon, gewartet und gestreamt wird im Async-Dispatch
+        StreamingResponseBody body = out -> {
+            Path file;
+            try {
+                file = profilingService.awaitAndDump(recording);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while recording", e);
+            }
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        String filename = "drivebackend-" + Instant.now().toString().replace(':', '-') + ".jfr";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    @Operation(summary = "Re-segment trips", description = "Rebuild trip boundaries and aggregates from the telemetry with each device's current trip gap, in the background (dashboard login only). The open trip and trips with archived telemetry stay as they are.")
+    @ApiResponse(responseCode = "202", description = "Started, progress via GET")
+    @ApiResponse(responseCode = "409", description = "A re-segmentation is already running")
+    @PostMapping("/trips/resegment")
+    public ResponseEntity<ResegmentationStatus> startResegmentation(
+            @Parameter(description = "Devices to process (repeatable), all devices if omitted") @RequestParam(value = "deviceId", required = false) List<String> deviceIds
+    ) {
+        try {
+            return ResponseEntity.accepted().body(tripSegmentationService.startResegmentation(deviceIds != null ? deviceIds : List.of()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(tripSegmentationService.status());
+        }
+    }
+
+    @Operation(summary = "Re-segmentation status", description = "Progress of the current or last trip re-segmentation (dashboard login only)")
+    @ApiResponse(responseCode = "200", description = "Status")
+    @GetMapping("/trips/resegment")
+    public ResegmentationStatus resegmentationStatus() {
+        return tripSegmentationService.status();
+    }
+}
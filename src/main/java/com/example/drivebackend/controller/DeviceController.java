@@ -1,15 +1,20 @@
 package com.example.drivebackend.controller;
 
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -24,17 +29,26 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.drivebackend.dto.RepairCostBucket;
 import com.example.drivebackend.dto.RepairNoteRequest;
 import com.example.drivebackend.dto.RepairNoteResponse;
+import com.example.drivebackend.dto.SignalStatisticsResponse;
+import com.example.drivebackend.dto.TripGapRequest;
 import com.example.drivebackend.entities.DeviceEntity;
 import com.example.drivebackend.entities.RepairNoteEntity;
 import com.example.drivebackend.mapper.RepairNoteMapper;
 import com.example.drivebackend.repository.DeviceRepository;
 import com.example.drivebackend.repository.RepairNoteRepository;
-import com.example.drivebackend.services.TelemetryService;
-import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.series.TripSeries;
+import com.example.drivebackend.services.DeviceApiKeyService;
+import com.example.drivebackend.services.PhotoStorageService;
+import com.example.drivebackend.services.PhotoThumbnailService;
+import com.example.drivebackend.services.RepairNoteSearchService;
+import com.example.drivebackend.services.SignalStatisticsService;
+import com.example.drivebackend.services.TripSeriesService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -57,7 +71,14 @@ public class DeviceController {
     private final DeviceRepository deviceRepository;
     private final RepairNoteRepository repairNoteRepository;
     private final RepairNoteMapper repairNoteMapper;
-    private final TelemetryService telemetryService;
+    private final RepairNoteSearchService repairNoteSearchService;
+    private final PhotoStorageService photoStorageService;
+    private final PhotoThumbnailService photoThumbnailService;
+    private final DeviceApiKeyService deviceApiKeyService;
+    private final SignalStatisticsService signalStatisticsService;
+    private final TripSeriesService tripSeriesService;
+    // Fotos, deren Varianten gerade generiert werden, damit parallele Abrufe keine weiteren Jobs starten
+    private final Set<String> generatingVariants = ConcurrentHashMap.newKeySet();
 
     @Operation(summary = "Vehicle statistics", description = "Get aggregated vehicle statistics (distance, speed, drive time)")
     @ApiResponse(responseCode = "200", description = "Vehicle statistics")
@@ -67,39 +88,43 @@ public class DeviceController {
         @Parameter(description = "Start time") @RequestParam(value="since", required = false) Instant since,
         @Parameter(description = "End time") @RequestParam(value="end", required = false) Instant end
     ) {
-        Map<UUID, List<TelemetryResponse>> trips = telemetryService.fetchTelemetryGroupedByTrip(deviceId, since, end);
+        List<TripSeries> trips = tripSeriesService.fetchTripSeries(deviceId, since, end);
 
         double totalMeter = 0.0;
         double totalSpeed = 0.0;
         int speedCount = 0;
         long totalDriveTimeSeconds = 0;
-        int tripCount = trips.size();
+        int tripCount = 0;
 
-        for (List<TelemetryResponse> trip : trips.values()) {
-            if (trip.isEmpty()) {
+        for (TripSeries trip : trips) {
+            int from = trip.samplesFrom(since);
+            int to = trip.samplesTo(end);
+            if (from >= to) {
                 continue;
             }
+            tripCount++;
 
-            for (TelemetryResponse resp : trip) {
-                if (resp.aggregated_data() != null && resp.aggregated_data().get("distance") instanceof Number dist) {
-                    totalMeter += dist.doubleValue();
+            for (int i = from; i < to; i++) {
+                double distance = trip.distance(i);
+                if (!Double.isNaN(distance)) {
+                    totalMeter += distance;
                 }
             }
 
-            for (TelemetryResponse resp : trip) {
-                if (resp.timed_data() != null) {
-                    for (Object timedEntry : resp.timed_data().values()) {
-                        if (timedEntry instanceof Map<?, ?> map && map.get("speed") instanceof Number speed) {
-                            totalSpeed += speed.doubleValue();
-                            speedCount++;
-                        }
+            int speed = trip.signal("speed");
+            if (speed >= 0) {
+                for (int p = trip.pointOffset(from), points = trip.pointOffset(to); p < points; p++) {
+                    double value = trip.value(speed, p);
+                    if (!Double.isNaN(value)) {
+                        totalSpeed += value;
+                        speedCount++;
                     }
                 }
             }
 
-             Instant first = trip.getFirst().start_time();
-             Instant last = trip.getLast().end_time();
-             totalDriveTimeSeconds += Math.abs(last.getEpochSecond() - first.getEpochSecond());
+            long first = Math.floorDiv(trip.sampleStartMicros(from), 1_000_000);
+            long last = Math.floorDiv(trip.sampleEndMicros(to - 1), 1_000_000);
+            totalDriveTimeSeconds += Math.abs(last - first);
         }
 
         double avgSpeed = speedCount > 0 ? totalSpeed / speedCount : 0.0;
@@ -115,6 +140,17 @@ public class DeviceController {
         return ResponseEntity.ok(result);
     }
 
+    @Operation(summary = "Signal statistics", description = "Count, mean, standard deviation, min/max and time-weighted mean per signal plus moving time over all uploads of the device, kept up to date at ingest")
+    @ApiResponse(responseCode = "200", description = "Signal statistics")
+    @ApiResponse(responseCode = "404", description = "No statistics recorded for the device")
+    @GetMapping("/{deviceId}/signals")
+    public ResponseEntity<SignalStatisticsResponse> getSignalStatistics(
+            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId) {
+        return signalStatisticsService.deviceStatistics(deviceId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "Get all devices", description = "Retrieve a list of all registered devices")
     @ApiResponse(responseCode = "200", description = "List of devices")
     @GetMapping
@@ -138,6 +174,44 @@ public class DeviceController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Update trip gap", description = "Set after how many minutes without data the next upload of this device starts a new trip (null = default). Applies to new uploads; existing trips are rebuilt by POST /api/admin/trips/resegment.")
+    @ApiResponse(responseCode = "200", description = "Device updated successfully")
+    @ApiResponse(responseCode = "400", description = "Gap out of range (1-1440 minutes)")
+    @ApiResponse(responseCode = "404", description = "Device not found")
+    @PutMapping("/{deviceId}/trip-gap")
+    public ResponseEntity<DeviceEntity> updateTripGap(
+            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Trip gap in minutes", required = true) @Valid @RequestBody TripGapRequest request) {
+        return deviceRepository.findById(deviceId)
+                .map(device -> {
+                    device.setTripGapSeconds(request.minutes() != null ? request.minutes() * 60 : null);
+                    deviceRepository.save(device);
+                    return ResponseEntity.ok(device);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Issue device API key", description = "Create a per-device API key for X-API-KEY, replacing the previous one (dashboard login only). The key is only shown in this response.")
+    @ApiResponse(responseCode = "201", description = "New API key")
+    @PostMapping("/{deviceId}/api-key")
+    public ResponseEntity<Map<String, String>> issueApiKey(
+            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId) {
+        String apiKey = deviceApiKeyService.issueKey(deviceId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("deviceId", deviceId, "apiKey", apiKey));
+    }
+
+    @Operation(summary = "Revoke device API key", description = "Revoke the per-device API key (dashboard login only)")
+    @ApiResponse(responseCode = "204", description = "API key revoked")
+    @ApiResponse(responseCode = "404", description = "Device not found")
+    @DeleteMapping("/{deviceId}/api-key")
+    public ResponseEntity<Void> revokeApiKey(
+            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId) {
+        if (!deviceApiKeyService.revokeKey(deviceId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Get all repair notes", description = "Fetch all repair notes for a device with optional pagination")
     @ApiResponse(responseCode = "200", description = "List of repair notes")
     @ApiResponse(responseCode = "404", description = "Device not found")
@@ -167,6 +241,53 @@ public class DeviceController {
         return ResponseEntity.ok(responses);
     }
 
+    @Operation(summary = "Search repair notes", description = "Full-text search over the repair notes of a device, newest first")
+    @ApiResponse(responseCode = "200", description = "Matching repair notes")
+    @ApiResponse(responseCode = "404", description = "Device not found")
+    @GetMapping("/{deviceId}/notes/search")
+    public ResponseEntity<List<RepairNoteResponse>> searchRepairNotes(
+            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId,
+            @Parameter(description = "Search text, all words must match", required = true) @RequestParam("q") String query,
+            @Parameter(description = "Page number (0-based)") @RequestParam(value = "page", required = false) Integer page,
+            @Parameter(description = "Page size") @RequestParam(value = "pageSize", required = false) Integer pageSize) {
+
+        if (!deviceRepository.existsById(deviceId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Pageable pageable = page == null || pageSize == null ? Pageable.unpaged() : PageRequest.of(page, pageSize);
+        List<RepairNoteResponse> responses = repairNoteSearchService.search(deviceId, query, pageable).getContent().stream()
+                .map(repairNoteMapper::toDto)
+                .toList();
+
+        return ResponseEntity.ok(responses);
+    }
+
+    @Operation(summary = "Repair costs", description = "Sum repair note costs per year, month or category")
+    @ApiResponse(responseCode = "200", description = "Cost buckets")
+    @ApiResponse(responseCode = "400", description = "Invalid groupBy")
+    @ApiResponse(responseCode = "404", description = "Device not found")
+    @GetMapping("/{deviceId}/notes/costs")
+    public ResponseEntity<List<RepairCostBucket>> getRepairCosts(
+            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId,
+            @Parameter(description = "Grouping: year, month or category") @RequestParam(value = "groupBy", defaultValue = "year") String groupBy) {
+
+        if (!deviceRepository.existsById(deviceId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        List<RepairCostBucket> buckets = switch (groupBy) {
+            case "year" -> repairNoteRepository.sumCostsByYear(deviceId);
+            case "month" -> repairNoteRepository.sumCostsByMonth(deviceId);
+            case "category" -> repairNoteRepository.sumCostsByCategory(deviceId);
+            default -> null;
+        };
+        if (buckets == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(buckets);
+    }
+
     @Operation(summary = "Create repair note", description = "Create a new repair note for a device")
     @ApiResponse(responseCode = "201", description = "Repair note created")
     @ApiResponse(responseCode = "404", description = "Device not found")
@@ -182,6 +303,7 @@ public class DeviceController {
 
         RepairNoteEntity note = repairNoteMapper.toEntity(request, deviceId);
         RepairNoteEntity saved = repairNoteRepository.save(note);
+        repairNoteSearchService.index(saved);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(repairNoteMapper.toDto(saved));
     }
@@ -218,6 +340,7 @@ public class DeviceController {
         repairNoteMapper.updateEntityFromRequest(request, note);
 
         RepairNoteEntity saved = repairNoteRepository.save(note);
+        repairNoteSearchService.index(saved);
 
         return ResponseEntity.ok(repairNoteMapper.toDto(saved));
     }
@@ -236,6 +359,7 @@ public class DeviceController {
         }
 
         repairNoteRepository.delete(noteOpt.get());
+        repairNoteSearchService.remove(noteId);
         return ResponseEntity.noContent().build();
     }
 
@@ -258,17 +382,21 @@ public class DeviceController {
                 return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
             }
 
-            byte[] content = file.getBytes();
-
             Optional<DeviceEntity> deviceOpt = deviceRepository.findById(deviceId);
             if (deviceOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
+            String hash;
+            try (InputStream content = file.getInputStream()) {
+                hash = photoStorageService.store(content);
+            }
+
             DeviceEntity device = deviceOpt.get();
-            device.setNotePhoto(content);
+            device.setNotePhotoHash(hash);
             device.setNotePhotoContentType(contentType);
             deviceRepository.save(device);
+            generateVariantsOnce(hash, contentType);
 
             return ResponseEntity.noContent().build();
         } catch (Exception ex) {
@@ -277,25 +405,77 @@ public class DeviceController {
     }
 
 
-    @Operation(summary = "Download device photo", description = "Download the device photo")
+    @Operation(summary = "Download device photo", description = "Download the device photo or a resized variant of it")
     @ApiResponse(responseCode = "200", description = "Photo file")
+    @ApiResponse(responseCode = "206", description = "Requested byte range of the photo")
+    @ApiResponse(responseCode = "304", description = "Photo not modified (ETag matched)")
+    @ApiResponse(responseCode = "400", description = "Invalid size")
     @ApiResponse(responseCode = "404", description = "Device or photo not found")
     @GetMapping("/{deviceId}/photo")
-    public ResponseEntity<byte[]> downloadDevicePhoto(
-            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId) {
+    public ResponseEntity<Resource> downloadDevicePhoto(
+            @Parameter(description = "Device ID", required = true) @PathVariable String deviceId,
+            @Parameter(description = "Max. edge length in px (optional, served from the next larger variant: 64, 256, 1024)") @RequestParam(value = "size", required = false) Integer size,
+            WebRequest webRequest) {
+        if (size != null && size <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
         Optional<DeviceEntity> deviceOpt = deviceRepository.findById(deviceId);
-        if (deviceOpt.isEmpty() || deviceOpt.get().getNotePhoto() == null) {
+        if (deviceOpt.isEmpty() || deviceOpt.get().getNotePhotoHash() == null) {
             return ResponseEntity.notFound().build();
         }
 
         DeviceEntity device = deviceOpt.get();
+        String hash = device.getNotePhotoHash();
         String contentType = device.getNotePhotoContentType();
         if (contentType == null || contentType.isBlank()) {
             contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
         }
 
+        // Passende Variante bestimmen, fällt auf das Original zurück solange sie noch nicht generiert ist
+        Optional<Resource> photo = Optional.empty();
+        String etag = "\"" + hash + "\"";
+        Optional<Integer> variantSize = size != null ? photoThumbnailService.resolveVariantSize(size) : Optional.empty();
+        if (variantSize.isPresent() && photoThumbnailService.supports(contentType)) {
+            photo = photoStorageService.loadVariant(hash, photoThumbnailService.variantName(variantSize.get(), contentType));
+            if (photo.isPresent()) {
+                etag = "\"" + hash + "-" + variantSize.get() + "\"";
+                contentType = photoThumbnailService.variantContentType(contentType);
+            } else {
+                generateVariantsOnce(hash, contentType);
+            }
+        }
+
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        if (photo.isEmpty()) {
+            photo = photoStorageService.load(hash);
+        }
+        if (photo.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Range-Requests werden von Spring für Resource-Bodies automatisch beantwortet
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(contentType))
-                .body(device.getNotePhoto());
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(photo.get());
+    }
+
+    private void generateVariantsOnce(String hash, String contentType) {
+        if (!generatingVariants.add(hash)) {
+            return;
+        }
+        try {
+            photoThumbnailService.generateVariants(hash, contentType)
+                    .whenComplete((ignored, error) -> generatingVariants.remove(hash));
+        } catch (RuntimeException e) {
+            // Job wurde gar nicht erst angenommen (z.B. Executor voll), beim nächsten Abruf erneut versuchen
+            generatingVariants.remove(hash);
+            throw e;
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.example.drivebackend.controller;
+
+import java.time.Instant;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.drivebackend.dto.ExportFormat;
+import com.example.drivebackend.services.ExportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Operation(summary = "Export telemetry", description = "Stream all telemetry samples of a device as CSV (one row per metric value) or NDJSON")
+    @ApiResponse(responseCode = "200", description = "Export file")
+    @GetMapping("/telemetry")
+    public ResponseEntity<StreamingResponseBody> exportTelemetry(
+            @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId,
+            @Parameter(description = "Start time (optional)") @RequestParam(value = "since", required = false) Instant since,
+            @Parameter(description = "End time (optional)") @RequestParam(value = "end", required = false) Instant end,
+            @Parameter(description = "csv or ndjson") @RequestParam(value = "format", defaultValue = "csv") String format,
+            @Parameter(description = "Compress with gzip") @RequestParam(value = "gzip", defaultValue = "false") boolean gzip
+    ) {
+        ExportFormat exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return streaming("telemetry-" + deviceId, exportFormat, gzip,
+                out -> exportService.exportTelemetry(deviceId, since, end, exportFormat, gzip, out));
+    }
+
+    @Operation(summary = "Export trips", description = "Stream all trips of a device as CSV or NDJSON")
+    @ApiResponse(responseCode = "200", description = "Export file")
+    @GetMapping("/trips")
+    public ResponseEntity<StreamingResponseBody> exportTrips(
+            @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId,
+            @Parameter(description = "Start time (optional)") @RequestParam(value = "since", required = false) Instant since,
+            @Parameter(description = "End time (optional)") @RequestParam(value = "end", required = false) Instant end,
+            @Parameter(description = "csv or ndjson") @RequestParam(value = "format", defaultValue = "csv") String format,
+            @Parameter(description = "Compress with gzip") @RequestParam(value = "gzip", defaultValue = "false") boolean gzip
+    ) {
+        ExportFormat exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return streaming("trips-" + deviceId, exportFormat, gzip,
+                out -> exportService.exportTrips(deviceId, since, end, exportFormat, gzip, out));
+    }
+
+    private static ExportFormat parseFormat(String format) {
+        for (ExportFormat candidate : ExportFormat.values()) {
+            if (candidate.extension().equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity<StreamingResponseBody> streaming(String baseName, ExportFormat format, boolean gzip, StreamingResponseBody body) {
+        String filename = baseName + "." + format.extension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
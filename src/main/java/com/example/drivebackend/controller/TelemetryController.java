@@ -1,7 +1,11 @@
 package com.example.drivebackend.controller;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,18 +14,25 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.drivebackend.config.ApiKeyFilter;
+import com.example.drivebackend.dto.LiveTelemetryResponse;
 import com.example.drivebackend.dto.TelemetryIngestRequest;
 import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.mapper.TelemetryMapper;
+import com.example.drivebackend.series.LiveTelemetry;
 import com.example.drivebackend.services.TelemetryService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -32,12 +43,20 @@ import lombok.RequiredArgsConstructor;
 public class TelemetryController {
 
     private final TelemetryService telemetryService;
+    private final LiveTelemetry liveTelemetry;
 
     @Operation(summary = "Ingest telemetry", description = "Submit telemetry data for a device")
     @ApiResponse(responseCode = "201", description = "Telemetry ingested")
+    @ApiResponse(responseCode = "403", description = "The per-device API key belongs to another device")
     @PostMapping
-    public ResponseEntity<TelemetryResponse> ingestTelemetry(@Valid @RequestBody TelemetryIngestRequest request) {
-        TelemetryResponse response = telemetryService.ingestTelemetry(request);
+    public ResponseEntity<TelemetryResponse> ingestTelemetry(@Valid @RequestBody TelemetryIngestRequest request,
+                                                             @RequestAttribute(value = ApiKeyFilter.DEVICE_ATTRIBUTE, required = false) DeviceEntity device,
+                                                             HttpServletRequest httpRequest) {
+        // Ein Geräte-Key darf nur für sein eigenes Gerät schreiben
+        if (device != null && !device.getDeviceId().equals(request.deviceId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        TelemetryResponse response = telemetryService.ingestTelemetry(request, device, httpRequest.getContentLengthLong());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -51,6 +70,24 @@ public class TelemetryController {
         return latest.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Get live telemetry", description = "Points of the last seconds for a live chart, served from memory without a database query. "
+            + "Only the signals in app.telemetry.live.signals and at most app.telemetry.live.capacity points per device are kept, "
+            + "points older than the newest one of the device (late uploads) are not included")
+    @ApiResponse(responseCode = "200", description = "Recent points, oldest first")
+    @ApiResponse(responseCode = "400", description = "Invalid window")
+    @ApiResponse(responseCode = "404", description = "No upload of the device since the server started")
+    @GetMapping("/live")
+    public ResponseEntity<LiveTelemetryResponse> fetchLiveTelemetry(
+            @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId,
+            @Parameter(description = "Window in seconds before now (1 to app.telemetry.live.max-window)") @RequestParam(value = "window", defaultValue = "600") int window) {
+        if (window < 1 || window > liveTelemetry.maxWindow().toSeconds()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return liveTelemetry.window(deviceId, Duration.ofSeconds(window))
+                .map(points -> ResponseEntity.ok(toLiveResponse(deviceId, window, points)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "Get telemetry data", description = "Fetch telemetry records with optional time range and trip filtering")
     @ApiResponse(responseCode = "200", description = "Telemetry records")
     @GetMapping
@@ -65,4 +102,20 @@ public class TelemetryController {
                 : telemetryService.fetchTelemetryInRangeByTrip(deviceId, tripId, since, end);
         return ResponseEntity.ok(result);
     }
+
+    private LiveTelemetryResponse toLiveResponse(String deviceId, int window, LiveTelemetry.Window points) {
+        List<Instant> time = new ArrayList<>(points.seconds().length);
+        for (int second : points.seconds()) {
+            time.add(Instant.ofEpochSecond(second + TelemetryMapper.EPOCH_2000_OFFSET_SECONDS));
+        }
+        Map<String, List<Float>> signals = new LinkedHashMap<>();
+        for (int s = 0; s < liveTelemetry.signals().size(); s++) {
+            List<Float> values = new ArrayList<>(points.seconds().length);
+            for (float value : points.values()[s]) {
+                values.add(Float.isNaN(value) ? null : value);
+            }
+            signals.put(liveTelemetry.signals().get(s), values);
+        }
+        return new LiveTelemetryResponse(deviceId, window, time, signals);
+    }
 }
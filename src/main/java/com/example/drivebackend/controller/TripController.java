@@ -22,6 +22,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.drivebackend.dto.DrivingBehaviourResponse;
+import com.example.drivebackend.dto.SignalHistogramResponse;
+import com.example.drivebackend.dto.SignalPercentilesResponse;
+import com.example.drivebackend.dto.SignalStatisticsResponse;
 import com.example.drivebackend.dto.TelemetryResponse;
 import com.example.drivebackend.dto.TripDetailsResponse;
 import com.example.drivebackend.dto.TripResponse;
@@ -31,7 +35,11 @@ import com.example.drivebackend.entities.TelemetryEntity;
 import com.example.drivebackend.entities.TripEntity;
 import com.example.drivebackend.repository.TelemetrySampleRepository;
 import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.series.TripSeries;
+import com.example.drivebackend.services.SignalStatisticsService;
+import com.example.drivebackend.services.TelemetryArchiveService;
 import com.example.drivebackend.services.TelemetryService;
+import com.example.drivebackend.services.TripSeriesService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -46,6 +54,9 @@ public class TripController {
     private final TripRepository tripRepository;
     private final TelemetrySampleRepository telemetrySampleRepository;
     private final TelemetryService telemetryService;
+    private final TelemetryArchiveService telemetryArchiveService;
+    private final SignalStatisticsService signalStatisticsService;
+    private final TripSeriesService tripSeriesService;
 
     @Operation(summary = "Trips per weekday", description = "Count trips grouped by day of week")
     @ApiResponse(responseCode = "200", description = "Trip counts by weekday")
@@ -55,15 +66,16 @@ public class TripController {
             @Parameter(description = "Start time (optional)") @RequestParam(value = "since", required = false) Instant since,
             @Parameter(description = "End time (optional)") @RequestParam(value = "end", required = false) Instant end
     ) {
-        Map<UUID, List<TelemetryResponse>> trips = telemetryService.fetchTelemetryGroupedByTrip(deviceId, since, end);
+        List<TripSeries> trips = tripSeriesService.fetchTripSeries(deviceId, since, end);
 
         Map<DayOfWeek, Integer> result = new EnumMap<>(DayOfWeek.class);
-        for (List<TelemetryResponse> trip : trips.values()) {
-            if (trip.isEmpty()) {
+        for (TripSeries trip : trips) {
+            int from = trip.samplesFrom(since);
+            if (from >= trip.samplesTo(end)) {
                 continue;
             }
-            DayOfWeek day = trip.getFirst().start_time().atZone(ZoneOffset.UTC).getDayOfWeek();
-            result.put(day, result.getOrDefault(day, 0) + 1);
+            Instant start = Instant.ofEpochSecond(Math.floorDiv(trip.sampleStartMicros(from), 1_000_000));
+            result.merge(start.atZone(ZoneOffset.UTC).getDayOfWeek(), 1, Integer::sum);
         }
         return ResponseEntity.ok(result);
     }
@@ -130,13 +142,23 @@ public class TripController {
             @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId
     ) {
         List<TelemetryEntity> telemetry = telemetrySampleRepository.findByTrip_IdAndDevice_DeviceId(tripId, deviceId);
-        if (telemetry.isEmpty()) {
+        TripEntity trip = !telemetry.isEmpty()
+                ? telemetry.getFirst().getTrip()
+                : tripRepository.findById(tripId).filter(t -> t.getDevice().getDeviceId().equals(deviceId)).orElse(null);
+        if (trip == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Samples, die bereits ins Cold-Archiv verschoben wurden (nur Segmente im Zeitraum der Fahrt werden gelesen)
+        List<TelemetryResponse> archived = telemetryArchiveService.readArchived(deviceId, tripId, trip.getStartTime(), trip.getEndTime());
+        if (telemetry.isEmpty() && archived.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        TripEntity trip = telemetry.getFirst()
-                .getTrip();
         List<Map<String, Object>> aggregated_data = new ArrayList<>();
         List<Map<String, Object>> timed_data = new ArrayList<>();
+        for (TelemetryResponse sample : archived) {
+            aggregated_data.add(sample.aggregated_data());
+            timed_data.add(sample.timed_data());
+        }
         for (TelemetryEntity entity : telemetry){ 
             aggregated_data.add(entity.getAggregated_data());
             timed_data.add(entity.getTimed_data());
@@ -157,6 +179,74 @@ public class TripController {
         return ResponseEntity.ok(tripDetails);
     }
 
+    @Operation(summary = "Get signal statistics of a trip", description = "Count, mean, standard deviation, min/max and time-weighted mean per signal plus moving time, kept up to date at ingest")
+    @ApiResponse(responseCode = "200", description = "Signal statistics")
+    @ApiResponse(responseCode = "404", description = "Trip not found")
+    @GetMapping("/{tripId}/signals")
+    public ResponseEntity<SignalStatisticsResponse> getTripSignalStatistics(
+            @Parameter(description = "Trip ID", required = true) @PathVariable("tripId") UUID tripId,
+            @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId
+    ) {
+        return signalStatisticsService.tripStatistics(deviceId, tripId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Get driving behaviour of a trip", description = "Harsh acceleration, harsh braking and over-revving events with a 0-100 score, detected at ingest")
+    @ApiResponse(responseCode = "200", description = "Driving behaviour")
+    @ApiResponse(responseCode = "404", description = "Trip not found")
+    @GetMapping("/{tripId}/behaviour")
+    public ResponseEntity<DrivingBehaviourResponse> getTripBehaviour(
+            @Parameter(description = "Trip ID", required = true) @PathVariable("tripId") UUID tripId,
+            @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId
+    ) {
+        return signalStatisticsService.tripBehaviour(deviceId, tripId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Signal percentiles", description = "Percentiles of a signal (e.g. speed, rpm) over one trip or all trips starting in a range, merged from per-trip sketches without reading samples. Accurate to about 1 %.")
+    @ApiResponse(responseCode = "200", description = "Percentiles")
+    @ApiResponse(responseCode = "400", description = "Signal without sketches or percentile outside 0-100")
+    @ApiResponse(responseCode = "404", description = "Trip not found")
+    @GetMapping("/signals/{signal}/percentiles")
+    public ResponseEntity<SignalPercentilesResponse> getSignalPercentiles(
+            @Parameter(description = "Signal, e.g. speed or rpm", required = true) @PathVariable("signal") String signal,
+            @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId,
+            @Parameter(description = "Only this trip (optional, since/end are ignored then)") @RequestParam(value = "tripId", required = false) UUID tripId,
+            @Parameter(description = "Trips starting at or after (optional)") @RequestParam(value = "since", required = false) Instant since,
+            @Parameter(description = "Trips starting at or before (optional)") @RequestParam(value = "end", required = false) Instant end,
+            @Parameter(description = "Percentiles, repeatable") @RequestParam(value = "p", defaultValue = "50,90,95,99") List<Double> percentiles
+    ) {
+        if (!signalStatisticsService.hasSketch(signal) || percentiles.stream().anyMatch(p -> p < 0 || p > 100)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return signalStatisticsService.percentiles(deviceId, tripId, since, end, signal, percentiles)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Signal histogram", description = "Histogram of a signal over one trip or all trips starting in a range, merged from per-trip sketches without reading samples. Buckets are widened if there would be more than 1000.")
+    @ApiResponse(responseCode = "200", description = "Histogram")
+    @ApiResponse(responseCode = "400", description = "Signal without sketches or bucket width below 1")
+    @ApiResponse(responseCode = "404", description = "Trip not found")
+    @GetMapping("/signals/{signal}/histogram")
+    public ResponseEntity<SignalHistogramResponse> getSignalHistogram(
+            @Parameter(description = "Signal, e.g. speed or rpm", required = true) @PathVariable("signal") String signal,
+            @Parameter(description = "Device ID", required = true) @RequestParam("deviceId") String deviceId,
+            @Parameter(description = "Only this trip (optional, since/end are ignored then)") @RequestParam(value = "tripId", required = false) UUID tripId,
+            @Parameter(description = "Trips starting at or after (optional)") @RequestParam(value = "since", required = false) Instant since,
+            @Parameter(description = "Trips starting at or before (optional)") @RequestParam(value = "end", required = false) Instant end,
+            @Parameter(description = "Bucket width in the unit of the signal") @RequestParam(value = "bucketWidth", defaultValue = "10") long bucketWidth
+    ) {
+        if (!signalStatisticsService.hasSketch(signal) || bucketWidth < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return signalStatisticsService.histogram(deviceId, tripId, since, end, signal, bucketWidth)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "Get trips with details", description = "Fetch telemetry grouped by trip with detailed information")
     @ApiResponse(responseCode = "200", description = "Trips with details")
     @GetMapping
@@ -0,0 +1,19 @@
+package com.example.drivebackend.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Driving events and score of a trip. {@code events} holds at most the first 500 episodes, the counts all of them.
+ */
+public record DrivingBehaviourResponse(
+        String deviceId,
+        UUID tripId,
+        float score,
+        int harsh_acceleration,
+        int harsh_braking,
+        int over_rev,
+        long driving_seconds,
+        List<DrivingEvent> events
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.drivebackend.dto;
+
+import java.time.Instant;
+
+/**
+ * One harsh acceleration, harsh braking or over-revving episode.
+ *
+ * @param peak Strongest value of the episode: m/s² for acceleration and braking, rpm for over-revving
+ */
+public record DrivingEvent(
+        String type,
+        Instant time,
+        int duration_seconds,
+        float peak
+) {
+}
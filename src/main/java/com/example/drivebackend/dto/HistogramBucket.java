@@ -0,0 +1,11 @@
+package com.example.drivebackend.dto;
+
+/**
+ * Number of values in {@code [from, to]}.
+ */
+public record HistogramBucket(
+        long from,
+        long to,
+        long count
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.drivebackend.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recent points of a device as columns for a chart: {@code time} and one list per signal of the same length,
+ * null where a point had no value for the signal.
+ */
+public record LiveTelemetryResponse(
+        String deviceId,
+        int window_seconds,
+        List<Instant> time,
+        Map<String, List<Float>> signals
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.drivebackend.dto;
+
+import java.math.BigDecimal;
+
+public record RepairCostBucket(
+        Integer year,
+        Integer month,
+        String category,
+        BigDecimal total,
+        Long count
+) {
+    // Konstruktoren für die JPQL-Aggregationen in RepairNoteRepository
+    public RepairCostBucket(Integer year, BigDecimal total, Long count) {
+        this(year, null, null, total, count);
+    }
+
+    public RepairCostBucket(Integer year, Integer month, BigDecimal total, Long count) {
+        this(year, month, null, total, count);
+    }
+
+    public RepairCostBucket(String category, BigDecimal total, Long count) {
+        this(null, null, category, total, count);
+    }
+}
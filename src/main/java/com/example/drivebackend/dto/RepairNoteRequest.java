@@ -15,7 +15,10 @@ public record RepairNoteRequest(
         LocalDate noteDate,
 
         @NotNull
-        BigDecimal notePrice
+        BigDecimal notePrice,
+
+        @Size(max = 50)
+        String category
 ) {
 }
 
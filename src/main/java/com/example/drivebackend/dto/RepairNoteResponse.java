@@ -8,7 +8,8 @@ public record RepairNoteResponse(
         UUID id,
         String noteText,
         LocalDate noteDate,
-        BigDecimal notePrice
+        BigDecimal notePrice,
+        String category
 ) {
 }
 
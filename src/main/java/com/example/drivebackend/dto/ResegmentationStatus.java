@@ -0,0 +1,16 @@
+package com.example.drivebackend.dto;
+
+import java.time.Instant;
+
+public record ResegmentationStatus(
+        boolean running,
+        Instant startedAt,
+        Instant finishedAt,
+        int devicesTotal,
+        int devicesDone,
+        int devicesFailed,
+        long samples,
+        long tripsBefore,
+        long tripsAfter
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.drivebackend.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Histogram of one signal over a trip or all trips starting in a range, in buckets of equal width.
+ */
+public record SignalHistogramResponse(
+        String deviceId,
+        UUID tripId,
+        String signal,
+        Instant since,
+        Instant end,
+        int trips,
+        int trips_without_sketch,
+        long count,
+        List<HistogramBucket> buckets
+) {
+}
@@ -0,0 +1,25 @@
+package com.example.drivebackend.dto;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Percentiles of one signal over a trip or all trips starting in a range; {@code percentiles} maps the
+ * requested percentile (e.g. "95") to the value, accurate to the sketch precision.
+ */
+public record SignalPercentilesResponse(
+        String deviceId,
+        UUID tripId,
+        String signal,
+        Instant since,
+        Instant end,
+        int trips,
+        int trips_without_sketch,
+        long count,
+        long min,
+        long max,
+        double mean,
+        Map<String, Long> percentiles
+) {
+}
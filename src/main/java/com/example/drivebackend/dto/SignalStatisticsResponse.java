@@ -0,0 +1,15 @@
+package com.example.drivebackend.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signal statistics of a trip, or of all uploads of a device ({@code tripId} null).
+ */
+public record SignalStatisticsResponse(
+        String deviceId,
+        UUID tripId,
+        long moving_time_seconds,
+        Map<String, SignalSummary> signals
+) {
+}
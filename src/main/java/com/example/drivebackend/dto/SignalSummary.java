@@ -0,0 +1,15 @@
+package com.example.drivebackend.dto;
+
+/**
+ * Statistics of one signal; {@code time_weighted_mean} weights each value by how long it held.
+ */
+public record SignalSummary(
+        long count,
+        double mean,
+        double stddev,
+        double min,
+        double max,
+        double time_weighted_mean,
+        double duration_seconds
+) {
+}
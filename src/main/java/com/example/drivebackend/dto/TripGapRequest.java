@@ -0,0 +1,12 @@
+package com.example.drivebackend.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * @param minutes Gap in minutes after which the next upload starts a new trip, {@code null} for the default
+ */
+public record TripGapRequest(
+        @Min(1) @Max(1440) Integer minutes
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.drivebackend.dto;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * What the re-segmentation needs of one telemetry sample: time range, current trip, the aggregates and the
+ * timed data for the signal statistics.
+ */
+public record TripSegmentationSample(
+        UUID id,
+        UUID tripId,
+        Instant startTime,
+        Instant endTime,
+        Map<String, Object> aggregated_data,
+        Map<String, Object> timed_data
+) {
+}
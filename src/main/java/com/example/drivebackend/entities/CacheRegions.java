@@ -0,0 +1,19 @@
+package com.example.drivebackend.entities;
+
+import java.util.List;
+
+/**
+ * Regions of the Hibernate second-level and query cache, sized and expired in {@code hibernate-cache.conf}.
+ */
+public final class CacheRegions {
+
+    public static final String DEVICE = "device";
+    public static final String TRIP = "trip";
+    // Query-Cache: nur IDs, die Entities kommen aus DEVICE
+    public static final String DEVICE_LISTS = "device-lists";
+
+    public static final List<String> ALL = List.of(DEVICE, TRIP, DEVICE_LISTS);
+
+    private CacheRegions() {
+    }
+}
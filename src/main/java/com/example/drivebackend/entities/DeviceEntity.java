@@ -1,9 +1,14 @@
 package com.example.drivebackend.entities;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -17,6 +22,9 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "device")
+// Wird bei jedem Ingest und jeder Geräteliste gelesen; das Foto selbst liegt im PhotoStorageService, die Notizen werden nicht gecacht
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.DEVICE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,10 +41,25 @@ public class DeviceEntity {
     @JsonIgnore
     private List<RepairNoteEntity> repairNotes = new ArrayList<>();
 
+    // SHA-256 des Fotos im PhotoStorageService, die Bilddaten selbst liegen nicht in dieser Tabelle
     @JsonIgnore
-    @Column(name = "note_photo", columnDefinition = "bytea")
-    private byte[] notePhoto;
+    @Column(name = "note_photo_hash", length = 64)
+    private String notePhotoHash;
 
     @Column(name = "note_photo_content_type", length = 100)
     private String notePhotoContentType;
+
+    // SHA-256 (hex) des gerätespezifischen API-Keys, der Key selbst wird nirgends gespeichert
+    @JsonIgnore
+    @Column(name = "api_key_hash", length = 64)
+    private String apiKeyHash;
+
+    // Letzte Änderung des Keys (auch Widerruf), für den inkrementellen Abgleich
+    @JsonIgnore
+    @Column(name = "api_key_updated_at")
+    private Instant apiKeyUpdatedAt;
+
+    // Lücke in Sekunden, ab der der nächste Upload eine neue Fahrt beginnt; null = app.trips.gap
+    @Column(name = "trip_gap_seconds")
+    private Integer tripGapSeconds;
 }
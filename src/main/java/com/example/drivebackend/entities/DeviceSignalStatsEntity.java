@@ -0,0 +1,27 @@
+package com.example.drivebackend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Running statistics of all uploads of one device, see {@link com.example.drivebackend.stats.SignalStatistics}.
+ */
+@Entity
+@Table(name = "device_signal_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DeviceSignalStatsEntity {
+
+    @Id
+    @Column(name = "device_id")
+    private String deviceId;
+
+    @Column(name = "signal_stats", nullable = false)
+    private byte[] signalStats;
+}
@@ -9,13 +9,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "repair_note")
+@Table(name = "repair_note", indexes = @Index(name = "idx_repair_note_device_date", columnList = "device_id, note_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,5 +37,8 @@ public class RepairNoteEntity {
 
     @Column(name = "note_price", nullable = false, precision = 12, scale = 2)
     private BigDecimal notePrice;
+
+    @Column(name = "category", length = 50)
+    private String category; // z.B. "Bremsen", "Inspektion", optional
 }
 
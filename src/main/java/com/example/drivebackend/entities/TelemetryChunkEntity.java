@@ -0,0 +1,54 @@
+package com.example.drivebackend.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Up to {@code app.compaction.chunk-samples} telemetry samples of one finished trip in one row, gzip-compressed
+ * NDJSON, in place of their rows in the telemetry table.
+ */
+@Entity
+@Table(name = "telemetry_chunk", indexes = {
+        @Index(name = "idx_telemetry_chunk_device_time", columnList = "device_id, min_start_time"),
+        @Index(name = "idx_telemetry_chunk_device_trip", columnList = "device_id, trip_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class TelemetryChunkEntity {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "device_id", nullable = false)
+    private String deviceId;
+
+    @Column(name = "trip_id")
+    private UUID tripId;
+
+    @Column(name = "min_start_time", nullable = false)
+    private Instant minStartTime;
+
+    @Column(name = "max_start_time", nullable = false)
+    private Instant maxStartTime;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
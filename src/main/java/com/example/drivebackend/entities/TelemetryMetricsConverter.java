@@ -1,11 +1,15 @@
 package com.example.drivebackend.entities;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import com.example.drivebackend.timing.RequestTimings;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
@@ -13,16 +17,24 @@ import jakarta.persistence.Converter;
 public class TelemetryMetricsConverter implements AttributeConverter<Map<String, Object>, String> {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Hibernate instanziiert den Converter selbst, daher die globale Registry statt Injection
+    private static final Timer writeTimer = conversionTimer("write");
+    private static final Timer readTimer = conversionTimer("read");
 
     @Override
     public String convertToDatabaseColumn(Map<String, Object> attribute) {
         if (attribute == null) {
             return null;
         }
+        long start = System.nanoTime();
         try {
             return objectMapper.writeValueAsString(attribute);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Fehler beim Konvertieren der Map zu JSON", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTimings.recordJsonConversion(elapsed);
         }
     }
 
@@ -31,10 +43,22 @@ public class TelemetryMetricsConverter implements AttributeConverter<Map<String,
         if (dbData == null) {
             return null;
         }
+        long start = System.nanoTime();
         try {
             return objectMapper.readValue(dbData, new TypeReference<>() {});
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Fehler beim Konvertieren von JSON zu Map", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            readTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTimings.recordJsonConversion(elapsed);
         }
     }
+
+    private static Timer conversionTimer(String direction) {
+        return Timer.builder("telemetry.json.conversion")
+                .description("JSON conversion of timed_data and aggregated_data")
+                .tag("direction", direction)
+                .register(Metrics.globalRegistry);
+    }
 }
\ No newline at end of file
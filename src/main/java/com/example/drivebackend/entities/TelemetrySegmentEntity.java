@@ -0,0 +1,55 @@
+package com.example.drivebackend.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Index row for an immutable, gzip-compressed segment file of archived telemetry (one device, one month).
+ */
+@Entity
+@Table(name = "telemetry_segment", indexes = @Index(name = "idx_telemetry_segment_device_time", columnList = "device_id, min_start_time"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class TelemetrySegmentEntity {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "device_id", nullable = false)
+    private String deviceId;
+
+    // Erster Tag des Monats (UTC), den das Segment abdeckt
+    @Column(name = "month_start", nullable = false)
+    private Instant monthStart;
+
+    @Column(name = "min_start_time", nullable = false)
+    private Instant minStartTime;
+
+    @Column(name = "max_start_time", nullable = false)
+    private Instant maxStartTime;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    // Pfad relativ zum Archivverzeichnis
+    @Column(name = "file_name", nullable = false, length = 500)
+    private String fileName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
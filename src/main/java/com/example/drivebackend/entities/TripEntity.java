@@ -3,6 +3,11 @@ package com.example.drivebackend.entities;
 import java.time.Instant;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -16,6 +21,8 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "trips")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TRIP)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -51,4 +58,22 @@ public class TripEntity {
 
     @Column(name = "telemetry_count")
     private Integer telemetry_count;
+
+    // Von der Kompaktierung schon erfasst; ein Nachzügler-Upload setzt ihn zurück
+    @JsonIgnore
+    @Column(name = "compacted", nullable = false)
+    private boolean compacted;
+
+    @Column(name = "harsh_acceleration_count")
+    private Integer harsh_acceleration_count;
+
+    @Column(name = "harsh_braking_count")
+    private Integer harsh_braking_count;
+
+    @Column(name = "over_rev_count")
+    private Integer over_rev_count;
+
+    // 0-100, siehe DrivingEventDetector.score; Statistiken, Sketches und Ereignisse liegen in TripSignalDataEntity
+    @Column(name = "driving_score")
+    private Float driving_score;
 }
@@ -0,0 +1,39 @@
+package com.example.drivebackend.entities;
+
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Encoded signal statistics, sketches and driving behaviour of one trip, kept out of {@link TripEntity} so trip
+ * lists and the trip cache do not carry them. Only read and written together with a locked trip row.
+ */
+@Entity
+@Table(name = "trip_signal_data")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TripSignalDataEntity {
+
+    @Id
+    @Column(name = "trip_id")
+    private UUID tripId;
+
+    // Laufende Statistiken der Signale (SignalStatistics.encode); null bei Fahrten von vor den Statistiken
+    @Column(name = "signal_stats")
+    private byte[] signalStats;
+
+    // Mergebare Verteilungen je Signal (SignalSketches.encode) für Perzentile und Histogramme über mehrere Fahrten
+    @Column(name = "signal_sketches")
+    private byte[] signalSketches;
+
+    // Detektorzustand über Uploads hinweg und Ereignisse (DrivingBehaviour.encode)
+    @Column(name = "driving_behaviour")
+    private byte[] drivingBehaviour;
+}
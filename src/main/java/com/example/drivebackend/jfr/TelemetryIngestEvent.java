@@ -0,0 +1,36 @@
+package com.example.drivebackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of {@code TelemetryService#ingestTelemetry}. Duration is the event duration.
+ */
+@Name("com.example.drivebackend.TelemetryIngest")
+@Label("Telemetry Ingest")
+@Category({ "DriveBackend", "Telemetry" })
+@Description("Ingest of one telemetry upload")
+@StackTrace(false)
+public class TelemetryIngestEvent extends Event {
+
+    @Label("Device ID")
+    public String deviceId;
+
+    @Label("Trip Created")
+    @Description("The upload started a new trip")
+    public boolean tripCreated;
+
+    @Label("Payload Size")
+    @Description("Size of the request body, -1 if unknown")
+    @DataAmount
+    public long payloadBytes;
+
+    @Label("Samples")
+    @Description("Entries in timed_data")
+    public int samples;
+}
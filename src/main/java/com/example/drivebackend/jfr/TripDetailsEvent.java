@@ -0,0 +1,40 @@
+package com.example.drivebackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * One call of {@code TelemetryService#fetchTripDetails}, the heaviest read path.
+ */
+@Name("com.example.drivebackend.TripDetails")
+@Label("Trip Details")
+@Category({ "DriveBackend", "Telemetry" })
+@Description("Loading trips with all of their telemetry samples")
+@StackTrace(false)
+public class TripDetailsEvent extends Event {
+
+    @Label("Device ID")
+    public String deviceId;
+
+    @Label("Since")
+    @Description("0 if open")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    public long since;
+
+    @Label("End")
+    @Description("0 if open")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    public long end;
+
+    @Label("Trips")
+    public int trips;
+
+    @Label("Samples")
+    @Description("Telemetry rows read, from the table and the archive")
+    public int samples;
+}
@@ -25,6 +25,7 @@ public interface RepairNoteMapper {
     @Mapping(target = "noteText", source = "request.noteText")
     @Mapping(target = "noteDate", source = "request.noteDate")
     @Mapping(target = "notePrice", source = "request.notePrice")
+    @Mapping(target = "category", source = "request.category")
     RepairNoteEntity toEntity(RepairNoteRequest request, String deviceId);
 
     /**
@@ -47,6 +48,7 @@ public interface RepairNoteMapper {
     @Mapping(target = "noteText", source = "noteText", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "noteDate", source = "noteDate", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "notePrice", source = "notePrice", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "category", source = "category", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromRequest(RepairNoteRequest request, @MappingTarget RepairNoteEntity entity);
 }
 
@@ -1,8 +1,31 @@
 package com.example.drivebackend.repository;
 
+import java.time.Instant;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.drivebackend.entities.CacheRegions;
 import com.example.drivebackend.entities.DeviceEntity;
 
+import jakarta.persistence.QueryHint;
+
 public interface DeviceRepository extends JpaRepository<DeviceEntity, String> {
+
+    // Geräteliste aus dem Query-Cache, neue Geräte invalidieren sie
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.DEVICE_LISTS)
+    })
+    @Transactional(readOnly = true)
+    List<DeviceEntity> findAll();
+
+    List<DeviceEntity> findAllByApiKeyHashIsNotNull();
+
+    // Geänderte und widerrufene Keys seit dem letzten Abgleich
+    List<DeviceEntity> findAllByApiKeyUpdatedAtGreaterThanEqual(Instant since);
 }
@@ -0,0 +1,8 @@
+package com.example.drivebackend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.drivebackend.entities.DeviceSignalStatsEntity;
+
+public interface DeviceSignalStatsRepository extends JpaRepository<DeviceSignalStatsEntity, String> {
+}
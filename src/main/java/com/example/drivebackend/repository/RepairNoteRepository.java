@@ -1,12 +1,16 @@
 package com.example.drivebackend.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.drivebackend.dto.RepairCostBucket;
 import com.example.drivebackend.entities.RepairNoteEntity;
 
 public interface RepairNoteRepository extends JpaRepository<RepairNoteEntity, UUID> {
@@ -14,5 +18,19 @@ public interface RepairNoteRepository extends JpaRepository<RepairNoteEntity, UU
     Page<RepairNoteEntity> findByDeviceIdOrderByNoteDateDesc(String deviceId, Pageable pageable);
 
     Optional<RepairNoteEntity> findByIdAndDeviceId(UUID id, String deviceId);
-}
 
+    // Nur PostgreSQL: nutzt den GIN-Index idx_repair_note_fts (Ausdruck muss exakt übereinstimmen)
+    @Query(value = "SELECT * FROM repair_note WHERE device_id = :deviceId AND to_tsvector('german', note_text) @@ plainto_tsquery('german', :query) ORDER BY note_date DESC",
+            countQuery = "SELECT count(*) FROM repair_note WHERE device_id = :deviceId AND to_tsvector('german', note_text) @@ plainto_tsquery('german', :query)",
+            nativeQuery = true)
+    Page<RepairNoteEntity> searchFullText(@Param("deviceId") String deviceId, @Param("query") String query, Pageable pageable);
+
+    @Query("SELECT new com.example.drivebackend.dto.RepairCostBucket(YEAR(n.noteDate), SUM(n.notePrice), COUNT(n)) FROM RepairNoteEntity n WHERE n.deviceId = :deviceId GROUP BY YEAR(n.noteDate) ORDER BY YEAR(n.noteDate)")
+    List<RepairCostBucket> sumCostsByYear(@Param("deviceId") String deviceId);
+
+    @Query("SELECT new com.example.drivebackend.dto.RepairCostBucket(YEAR(n.noteDate), MONTH(n.noteDate), SUM(n.notePrice), COUNT(n)) FROM RepairNoteEntity n WHERE n.deviceId = :deviceId GROUP BY YEAR(n.noteDate), MONTH(n.noteDate) ORDER BY YEAR(n.noteDate), MONTH(n.noteDate)")
+    List<RepairCostBucket> sumCostsByMonth(@Param("deviceId") String deviceId);
+
+    @Query("SELECT new com.example.drivebackend.dto.RepairCostBucket(n.category, SUM(n.notePrice), COUNT(n)) FROM RepairNoteEntity n WHERE n.deviceId = :deviceId GROUP BY n.category ORDER BY SUM(n.notePrice) DESC")
+    List<RepairCostBucket> sumCostsByCategory(@Param("deviceId") String deviceId);
+}
@@ -0,0 +1,65 @@
+package com.example.drivebackend.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.drivebackend.entities.TelemetryChunkEntity;
+
+public interface TelemetryChunkRepository extends JpaRepository<TelemetryChunkEntity, UUID> {
+
+    interface ChunkRange {
+        UUID getId();
+        Instant getMinStartTime();
+    }
+
+    @Query("SELECT c FROM TelemetryChunkEntity c WHERE c.deviceId = :deviceId AND c.maxStartTime >= :since AND c.minStartTime <= :end ORDER BY c.minStartTime ASC")
+    List<TelemetryChunkEntity> findOverlapping(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+    );
+
+    @Query("SELECT c FROM TelemetryChunkEntity c WHERE c.deviceId = :deviceId AND c.tripId = :tripId AND c.maxStartTime >= :since AND c.minStartTime <= :end ORDER BY c.minStartTime ASC")
+    List<TelemetryChunkEntity> findOverlappingByTrip(
+        @Param("deviceId") String deviceId,
+        @Param("tripId") UUID tripId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+    );
+
+    // Export und Wiederherstellung: erst nur die Zeitspannen, die Daten dann Chunk für Chunk
+    @Query("SELECT c.id AS id, c.minStartTime AS minStartTime FROM TelemetryChunkEntity c WHERE c.deviceId = :deviceId AND c.maxStartTime >= :since AND c.minStartTime <= :end ORDER BY c.minStartTime ASC")
+    List<ChunkRange> findRangesOverlapping(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+    );
+
+    @Query("SELECT c.data FROM TelemetryChunkEntity c WHERE c.id = :id")
+    byte[] findDataById(@Param("id") UUID id);
+
+    Optional<TelemetryChunkEntity> findTopByDeviceIdOrderByMaxStartTimeDesc(String deviceId);
+
+    // Retention: Chunks, die in einem Monat beginnen, wandern mit dessen Zeilen ins Segment
+    @Query("SELECT c FROM TelemetryChunkEntity c WHERE c.deviceId = :deviceId AND c.minStartTime >= :since AND c.minStartTime <= :end ORDER BY c.minStartTime ASC")
+    List<TelemetryChunkEntity> findStartingInRange(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+    );
+
+    @Query("SELECT c.deviceId AS deviceId, MIN(c.minStartTime) AS oldestStartTime FROM TelemetryChunkEntity c WHERE c.minStartTime < :cutoff GROUP BY c.deviceId")
+    List<TelemetrySampleRepository.DeviceOldestSample> findDevicesWithChunksBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM TelemetryChunkEntity c WHERE c.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -1,20 +1,41 @@
 package com.example.drivebackend.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.dto.TripSegmentationSample;
 import com.example.drivebackend.entities.TelemetryEntity;
+import com.example.drivebackend.entities.TripEntity;
+
+import jakarta.persistence.QueryHint;
 
 public interface TelemetrySampleRepository extends JpaRepository<TelemetryEntity, UUID> {
 
+    interface DeviceOldestSample {
+        String getDeviceId();
+        Instant getOldestStartTime();
+    }
+
     Optional<TelemetryEntity> findTopByDevice_DeviceIdOrderByStartTimeDesc(String deviceId);
 
+    // Ingest: nur die Fahrt-ID des neuesten Samples, die Fahrt selbst wird danach gesperrt geladen
+    @Query("SELECT t.trip.id FROM TelemetryEntity t WHERE t.device.deviceId = :deviceId ORDER BY t.startTime DESC")
+    List<UUID> findLatestTripIds(@Param("deviceId") String deviceId, Limit limit);
+
     @Query("SELECT t FROM TelemetryEntity t WHERE t.device.deviceId = :deviceId AND t.startTime >= :since AND t.startTime <= :end ORDER BY t.startTime ASC")
     List<TelemetryEntity> findAllByDeviceIdInRange(
         @Param("deviceId") String deviceId,
@@ -43,4 +64,60 @@ public interface TelemetrySampleRepository extends JpaRepository<TelemetryEntity
     List<TelemetryEntity> findAllByDevice_DeviceIdAndTrip_IdAndStartTimeLessThanEqualOrderByStartTimeAsc(String deviceId, UUID tripId, Instant end);
 
     List<TelemetryEntity> findByTrip_IdAndDevice_DeviceId(UUID tripId, String deviceId);
+
+    // Export: DTO-Projektion, damit der Persistence Context beim Streamen nicht wächst
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.drivebackend.dto.TelemetryResponse(t.id, t.device.deviceId, t.trip.id, t.startTime, t.endTime, t.timed_data, t.aggregated_data) FROM TelemetryEntity t WHERE t.device.deviceId = :deviceId AND t.startTime >= :since AND t.startTime <= :end ORDER BY t.startTime ASC")
+    Stream<TelemetryResponse> streamAllByDeviceIdInRange(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+    );
+
+    // Kompaktierung: alle Zeilen einer Fahrt als DTO, ohne sie in den Persistence Context zu laden
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.example.drivebackend.dto.TelemetryResponse(t.id, t.device.deviceId, t.trip.id, t.startTime, t.endTime, t.timed_data, t.aggregated_data) FROM TelemetryEntity t WHERE t.device.deviceId = :deviceId AND t.trip.id = :tripId ORDER BY t.startTime ASC")
+    List<TelemetryResponse> findResponsesByDeviceIdAndTripId(
+        @Param("deviceId") String deviceId,
+        @Param("tripId") UUID tripId
+    );
+
+    // Retention: Geräte und ältester Zeitpunkt mit Telemetrie vor dem Stichtag
+    @Query("SELECT t.device.deviceId AS deviceId, MIN(t.startTime) AS oldestStartTime FROM TelemetryEntity t WHERE t.startTime < :cutoff GROUP BY t.device.deviceId")
+    List<DeviceOldestSample> findDevicesWithTelemetryBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("SELECT DISTINCT t.device.deviceId FROM TelemetryEntity t WHERE t.startTime >= :since AND t.startTime < :end")
+    List<String> findDeviceIdsInRange(@Param("since") Instant since, @Param("end") Instant end);
+
+    @Modifying
+    @Query("DELETE FROM TelemetryEntity t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Neu-Segmentierung: seitenweise per Keyset (startTime, id), nur die Spalten für Fahrtgrenzen, Aggregate und Statistiken
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.example.drivebackend.dto.TripSegmentationSample(t.id, t.trip.id, t.startTime, t.endTime, t.aggregated_data, t.timed_data) FROM TelemetryEntity t "
+        + "WHERE t.device.deviceId = :deviceId AND t.startTime < :before AND (t.startTime > :afterTime OR (t.startTime = :afterTime AND t.id > :afterId)) "
+        + "ORDER BY t.startTime ASC, t.id ASC")
+    List<TripSegmentationSample> findSegmentationChunk(
+        @Param("deviceId") String deviceId,
+        @Param("afterTime") Instant afterTime,
+        @Param("afterId") UUID afterId,
+        @Param("before") Instant before,
+        Limit limit
+    );
+
+    // Neu-Segmentierung: Samples eines Zeitraums der neuen Fahrt zuordnen, die offene Fahrt (Nachzügler) bleibt unberührt
+    @Modifying
+    @Query("UPDATE TelemetryEntity t SET t.trip = :trip WHERE t.device.deviceId = :deviceId AND t.startTime >= :since AND t.startTime <= :end "
+        + "AND (t.trip IS NULL OR (t.trip <> :trip AND t.trip <> :openTrip))")
+    int reassignTrip(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end,
+        @Param("trip") TripEntity trip,
+        @Param("openTrip") TripEntity openTrip
+    );
 }
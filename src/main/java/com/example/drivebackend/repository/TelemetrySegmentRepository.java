@@ -0,0 +1,28 @@
+package com.example.drivebackend.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.drivebackend.entities.TelemetrySegmentEntity;
+
+public interface TelemetrySegmentRepository extends JpaRepository<TelemetrySegmentEntity, UUID> {
+
+    @Query("SELECT s FROM TelemetrySegmentEntity s WHERE s.deviceId = :deviceId AND s.maxStartTime >= :since AND s.minStartTime <= :end ORDER BY s.minStartTime ASC")
+    List<TelemetrySegmentEntity> findOverlapping(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+    );
+
+    long countByDeviceIdAndMonthStart(String deviceId, Instant monthStart);
+
+    // Jüngstes archiviertes Sample; Fahrten davor werden bei der Neu-Segmentierung nicht angefasst
+    @Query("SELECT MAX(s.maxStartTime) FROM TelemetrySegmentEntity s WHERE s.deviceId = :deviceId")
+    Optional<Instant> findLatestArchivedStartTime(@Param("deviceId") String deviceId);
+}
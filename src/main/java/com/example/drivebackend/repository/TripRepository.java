@@ -1,17 +1,45 @@
 package com.example.drivebackend.repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
+import java.util.stream.Stream;
 
-
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.drivebackend.dto.TripResponse;
 import com.example.drivebackend.entities.TripEntity;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface TripRepository extends JpaRepository<TripEntity, UUID> {
+
+interface FinishedTrip {
+    UUID getId();
+    String getDeviceId();
+}
+
+interface TripVersion {
+    UUID getId();
+    Instant getStartTime();
+    Instant getEndTime();
+    Integer getTelemetryCount();
+}
+
+// Fahrtenliste und Tageszeit-Verteilung ohne Query-Cache: jeder Upload schreibt trips und würde ihn invalidieren
 Page<TripEntity> findByDevice_DeviceId(String deviceId, Pageable pageable);
 
 Page<TripEntity> findByDevice_DeviceIdAndStartTimeBetween(
@@ -34,4 +62,69 @@ Page<TripEntity> findByDevice_DeviceIdAndStartTimeBefore(
 );
 List<TripEntity> findAllByDevice_DeviceIdAndStartTimeBetween(String deviceId, Instant since, Instant end);
 List<TripEntity> findAllByDevice_DeviceId(String deviceId);
+
+// Export: DTO-Projektion, damit der Persistence Context beim Streamen nicht wächst
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+})
+@Query("SELECT new com.example.drivebackend.dto.TripResponse(t.id, t.device.deviceId, t.startTime, t.endTime, t.startLocation, t.endLocation, t.note, t.trip_distance_km) FROM TripEntity t WHERE t.device.deviceId = :deviceId AND t.startTime >= :since AND t.startTime <= :end ORDER BY t.startTime ASC")
+Stream<TripResponse> streamAllByDeviceIdInRange(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+);
+
+// Perzentile/Histogramme: nur die Sketch-Spalte, null bei Fahrten von vor den Sketches
+@Query("SELECT d.signalSketches FROM TripEntity t LEFT JOIN TripSignalDataEntity d ON d.tripId = t.id "
+        + "WHERE t.device.deviceId = :deviceId AND t.startTime >= :since AND t.startTime <= :end")
+List<byte[]> findSignalSketchesInRange(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+);
+
+// Spalten-Cache: Fahrten, die Samples im Zeitraum haben können, mit allem, was eine Änderung der Fahrt anzeigt
+@Query("SELECT t.id AS id, t.startTime AS startTime, t.endTime AS endTime, t.telemetry_count AS telemetryCount FROM TripEntity t "
+        + "WHERE t.device.deviceId = :deviceId AND t.startTime <= :end AND t.endTime >= :since ORDER BY t.startTime ASC")
+List<TripVersion> findVersionsOverlapping(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("end") Instant end
+);
+
+// Ingest: an L2-Cache und Persistence Context vorbei lesen und bis zum Commit sperren, sonst schreibt ein
+// paralleler Upload (auch einer anderen Instanz) aus einem veralteten Stand seine Summen über die neueren
+@Lock(LockModeType.PESSIMISTIC_WRITE)
+@QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+@Query("SELECT t FROM TripEntity t WHERE t.id = :id")
+Optional<TripEntity> findByIdForUpdate(@Param("id") UUID id);
+
+// Neu-Segmentierung: erste Fahrt nach dem archivierten Bereich bzw. überhaupt
+Optional<TripEntity> findFirstByDevice_DeviceIdAndStartTimeAfterOrderByStartTimeAsc(String deviceId, Instant after);
+
+Optional<TripEntity> findFirstByDevice_DeviceIdOrderByStartTimeAsc(String deviceId);
+
+@Query("SELECT t.id FROM TripEntity t WHERE t.device.deviceId = :deviceId AND t.startTime >= :since AND t.startTime < :before")
+List<UUID> findIdsByDeviceIdInRange(
+        @Param("deviceId") String deviceId,
+        @Param("since") Instant since,
+        @Param("before") Instant before
+);
+
+// Kompaktierung: beendete Fahrten, die noch nicht erfasst wurden (Index auf compacted, end_time)
+@Query("SELECT t.id AS id, t.device.deviceId AS deviceId FROM TripEntity t WHERE t.compacted = false AND t.endTime < :finishedBefore "
+        + "ORDER BY t.endTime ASC")
+List<FinishedTrip> findUncompactedFinishedBefore(@Param("finishedBefore") Instant finishedBefore, Limit limit);
+
+// Vor der Neu-Segmentierung: die Samples liegen wieder in telemetry, jede Fahrt muss erneut kompaktiert werden
+@Modifying
+@Query("UPDATE TripEntity t SET t.compacted = false WHERE t.device.deviceId = :deviceId AND t.compacted = true")
+int resetCompactedByDeviceId(@Param("deviceId") String deviceId);
+
+// Nur Fahrten löschen, auf die kein Sample und kein Chunk mehr zeigt (Nachzügler während der Neu-Segmentierung)
+@Modifying
+@Query("DELETE FROM TripEntity t WHERE t.id IN :ids AND NOT EXISTS (SELECT s.id FROM TelemetryEntity s WHERE s.trip = t) "
+        + "AND NOT EXISTS (SELECT c.id FROM TelemetryChunkEntity c WHERE c.tripId = t.id)")
+int deleteUnreferencedByIdIn(@Param("ids") Collection<UUID> ids);
 }
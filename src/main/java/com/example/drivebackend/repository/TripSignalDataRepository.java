@@ -0,0 +1,10 @@
+package com.example.drivebackend.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.drivebackend.entities.TripSignalDataEntity;
+
+public interface TripSignalDataRepository extends JpaRepository<TripSignalDataEntity, UUID> {
+}
@@ -0,0 +1,50 @@
+package com.example.drivebackend.routing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Devices that were written by this instance within the read-your-writes window. Reads for such a device go
+ * to the primary, so a dashboard never shows a trip list older than the upload it just saw succeed, no matter
+ * how far the replicas lag. Only writes through this instance are known; without replicas this is a no-op.
+ */
+@Component
+public class RecentDeviceWrites {
+
+    // Aufräumen erst ab dieser Größe, damit record() im Normalfall nur ein put ist
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final boolean enabled;
+    // deviceId -> System.nanoTime() des letzten Schreibzugriffs
+    private final Map<String, Long> lastWrite = new ConcurrentHashMap<>();
+
+    public RecentDeviceWrites(@Value("${app.datasource.read-your-writes:5s}") Duration window,
+                              @Value("${app.datasource.replica.urls:}") String replicaUrls) {
+        this.windowNanos = window.toNanos();
+        this.enabled = windowNanos > 0 && !replicaUrls.isBlank();
+    }
+
+    public void record(String deviceId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastWrite.put(deviceId, now);
+        if (lastWrite.size() > CLEANUP_THRESHOLD) {
+            lastWrite.values().removeIf(written -> now - written > windowNanos);
+        }
+    }
+
+    public boolean isRecent(String deviceId) {
+        if (!enabled || deviceId == null) {
+            return false;
+        }
+        Long written = lastWrite.get(deviceId);
+        return written != null && System.nanoTime() - written <= windowNanos;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.drivebackend.routing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends connections of read-only transactions round-robin to the replicas and everything else to the primary.
+ * Falls back to the primary when the request is pinned by {@link RoutingContext} (read-your-writes) or no
+ * replica hands out a connection; a replica that fails is skipped for {@code retryAfter}.
+ * <p>
+ * The read-only flag is only known once the transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the physical connection is then
+ * fetched on the first statement. Connections outside of a transaction (Flyway, JDBC jobs, health check) go to
+ * the primary. No {@code AbstractRoutingDataSource} on purpose: Spring Boot would add every replica to the
+ * health endpoint, and a lost replica is no reason to take the instance out of service.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // System.nanoTime(), bis zu dem das Replikat übersprungen wird
+        private volatile long downUntil;
+        private volatile boolean down;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isAvailable(long now) {
+            return !down || now - downUntil >= 0;
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return primary("no-transaction");
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary("write");
+        }
+        if (RoutingContext.isPinnedToPrimary()) {
+            return primary("read-your-writes");
+        }
+        long now = System.nanoTime();
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.isAvailable(now)) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                if (replica.down) {
+                    replica.down = false;
+                    log.info("Replica {} is available again", replica.name);
+                }
+                count(replica.name, "read-only");
+                return connection;
+            } catch (SQLException e) {
+                replica.downUntil = now + retryAfter.toNanos();
+                replica.down = true;
+                log.warn("Replica {} unavailable, reading from the primary for {}: {}", replica.name, retryAfter, e.getMessage());
+            }
+        }
+        return primary("replica-unavailable");
+    }
+
+    // Zugangsdaten pro Aufruf gibt es nur für die Primary
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Pool-Metriken und Metadaten beziehen sich auf die Primary
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private Connection primary(String reason) throws SQLException {
+        Connection connection = primary.getConnection();
+        count(PRIMARY, reason);
+        return connection;
+    }
+
+    private void count(String target, String reason) {
+        meterRegistry.counter("datasource.routing", "target", target, "reason", reason).increment();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.drivebackend.routing;
+
+/**
+ * Per-thread hint for {@link ReplicaRoutingDataSource}: read-only transactions of a request that must see its
+ * device's latest writes are kept on the primary. Set by {@code ReadYourWritesInterceptor}, cleared after
+ * the request.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    public static void pinToPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.drivebackend.series;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Ring of the last {@code capacity} {@code timed_data} points of one device: epoch-2000 seconds as {@code int},
+ * one {@code float} column per signal, missing values NaN. Writes take the exclusive lock once per upload, so
+ * uploads of one device are appended one after the other; reads copy optimistically and only fall back to the
+ * read lock if a write came in between.
+ */
+final class DeviceLiveBuffer {
+
+    private final StampedLock lock = new StampedLock();
+    private final int[] seconds;
+    private final float[][] values;
+    // Nächster Schreibplatz und Anzahl belegter Plätze
+    private int head;
+    private int size;
+    private volatile long lastSecond = Long.MIN_VALUE;
+
+    DeviceLiveBuffer(int capacity, int signals) {
+        this.seconds = new int[capacity];
+        this.values = new float[signals][capacity];
+    }
+
+    static long bytes(int capacity, int signals) {
+        return (long) capacity * (Integer.BYTES + signals * Float.BYTES);
+    }
+
+    /**
+     * Newest second in the buffer, {@link Long#MIN_VALUE} while it is empty.
+     */
+    long lastSecond() {
+        return lastSecond;
+    }
+
+    /**
+     * Appends the points of one upload in their order. Points not newer than the newest one in the buffer (late
+     * or repeated uploads) are skipped, the ring only ever moves forward in time. Points after {@code latestSecond}
+     * are skipped as well: a single point from a device clock far ahead would otherwise hold back every later point
+     * and keep the device from ever looking idle.
+     *
+     * @return Number of points appended
+     */
+    int append(Map<String, Object> timedData, List<String> signals, long latestSecond) {
+        long stamp = lock.writeLock();
+        try {
+            int appended = 0;
+            long last = lastSecond;
+            for (Map.Entry<String, Object> entry : timedData.entrySet()) {
+                long second;
+                try {
+                    second = Long.parseLong(entry.getKey());
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (second <= last || second > latestSecond || second > Integer.MAX_VALUE) {
+                    continue;
+                }
+                Map<?, ?> point = entry.getValue() instanceof Map<?, ?> map ? map : Map.of();
+                seconds[head] = (int) second;
+                for (int s = 0; s < values.length; s++) {
+                    values[s][head] = point.get(signals.get(s)) instanceof Number value ? value.floatValue() : Float.NaN;
+                }
+                head = head + 1 == seconds.length ? 0 : head + 1;
+                size = Math.min(size + 1, seconds.length);
+                last = second;
+                appended++;
+            }
+            lastSecond = last;
+            return appended;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copy of the points at or after {@code fromSecond}, oldest first.
+     */
+    LiveTelemetry.Window copySince(long fromSecond) {
+        long stamp = lock.tryOptimisticRead();
+        LiveTelemetry.Window window = copy(fromSecond);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                window = copy(fromSecond);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return window;
+    }
+
+    private LiveTelemetry.Window copy(long fromSecond) {
+        // Bei optimistischem Lesen können head/size veraltet sein, die Indizes bleiben trotzdem im Ring
+        int capacity = seconds.length;
+        int end = Math.floorMod(head, capacity);
+        int available = Math.clamp(size, 0, capacity);
+        int count = 0;
+        while (count < available && seconds[Math.floorMod(end - count - 1, capacity)] >= fromSecond) {
+            count++;
+        }
+        int start = Math.floorMod(end - count, capacity);
+        int[] windowSeconds = new int[count];
+        float[][] windowValues = new float[values.length][count];
+        copyRing(seconds, start, windowSeconds, count);
+        for (int s = 0; s < values.length; s++) {
+            copyRing(values[s], start, windowValues[s], count);
+        }
+        return new LiveTelemetry.Window(windowSeconds, windowValues);
+    }
+
+    private void copyRing(Object ring, int start, Object target, int count) {
+        int first = Math.min(count, seconds.length - start);
+        System.arraycopy(ring, start, target, 0, first);
+        System.arraycopy(ring, 0, target, first, count - first);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.drivebackend.series;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.drivebackend.mapper.TelemetryMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The last points of every device that uploaded recently, filled at ingest, so the live dashboard can poll
+ * without touching the database. Each device gets a fixed ring of {@code app.telemetry.live.capacity} points
+ * ({@link #bytesPerDevice()}), at most {@code app.telemetry.live.max-devices} devices are kept. When the map is
+ * full, devices without a point within {@code app.telemetry.live.max-window} make room; if there are none,
+ * further devices are not buffered until one goes idle. Points more than {@code app.telemetry.live.max-clock-skew}
+ * after now are not buffered.
+ */
+@Component
+public class LiveTelemetry {
+
+    /**
+     * Points of a window, oldest first: epoch-2000 seconds and one column per signal of {@link #signals()}.
+     */
+    public record Window(int[] seconds, float[][] values) {}
+
+    private static final Logger log = LoggerFactory.getLogger(LiveTelemetry.class);
+
+    private final int capacity;
+    private final List<String> signals;
+    private final int maxDevices;
+    private final Duration maxWindow;
+    private final Duration maxClockSkew;
+    private final Map<String, DeviceLiveBuffer> buffers = new ConcurrentHashMap<>();
+    private volatile boolean fullLogged;
+
+    public LiveTelemetry(@Value("${app.telemetry.live.capacity:600}") int capacity,
+                         @Value("${app.telemetry.live.signals:speed,rpm}") List<String> signals,
+                         @Value("${app.telemetry.live.max-devices:10000}") int maxDevices,
+                         @Value("${app.telemetry.live.max-window:10m}") Duration maxWindow,
+                         @Value("${app.telemetry.live.max-clock-skew:1m}") Duration maxClockSkew,
+                         MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.signals = List.copyOf(signals);
+        this.maxDevices = maxDevices;
+        this.maxWindow = maxWindow;
+        this.maxClockSkew = maxClockSkew;
+        Gauge.builder("telemetry.live.devices", buffers, Map::size).register(meterRegistry);
+        Gauge.builder("telemetry.live.bytes", this, live -> (double) live.buffers.size() * live.bytesPerDevice())
+                .description("Memory held by the live ring buffers (point data only)")
+                .register(meterRegistry);
+    }
+
+    public List<String> signals() {
+        return signals;
+    }
+
+    public Duration maxWindow() {
+        return maxWindow;
+    }
+
+    public long bytesPerDevice() {
+        return DeviceLiveBuffer.bytes(capacity, signals.size());
+    }
+
+    public void record(String deviceId, Map<String, Object> timedData) {
+        if (capacity <= 0 || timedData == null || timedData.isEmpty()) {
+            return;
+        }
+        DeviceLiveBuffer buffer = buffers.get(deviceId);
+        if (buffer == null) {
+            if (buffers.size() >= maxDevices && !evictIdle()) {
+                if (!fullLogged) {
+                    fullLogged = true;
+                    log.warn("Live telemetry holds {} devices, not buffering device {} until one is idle", maxDevices, deviceId);
+                }
+                return;
+            }
+            buffer = buffers.computeIfAbsent(deviceId, ignored -> new DeviceLiveBuffer(capacity, signals.size()));
+        }
+        buffer.append(timedData, signals, nowEpoch2000() + maxClockSkew.toSeconds());
+    }
+
+    /**
+     * @return The points of the last {@code window} before now, empty if the device has not uploaded since the start
+     */
+    public Optional<Window> window(String deviceId, Duration window) {
+        DeviceLiveBuffer buffer = buffers.get(deviceId);
+        if (buffer == null) {
+            return Optional.empty();
+        }
+        return Optional.of(buffer.copySince(nowEpoch2000() - window.toSeconds()));
+    }
+
+    private boolean evictIdle() {
+        long idleBefore = nowEpoch2000() - maxWindow.toSeconds();
+        boolean evicted = buffers.values().removeIf(buffer -> buffer.lastSecond() < idleBefore);
+        if (evicted) {
+            fullLogged = false;
+        }
+        return evicted;
+    }
+
+    private static long nowEpoch2000() {
+        return Instant.now().getEpochSecond() - TelemetryMapper.EPOCH_2000_OFFSET_SECONDS;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.drivebackend.series;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+
+/**
+ * The samples of one trip as primitive columns in a single buffer, for aggregations that would otherwise walk
+ * the decoded {@code Map} trees of every sample. Per sample: start and end in epoch microseconds, the
+ * {@code distance} of {@code aggregated_data} and the offset of its first point; per {@code timed_data} point:
+ * its epoch-2000 second and one {@code double} column per configured signal. Missing values are NaN.
+ * <p>
+ * The buffer is written once in {@link #of} and only read with absolute getters afterwards, so an instance can
+ * be shared between threads. Samples are in start time order, so a time range is a contiguous index range
+ * ({@link #samplesFrom}, {@link #samplesTo}).
+ */
+public final class TripSeries {
+
+    private static final long NO_SECOND = Long.MIN_VALUE;
+
+    private final UUID tripId;
+    private final List<String> signals;
+    private final ByteBuffer buffer;
+    private final int samples;
+    private final int points;
+    // Byte-Offsets der Spalten im Puffer
+    private final int endColumn;
+    private final int distanceColumn;
+    private final int pointOffsetColumn;
+    private final int secondColumn;
+    private final int signalColumns;
+
+    private TripSeries(UUID tripId, List<String> signals, ByteBuffer buffer, int samples, int points) {
+        this.tripId = tripId;
+        this.signals = signals;
+        this.buffer = buffer;
+        this.samples = samples;
+        this.points = points;
+        this.endColumn = samples * Long.BYTES;
+        this.distanceColumn = endColumn + samples * Long.BYTES;
+        this.pointOffsetColumn = distanceColumn + samples * Double.BYTES;
+        this.secondColumn = pointOffsetColumn + (samples + 1) * Integer.BYTES;
+        this.signalColumns = secondColumn + points * Long.BYTES;
+    }
+
+    /**
+     * @param samples Samples of the trip in start time order
+     * @param signals {@code timed_data} signals to keep as columns
+     * @param offHeap Direct buffer for cached series, heap buffer for one-off ones that are dropped after the request
+     */
+    public static TripSeries of(UUID tripId, List<TelemetryResponse> samples, List<String> signals, boolean offHeap) {
+        int sampleCount = samples.size();
+        int pointCount = 0;
+        for (TelemetryResponse sample : samples) {
+            pointCount += sample.timed_data() != null ? sample.timed_data().size() : 0;
+        }
+        int size = sampleCount * (2 * Long.BYTES + Double.BYTES + Integer.BYTES) + Integer.BYTES
+                + pointCount * (Long.BYTES + signals.size() * Double.BYTES);
+        ByteBuffer buffer = (offHeap ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size)).order(ByteOrder.nativeOrder());
+        TripSeries series = new TripSeries(tripId, List.copyOf(signals), buffer, sampleCount, pointCount);
+
+        int point = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            TelemetryResponse sample = samples.get(i);
+            long start = toMicros(sample.start_time());
+            buffer.putLong(i * Long.BYTES, start);
+            buffer.putLong(series.endColumn + i * Long.BYTES, sample.end_time() != null ? toMicros(sample.end_time()) : start);
+            buffer.putDouble(series.distanceColumn + i * Double.BYTES,
+                    sample.aggregated_data() != null && sample.aggregated_data().get("distance") instanceof Number distance
+                            ? distance.doubleValue() : Double.NaN);
+            buffer.putInt(series.pointOffsetColumn + i * Integer.BYTES, point);
+            if (sample.timed_data() == null) {
+                continue;
+            }
+            for (Map.Entry<String, Object> entry : sample.timed_data().entrySet()) {
+                buffer.putLong(series.secondColumn + point * Long.BYTES, parseSecond(entry.getKey()));
+                Map<?, ?> values = entry.getValue() instanceof Map<?, ?> map ? map : Map.of();
+                for (int s = 0; s < series.signals.size(); s++) {
+                    buffer.putDouble(series.valueIndex(s, point),
+                            values.get(series.signals.get(s)) instanceof Number value ? value.doubleValue() : Double.NaN);
+                }
+                point++;
+            }
+        }
+        buffer.putInt(series.pointOffsetColumn + sampleCount * Integer.BYTES, point);
+        return series;
+    }
+
+    public UUID tripId() {
+        return tripId;
+    }
+
+    public int sampleCount() {
+        return samples;
+    }
+
+    public int pointCount() {
+        return points;
+    }
+
+    public long bytes() {
+        return buffer.capacity();
+    }
+
+    public boolean isOffHeap() {
+        return buffer.isDirect();
+    }
+
+    /**
+     * Column of a signal for {@link #value}, -1 if it is not kept.
+     */
+    public int signal(String name) {
+        return signals.indexOf(name);
+    }
+
+    /**
+     * First sample starting at or after {@code since} (all samples for null).
+     */
+    public int samplesFrom(Instant since) {
+        return since != null ? lowerBound(toMicros(since)) : 0;
+    }
+
+    /**
+     * One past the last sample starting at or before {@code end} (all samples for null).
+     */
+    public int samplesTo(Instant end) {
+        if (end == null) {
+            return samples;
+        }
+        long micros = toMicros(end);
+        return micros == Long.MAX_VALUE ? samples : lowerBound(micros + 1);
+    }
+
+    public long sampleStartMicros(int sample) {
+        return buffer.getLong(sample * Long.BYTES);
+    }
+
+    public long sampleEndMicros(int sample) {
+        return buffer.getLong(endColumn + sample * Long.BYTES);
+    }
+
+    public double distance(int sample) {
+        return buffer.getDouble(distanceColumn + sample * Double.BYTES);
+    }
+
+    /**
+     * First point of a sample; {@code pointOffset(sampleCount())} is the number of points.
+     */
+    public int pointOffset(int sample) {
+        return buffer.getInt(pointOffsetColumn + sample * Integer.BYTES);
+    }
+
+    /**
+     * Epoch-2000 second of a point, {@link Long#MIN_VALUE} if its key was not a number.
+     */
+    public long pointSecond(int point) {
+        return buffer.getLong(secondColumn + point * Long.BYTES);
+    }
+
+    public double value(int signal, int point) {
+        return buffer.getDouble(valueIndex(signal, point));
+    }
+
+    private int valueIndex(int signal, int point) {
+        return signalColumns + (signal * points + point) * Double.BYTES;
+    }
+
+    private int lowerBound(long micros) {
+        int low = 0;
+        int high = samples;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sampleStartMicros(mid) < micros) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long toMicros(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private static long parseSecond(String key) {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return NO_SECOND;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.drivebackend.series;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Off-heap {@link TripSeries} of recent trips, least recently used first out once the columns exceed
+ * {@code app.trips.series.cache-size}. The heap only holds the small entry objects, the columns live in direct
+ * buffers, so the number of cached trips does not show up in heap usage or GC pauses.
+ * <p>
+ * There is no invalidation from the write paths: an entry remembers start, end and sample count of its trip and
+ * a lookup with other values (new upload, late sample, re-segmentation) is a miss that replaces it.
+ */
+@Component
+public class TripSeriesCache {
+
+    private record Entry(TripSeries series, Instant startTime, Instant endTime, int sampleCount) {
+
+        boolean matches(Instant startTime, Instant endTime, int sampleCount) {
+            return this.sampleCount == sampleCount && Objects.equals(this.startTime, startTime) && Objects.equals(this.endTime, endTime);
+        }
+    }
+
+    private final long budgetBytes;
+    // Zugriffsreihenfolge: der älteste Eintrag fliegt zuerst
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long bytes;
+
+    public TripSeriesCache(@Value("${app.trips.series.cache-size:64MB}") DataSize budget, MeterRegistry meterRegistry) {
+        this.budgetBytes = budget.toBytes();
+        this.hits = meterRegistry.counter("telemetry.series.cache", "result", "hit");
+        this.misses = meterRegistry.counter("telemetry.series.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("telemetry.series.cache.evictions");
+        Gauge.builder("telemetry.series.cache.bytes", this, TripSeriesCache::bytes)
+                .description("Off-heap bytes held by cached trip series")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.series.cache.trips", this, TripSeriesCache::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return budgetBytes > 0;
+    }
+
+    /**
+     * @return The cached series if it was built from the trip in exactly this state, otherwise null
+     */
+    public synchronized TripSeries get(UUID tripId, Instant startTime, Instant endTime, int sampleCount) {
+        Entry entry = entries.get(tripId);
+        if (entry == null || !entry.matches(startTime, endTime, sampleCount)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.series();
+    }
+
+    public synchronized void put(TripSeries series, Instant startTime, Instant endTime, int sampleCount) {
+        if (series.bytes() > budgetBytes) {
+            return;
+        }
+        Entry previous = entries.put(series.tripId(), new Entry(series, startTime, endTime, sampleCount));
+        bytes += series.bytes() - (previous != null ? previous.series().bytes() : 0);
+        // Direkte Puffer gibt der Cleaner frei, sobald der Eintrag nicht mehr erreichbar ist
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > budgetBytes && eldest.hasNext()) {
+            bytes -= eldest.next().series().bytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
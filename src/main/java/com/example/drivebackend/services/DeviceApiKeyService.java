@@ -0,0 +1,29 @@
+package com.example.drivebackend.services;
+
+import java.util.Optional;
+
+import com.example.drivebackend.entities.DeviceEntity;
+
+public interface DeviceApiKeyService {
+
+    /**
+     * Resolve a per-device API key from the in-memory index, without a database round trip.
+     *
+     * @return The device the key belongs to (detached), or empty if the key is unknown or revoked
+     */
+    Optional<DeviceEntity> resolve(String apiKey);
+
+    /**
+     * Create a new key for the device, replacing an existing one. Unknown devices are registered.
+     *
+     * @return The key in plain text; only its hash is stored, so it cannot be shown again
+     */
+    String issueKey(String deviceId);
+
+    /**
+     * Revoke the key of the device.
+     *
+     * @return false if the device does not exist
+     */
+    boolean revokeKey(String deviceId);
+}
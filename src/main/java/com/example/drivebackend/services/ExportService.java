@@ -0,0 +1,25 @@
+package com.example.drivebackend.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+import com.example.drivebackend.dto.ExportFormat;
+
+public interface ExportService {
+
+    /**
+     * Stream all telemetry samples of a device in the given range to the output, oldest first.
+     * CSV is written in long format with one row per timed_data metric value.
+     *
+     * @param since Start time (optional)
+     * @param end End time (optional)
+     * @param gzip Compress the output on the fly
+     */
+    void exportTelemetry(String deviceId, Instant since, Instant end, ExportFormat format, boolean gzip, OutputStream out) throws IOException;
+
+    /**
+     * Stream all trips of a device in the given range to the output, oldest first.
+     */
+    void exportTrips(String deviceId, Instant since, Instant end, ExportFormat format, boolean gzip, OutputStream out) throws IOException;
+}
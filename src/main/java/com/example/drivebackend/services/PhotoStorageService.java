@@ -0,0 +1,53 @@
+package com.example.drivebackend.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+
+public interface PhotoStorageService {
+
+    /**
+     * Store the given content in the content-addressed blob store.
+     * If a blob with the same hash already exists, nothing is written.
+     *
+     * @param content The raw image stream
+     * @return SHA-256 hash (hex) of the stored content
+     */
+    String store(InputStream content) throws IOException;
+
+    /**
+     * Store the given content in the content-addressed blob store.
+     *
+     * @param content The raw image bytes
+     * @return SHA-256 hash (hex) of the stored content
+     */
+    String store(byte[] content) throws IOException;
+
+    /**
+     * Resolve a stored blob as a streamable resource.
+     *
+     * @param hash SHA-256 hash as returned by {@link #store(InputStream)}
+     * @return Resource for the blob or empty if it does not exist
+     */
+    Optional<Resource> load(String hash);
+
+    /**
+     * Store a derived variant (e.g. a thumbnail) of an existing blob.
+     *
+     * @param hash Hash of the original blob
+     * @param variant Variant name, e.g. {@code 256.jpg}
+     * @param content Encoded variant bytes
+     */
+    void storeVariant(String hash, String variant, byte[] content) throws IOException;
+
+    /**
+     * Resolve a derived variant of a stored blob.
+     *
+     * @param hash Hash of the original blob
+     * @param variant Variant name as passed to {@link #storeVariant(String, String, byte[])}
+     * @return Resource for the variant or empty if it has not been generated (yet)
+     */
+    Optional<Resource> loadVariant(String hash, String variant);
+}
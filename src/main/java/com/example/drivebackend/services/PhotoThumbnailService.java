@@ -0,0 +1,43 @@
+package com.example.drivebackend.services;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface PhotoThumbnailService {
+
+    // Kantenlängen (px) der vorberechneten Varianten
+    List<Integer> VARIANT_SIZES = List.of(64, 256, 1024);
+
+    /**
+     * Generate all resized variants of a stored photo in the background.
+     *
+     * @param hash Hash of the original photo in the PhotoStorageService
+     * @param contentType Content type of the original photo
+     * @return Completes once the variants are stored (or could not be generated)
+     */
+    CompletableFuture<Void> generateVariants(String hash, String contentType);
+
+    /**
+     * Pick the smallest variant that is at least as large as the requested size.
+     *
+     * @param requestedSize Requested edge length in px
+     * @return Variant size or empty if the original should be served
+     */
+    Optional<Integer> resolveVariantSize(int requestedSize);
+
+    /**
+     * Whether variants can be generated for this content type (e.g. WebP cannot be decoded by ImageIO).
+     */
+    boolean supports(String contentType);
+
+    /**
+     * Variant name used in the PhotoStorageService for the given size and original content type.
+     */
+    String variantName(int size, String contentType);
+
+    /**
+     * Content type of a variant generated from an original of the given content type.
+     */
+    String variantContentType(String contentType);
+}
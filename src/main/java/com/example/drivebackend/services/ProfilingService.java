@@ -0,0 +1,33 @@
+package com.example.drivebackend.services;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+import jdk.jfr.Recording;
+
+public interface ProfilingService {
+
+    // Mitgelieferte JFR-Konfigurationen: "default" ~1% Overhead, "profile" mit Allokations- und Lock-Profil ~2%
+    Set<String> SETTINGS = Set.of("default", "profile");
+
+    Duration MAX_DURATION = Duration.ofMinutes(10);
+
+    /**
+     * Start a time-boxed Flight Recorder recording. Only one recording runs at a time.
+     *
+     * @param duration Recording length, at most {@link #MAX_DURATION}
+     * @param settings One of {@link #SETTINGS}
+     * @return The running recording, to be passed to {@link #awaitAndDump(Recording)}
+     * @throws IllegalStateException if another recording is running
+     */
+    Recording startRecording(Duration duration, String settings) throws IOException;
+
+    /**
+     * Wait until the recording has reached its duration and write it to a temporary file.
+     *
+     * @return The {@code .jfr} file, the caller deletes it
+     */
+    Path awaitAndDump(Recording recording) throws IOException, InterruptedException;
+}
@@ -0,0 +1,31 @@
+package com.example.drivebackend.services;
+
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.example.drivebackend.entities.RepairNoteEntity;
+
+public interface RepairNoteSearchService {
+
+    /**
+     * Full-text search over the note texts of a device, newest notes first.
+     *
+     * @param deviceId The device ID
+     * @param query Free text, all words must match
+     * @param pageable Paging information
+     * @return Matching notes
+     */
+    Page<RepairNoteEntity> search(String deviceId, String query, Pageable pageable);
+
+    /**
+     * Add or update a note in the search index after it has been saved.
+     */
+    void index(RepairNoteEntity note);
+
+    /**
+     * Remove a deleted note from the search index.
+     */
+    void remove(UUID noteId);
+}
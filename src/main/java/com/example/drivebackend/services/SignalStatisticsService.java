@@ -0,0 +1,70 @@
+package com.example.drivebackend.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.example.drivebackend.dto.DrivingBehaviourResponse;
+import com.example.drivebackend.dto.SignalHistogramResponse;
+import com.example.drivebackend.dto.SignalPercentilesResponse;
+import com.example.drivebackend.dto.SignalStatisticsResponse;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.entities.TelemetryEntity;
+import com.example.drivebackend.entities.TripEntity;
+
+public interface SignalStatisticsService {
+
+    /**
+     * Add the {@code timed_data} of a new sample to the statistics, sketches and driving events of its trip and the
+     * statistics of its device. The event counters and score of the trip are only changed in memory and saved by the
+     * caller, which has to hold the trip locked; the encoded trip data and the device statistics are saved here.
+     */
+    void record(DeviceEntity device, TripEntity trip, TelemetryEntity sample);
+
+    /**
+     * Statistics of one trip, read from its {@code trip_signal_data} row. Trips from before the statistics existed are computed
+     * from their samples.
+     *
+     * @return empty if the trip does not exist or belongs to another device
+     */
+    Optional<SignalStatisticsResponse> tripStatistics(String deviceId, UUID tripId);
+
+    /**
+     * Statistics over all uploads of a device since the statistics exist.
+     *
+     * @return empty if nothing was recorded for the device yet
+     */
+    Optional<SignalStatisticsResponse> deviceStatistics(String deviceId);
+
+    /**
+     * Driving events and score of one trip, read from its {@code trip_signal_data} row. Trips from before the detection existed are
+     * computed from their samples.
+     *
+     * @return empty if the trip does not exist or belongs to another device
+     */
+    Optional<DrivingBehaviourResponse> tripBehaviour(String deviceId, UUID tripId);
+
+    /**
+     * Whether {@code signal} has sketches for {@link #percentiles} and {@link #histogram}.
+     */
+    boolean hasSketch(String signal);
+
+    /**
+     * Percentiles of a signal from the merged sketches of one trip or of all trips starting in a range.
+     *
+     * @param tripId Only this trip, {@code since} and {@code end} are ignored then (optional)
+     * @param since Start of the range (optional)
+     * @param end End of the range (optional)
+     * @param percentiles Percentiles between 0 and 100
+     * @return empty if {@code tripId} does not exist or belongs to another device
+     */
+    Optional<SignalPercentilesResponse> percentiles(String deviceId, UUID tripId, Instant since, Instant end, String signal, List<Double> percentiles);
+
+    /**
+     * Histogram of a signal from the merged sketches, same selection as {@link #percentiles}.
+     *
+     * @param bucketWidth Width of a bucket in the unit of the signal
+     */
+    Optional<SignalHistogramResponse> histogram(String deviceId, UUID tripId, Instant since, Instant end, String signal, long bucketWidth);
+}
@@ -0,0 +1,42 @@
+package com.example.drivebackend.services;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+
+public interface TelemetryArchiveService {
+
+    /**
+     * Move all telemetry of complete months before the cutoff into compressed segment files
+     * and delete the archived rows from the telemetry table.
+     *
+     * @param cutoff Samples starting before the first day of this month (UTC) are archived
+     * @return Number of archived samples
+     */
+    int archiveBefore(Instant cutoff);
+
+    /**
+     * Read archived samples of a device, ordered by start time.
+     *
+     * @param deviceId The device ID
+     * @param tripId Only samples of this trip (optional)
+     * @param since Start time (optional)
+     * @param end End time (optional)
+     * @return Archived samples in the range, empty if nothing was archived
+     */
+    List<TelemetryResponse> readArchived(String deviceId, UUID tripId, Instant since, Instant end);
+
+    /**
+     * Archived samples of a device from the segment files only (without compacted chunks), ordered by start time.
+     * Segments are read one after the other while iterating, so only about one month of samples is in memory.
+     *
+     * @param deviceId The device ID
+     * @param since Start time (optional)
+     * @param end End time (optional)
+     * @return Archived samples in the range
+     */
+    Iterator<TelemetryResponse> iterateArchivedSegments(String deviceId, Instant since, Instant end);
+}
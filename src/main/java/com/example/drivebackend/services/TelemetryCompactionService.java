@@ -0,0 +1,51 @@
+package com.example.drivebackend.services;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+
+public interface TelemetryCompactionService {
+
+    /**
+     * Merge the telemetry rows of every trip that ended before the cutoff into a few compressed chunk rows and
+     * delete the merged rows. Every trip is only looked at once; a late upload into a compacted trip clears its
+     * marker, so the new rows are merged in the next run.
+     *
+     * @param finishedBefore Trips ending before this are compacted, must be further back than any trip gap
+     * @return Number of compacted samples
+     */
+    int compactTripsFinishedBefore(Instant finishedBefore);
+
+    /**
+     * Compacted samples of a device ordered by start time, decoded one chunk at a time. Has to be consumed inside
+     * the caller's transaction.
+     *
+     * @param since Start time (optional)
+     * @param end End time (optional)
+     */
+    Iterator<TelemetryResponse> iterateCompacted(String deviceId, Instant since, Instant end);
+
+    /**
+     * Latest compacted sample of a device, for when all of its recent rows are already compacted.
+     */
+    Optional<TelemetryResponse> latestCompacted(String deviceId);
+
+    /**
+     * Write all compacted samples of a device back into the telemetry table with their original IDs, e.g. before
+     * re-segmenting its trips. Only useful inside {@link #withoutCompaction}, otherwise the next compaction run
+     * may merge the restored rows again right away.
+     *
+     * @return Number of restored samples
+     */
+    int restoreCompacted(String deviceId);
+
+    /**
+     * Run {@code action} while no compaction touches the device: waits until a trip of the device that is being
+     * compacted is done, and compaction runs skip the device's trips until the action returns. Only excludes
+     * compaction within this instance.
+     */
+    <T> T withoutCompaction(String deviceId, Supplier<T> action);
+}
@@ -0,0 +1,33 @@
+package com.example.drivebackend.services;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface TelemetryPartitionService {
+
+    /**
+     * Whether the telemetry table is partitioned by month (opt-in, PostgreSQL only).
+     */
+    boolean isEnabled();
+
+    /**
+     * Create the partitions for the current month and the configured number of upcoming months.
+     * Rows that already landed in the default partition for these months are moved over.
+     */
+    void ensurePartitions();
+
+    /**
+     * Months that currently have their own partition, oldest first.
+     */
+    List<YearMonth> listPartitions();
+
+    /**
+     * Block concurrent writes to a month partition until the current transaction ends.
+     */
+    void lockPartition(YearMonth month);
+
+    /**
+     * Detach and drop a month partition inside the current transaction.
+     */
+    void dropPartition(YearMonth month);
+}
@@ -4,6 +4,7 @@ import com.example.drivebackend.dto.TelemetryIngestRequest;
 import com.example.drivebackend.dto.TelemetryResponse;
 import com.example.drivebackend.dto.TripDetailsResponse;
 import com.example.drivebackend.dto.TimeBucket;
+import com.example.drivebackend.entities.DeviceEntity;
 
 import java.time.Instant;
 import java.util.List;
@@ -13,7 +14,14 @@ import java.util.UUID;
 
 public interface TelemetryService {
 
-    TelemetryResponse ingestTelemetry(TelemetryIngestRequest request);
+    /**
+     * Store one upload and attach it to the current or a new trip.
+     *
+     * @param request The upload
+     * @param device The device already resolved from its API key, or null to look it up (and register it)
+     * @param payloadBytes Size of the request body, only recorded for diagnostics (-1 if unknown)
+     */
+    TelemetryResponse ingestTelemetry(TelemetryIngestRequest request, DeviceEntity device, long payloadBytes);
 
     Optional<TelemetryResponse> fetchLatestTelemetry(String deviceId);
 
@@ -0,0 +1,33 @@
+package com.example.drivebackend.services;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import com.example.drivebackend.dto.ResegmentationStatus;
+import com.example.drivebackend.entities.DeviceEntity;
+
+public interface TripSegmentationService {
+
+    /**
+     * Gap after which the next upload of the device starts a new trip.
+     *
+     * @param device The device, its {@code tripGapSeconds} overrides the configured default
+     */
+    Duration tripGap(DeviceEntity device);
+
+    /**
+     * Rebuild trip boundaries and aggregates from the hot telemetry in the background, in parallel across devices.
+     * Per device the new trips replace the old ones in one transaction; the currently open trip and trips with
+     * archived samples are left as they are. Only one run at a time.
+     *
+     * @param deviceIds Devices to process, all devices if empty
+     * @return Status right after the start
+     * @throws IllegalStateException if a run is already in progress
+     */
+    ResegmentationStatus startResegmentation(Collection<String> deviceIds);
+
+    /**
+     * Progress of the current or last run.
+     */
+    ResegmentationStatus status();
+}
@@ -0,0 +1,20 @@
+package com.example.drivebackend.services;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.example.drivebackend.series.TripSeries;
+
+public interface TripSeriesService {
+
+    /**
+     * Trips of the device that may have samples in the range, as columns of all their samples in start time
+     * order. Callers narrow them to the range with {@link TripSeries#samplesFrom} and {@link TripSeries#samplesTo}.
+     * Trips that ended within {@code app.trips.series.recent} come from the off-heap cache, older ones are
+     * read and converted per call.
+     *
+     * @param since Start of the range, null for open
+     * @param end End of the range, null for open
+     */
+    List<TripSeries> fetchTripSeries(String deviceId, Instant since, Instant end);
+}
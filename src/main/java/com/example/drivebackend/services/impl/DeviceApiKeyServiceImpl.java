@@ -0,0 +1,158 @@
+package com.example.drivebackend.services.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.repository.DeviceRepository;
+import com.example.drivebackend.services.DeviceApiKeyService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the SHA-256 of every per-device API key in memory, so the API key filter resolves the device with
+ * one hash and one map lookup. Keys are random 256-bit values, a fast hash is enough; the plain key is only
+ * returned once by {@link #issueKey(String)}.
+ * <p>
+ * Changes made by other instances are picked up by {@link #refresh()}, which only reads devices whose key
+ * changed since the last run ({@code api_key_updated_at}).
+ */
+@Service
+public class DeviceApiKeyServiceImpl implements DeviceApiKeyService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceApiKeyServiceImpl.class);
+    private static final int KEY_BYTES = 32;
+    // Überlappung beim Abgleich für Transaktionen, die beim letzten Lauf noch nicht committet waren
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final DeviceRepository deviceRepository;
+    private final SecureRandom random = new SecureRandom();
+
+    // SHA-256 (hex) -> Gerät
+    private final Map<String, IndexedKey> byHash = new ConcurrentHashMap<>();
+    // deviceId -> aktueller Stand, auch für widerrufene Keys (hash == null)
+    private final Map<String, IndexedKey> byDevice = new ConcurrentHashMap<>();
+    private volatile Instant watermark = Instant.EPOCH;
+
+    private record IndexedKey(String hash, byte[] digest, DeviceEntity device, Instant updatedAt) {}
+
+    public DeviceApiKeyServiceImpl(DeviceRepository deviceRepository) {
+        this.deviceRepository = deviceRepository;
+    }
+
+    // Vor dem Start des Webservers laden, sonst werden die ersten Uploads abgewiesen
+    @PostConstruct
+    public void load() {
+        Instant started = Instant.now();
+        deviceRepository.findAllByApiKeyHashIsNotNull().forEach(this::apply);
+        watermark = started;
+        log.info("Loaded {} device API keys", byHash.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.api-keys.refresh-interval:30s}", initialDelayString = "${app.api-keys.refresh-interval:30s}")
+    public void refresh() {
+        Instant started = Instant.now();
+        int changed = 0;
+        for (DeviceEntity device : deviceRepository.findAllByApiKeyUpdatedAtGreaterThanEqual(watermark.minus(REFRESH_OVERLAP))) {
+            if (apply(device)) {
+                changed++;
+            }
+        }
+        watermark = started;
+        if (changed > 0) {
+            log.info("Applied {} changed device API keys", changed);
+        }
+    }
+
+    @Override
+    public Optional<DeviceEntity> resolve(String apiKey) {
+        byte[] digest = sha256(apiKey);
+        IndexedKey indexed = byHash.get(HexFormat.of().formatHex(digest));
+        // Vergleich in konstanter Zeit, unabhängig davon wie viele Bytes übereinstimmen
+        if (indexed == null || !MessageDigest.isEqual(indexed.digest(), digest)) {
+            return Optional.empty();
+        }
+        return Optional.of(indexed.device());
+    }
+
+    @Override
+    @Transactional
+    public String issueKey(String deviceId) {
+        byte[] bytes = new byte[KEY_BYTES];
+        random.nextBytes(bytes);
+        String apiKey = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        DeviceEntity device = deviceRepository.findById(deviceId).orElseGet(() -> {
+            DeviceEntity newDevice = new DeviceEntity();
+            newDevice.setDeviceId(deviceId);
+            return newDevice;
+        });
+        device.setApiKeyHash(HexFormat.of().formatHex(sha256(apiKey)));
+        device.setApiKeyUpdatedAt(Instant.now());
+        apply(deviceRepository.saveAndFlush(device));
+        log.info("Issued new API key for device {}", deviceId);
+        return apiKey;
+    }
+
+    @Override
+    @Transactional
+    public boolean revokeKey(String deviceId) {
+        Optional<DeviceEntity> device = deviceRepository.findById(deviceId);
+        if (device.isEmpty()) {
+            return false;
+        }
+        device.get().setApiKeyHash(null);
+        device.get().setApiKeyUpdatedAt(Instant.now());
+        apply(deviceRepository.saveAndFlush(device.get()));
+        log.info("Revoked API key of device {}", deviceId);
+        return true;
+    }
+
+    /**
+     * Put the current key of the device into the index, unless the index already has a newer state.
+     *
+     * @return true if the index changed
+     */
+    private synchronized boolean apply(DeviceEntity device) {
+        String hash = device.getApiKeyHash();
+        Instant updatedAt = device.getApiKeyUpdatedAt() != null ? device.getApiKeyUpdatedAt() : Instant.EPOCH;
+        IndexedKey current = byDevice.get(device.getDeviceId());
+        if (current != null && (current.updatedAt().isAfter(updatedAt)
+                || current.updatedAt().equals(updatedAt) && Objects.equals(current.hash(), hash))) {
+            return false;
+        }
+        if (current != null && current.hash() != null) {
+            byHash.remove(current.hash(), current);
+        }
+        IndexedKey indexed = new IndexedKey(hash, hash != null ? HexFormat.of().parseHex(hash) : null, device, updatedAt);
+        byDevice.put(device.getDeviceId(), indexed);
+        if (hash != null) {
+            byHash.put(hash, indexed);
+        }
+        return true;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
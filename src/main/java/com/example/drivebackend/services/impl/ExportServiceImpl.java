@@ -0,0 +1,199 @@
+package com.example.drivebackend.services.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.drivebackend.dto.ExportFormat;
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.dto.TripResponse;
+import com.example.drivebackend.mapper.TelemetryMapper;
+import com.example.drivebackend.repository.TelemetrySampleRepository;
+import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.services.ExportService;
+import com.example.drivebackend.services.TelemetryArchiveService;
+import com.example.drivebackend.services.TelemetryCompactionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Instant MIN_TIME = Instant.EPOCH;
+    private static final Instant MAX_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private final TelemetrySampleRepository telemetrySampleRepository;
+    private final TripRepository tripRepository;
+    private final TelemetryCompactionService telemetryCompactionService;
+    private final TelemetryArchiveService telemetryArchiveService;
+
+    @Override
+    public void exportTelemetry(String deviceId, Instant since, Instant end, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<TelemetryResponse> samples = telemetrySampleRepository.streamAllByDeviceIdInRange(
+                deviceId, since != null ? since : MIN_TIME, end != null ? end : MAX_TIME)) {
+            // Kompaktierte Fahrten und archivierte Monate liegen nicht mehr in der Tabelle, alle Quellen sind nach Startzeit sortiert
+            Iterator<TelemetryResponse> iterator = mergeByStartTime(
+                    mergeByStartTime(samples.iterator(), telemetryCompactionService.iterateCompacted(deviceId, since, end)),
+                    telemetryArchiveService.iterateArchivedSegments(deviceId, since, end));
+            write(out, gzip, writer -> {
+                if (format == ExportFormat.NDJSON) {
+                    writeNdjson(writer, iterator);
+                    return;
+                }
+                writer.write("device_id,trip_id,sample_id,timestamp,source,metric,value\n");
+                while (iterator.hasNext()) {
+                    writeTelemetryCsv(writer, iterator.next());
+                }
+            });
+        }
+    }
+
+    @Override
+    public void exportTrips(String deviceId, Instant since, Instant end, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<TripResponse> trips = tripRepository.streamAllByDeviceIdInRange(
+                deviceId, since != null ? since : MIN_TIME, end != null ? end : MAX_TIME)) {
+            write(out, gzip, writer -> {
+                if (format == ExportFormat.NDJSON) {
+                    writeNdjson(writer, trips.iterator());
+                    return;
+                }
+                writer.write("id,device_id,start_time,end_time,start_location,end_location,note,trip_distance_km\n");
+                Iterator<TripResponse> iterator = trips.iterator();
+                while (iterator.hasNext()) {
+                    TripResponse trip = iterator.next();
+                    writeCsvRow(writer, trip.id(), trip.deviceId(), trip.startTime(), trip.endTime(),
+                            trip.startLocation(), trip.endLocation(), trip.note(), trip.trip_distance_km());
+                }
+            });
+        }
+    }
+
+    private interface RowWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    private static void write(OutputStream out, boolean gzip, RowWriter rows) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        rows.write(writer);
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+    }
+
+    private static <T> void writeNdjson(Writer writer, Iterator<T> rows) throws IOException {
+        try (SequenceWriter sequence = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static Iterator<TelemetryResponse> mergeByStartTime(Iterator<TelemetryResponse> first, Iterator<TelemetryResponse> second) {
+        return new Iterator<>() {
+
+            private TelemetryResponse nextFirst = first.hasNext() ? first.next() : null;
+            private TelemetryResponse nextSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextFirst != null || nextSecond != null;
+            }
+
+            @Override
+            public TelemetryResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                TelemetryResponse result;
+                if (nextSecond == null || (nextFirst != null && !nextFirst.start_time().isAfter(nextSecond.start_time()))) {
+                    result = nextFirst;
+                    nextFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    result = nextSecond;
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+                return result;
+            }
+        };
+    }
+
+    // timed_data: {"<epoch2000>": {"speed": 23, "rpm": 1085}} -> eine Zeile pro Messwert
+    private static void writeTelemetryCsv(Writer writer, TelemetryResponse sample) throws IOException {
+        if (sample.timed_data() != null) {
+            for (Map.Entry<String, Object> point : sample.timed_data().entrySet()) {
+                if (!(point.getValue() instanceof Map<?, ?> metrics)) {
+                    continue;
+                }
+                Object timestamp = toInstant(point.getKey());
+                for (Map.Entry<?, ?> metric : metrics.entrySet()) {
+                    writeCsvRow(writer, sample.deviceId(), sample.tripId(), sample.id(), timestamp, "timed", metric.getKey(), metric.getValue());
+                }
+            }
+        }
+        if (sample.aggregated_data() != null) {
+            for (Map.Entry<String, Object> metric : sample.aggregated_data().entrySet()) {
+                writeCsvRow(writer, sample.deviceId(), sample.tripId(), sample.id(), sample.start_time(), "aggregated", metric.getKey(), metric.getValue());
+            }
+        }
+    }
+
+    private static Object toInstant(String epoch2000Seconds) {
+        try {
+            return Instant.ofEpochSecond(Long.parseLong(epoch2000Seconds) + TelemetryMapper.EPOCH_2000_OFFSET_SECONDS);
+        } catch (NumberFormatException e) {
+            return epoch2000Seconds;
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write('\n');
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
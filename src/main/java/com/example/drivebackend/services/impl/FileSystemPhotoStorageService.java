@@ -0,0 +1,133 @@
+package com.example.drivebackend.services.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.example.drivebackend.services.PhotoStorageService;
+
+/**
+ * Content-addressed blob store on local disk.
+ * Blobs live under {@code <dir>/<first two hash chars>/<sha256>} and are never modified after being written,
+ * so identical uploads share one file and the hash doubles as a strong ETag.
+ * Derived variants such as thumbnails are stored next to their original as {@code <sha256>_<variant>}.
+ */
+@Service
+public class FileSystemPhotoStorageService implements PhotoStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemPhotoStorageService.class);
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT_NAME = Pattern.compile("[0-9a-z]+\\.[a-z]+");
+
+    private final Path baseDir;
+
+    public FileSystemPhotoStorageService(@Value("${app.photos.dir:./data/photos}") String baseDir) throws IOException {
+        this.baseDir = Path.of(baseDir).toAbsolutePath().normalize();
+        Files.createDirectories(this.baseDir);
+    }
+
+    @Override
+    public String store(InputStream content) throws IOException {
+        Path tmp = Files.createTempFile(baseDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                content.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+            if (Files.exists(target)) {
+                log.debug("Photo {} already stored, skipping write", hash);
+                return hash;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException e) {
+                // concurrent upload of the same content won the race
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public String store(byte[] content) throws IOException {
+        return store(new ByteArrayInputStream(content));
+    }
+
+    @Override
+    public Optional<Resource> load(String hash) {
+        if (hash == null || !SHA256_HEX.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = resolve(hash);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public void storeVariant(String hash, String variant, byte[] content) throws IOException {
+        Path target = resolveVariant(hash, variant)
+                .orElseThrow(() -> new IllegalArgumentException("Ungültige Variante: " + hash + "/" + variant));
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(baseDir, "variant-", ".tmp");
+        try {
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> loadVariant(String hash, String variant) {
+        return resolveVariant(hash, variant)
+                .filter(Files::isRegularFile)
+                .map(FileSystemResource::new);
+    }
+
+    private Optional<Path> resolveVariant(String hash, String variant) {
+        if (hash == null || !SHA256_HEX.matcher(hash).matches() || variant == null || !VARIANT_NAME.matcher(variant).matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(resolve(hash).resolveSibling(hash + "_" + variant));
+    }
+
+    private Path resolve(String hash) {
+        return baseDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
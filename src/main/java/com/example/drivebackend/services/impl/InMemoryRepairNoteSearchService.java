@@ -0,0 +1,155 @@
+package com.example.drivebackend.services.impl;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.drivebackend.entities.RepairNoteEntity;
+import com.example.drivebackend.repository.RepairNoteRepository;
+import com.example.drivebackend.services.RepairNoteSearchService;
+
+/**
+ * In-process inverted index over {@code noteText}, used when the database has no native full-text search (H2).
+ * Terms are lower-cased and reduced by a light German suffix stemmer; query terms match as prefixes,
+ * so "Bremsen" also finds "Bremse" and "Bremsbeläge".
+ */
+public class InMemoryRepairNoteSearchService implements RepairNoteSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryRepairNoteSearchService.class);
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final String[] SUFFIXES = {"en", "er", "es", "e", "n", "s"};
+
+    private final RepairNoteRepository repairNoteRepository;
+
+    // term -> note IDs
+    private final NavigableMap<String, Set<UUID>> postings = new ConcurrentSkipListMap<>();
+    private final Map<UUID, IndexedNote> notes = new ConcurrentHashMap<>();
+
+    private record IndexedNote(String deviceId, LocalDate noteDate, Set<String> terms) {}
+
+    public InMemoryRepairNoteSearchService(RepairNoteRepository repairNoteRepository) {
+        this.repairNoteRepository = repairNoteRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Pageable pageable = PageRequest.of(0, REBUILD_CHUNK_SIZE);
+        Page<RepairNoteEntity> page;
+        do {
+            page = repairNoteRepository.findAll(pageable);
+            page.forEach(this::index);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        log.info("Built repair note search index with {} notes and {} terms", notes.size(), postings.size());
+    }
+
+    @Override
+    public Page<RepairNoteEntity> search(String deviceId, String query, Pageable pageable) {
+        Set<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Set<UUID> matches = null;
+        for (String term : queryTerms) {
+            Set<UUID> termMatches = new HashSet<>();
+            postings.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(termMatches::addAll);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.retainAll(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+
+        List<UUID> sortedIds = matches.stream()
+                .filter(id -> {
+                    IndexedNote note = notes.get(id);
+                    return note != null && note.deviceId().equals(deviceId);
+                })
+                .sorted(Comparator.comparing((UUID id) -> notes.get(id).noteDate()).reversed())
+                .toList();
+
+        List<UUID> pageIds = sortedIds;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), sortedIds.size());
+            int to = Math.min(from + pageable.getPageSize(), sortedIds.size());
+            pageIds = sortedIds.subList(from, to);
+        }
+
+        Map<UUID, RepairNoteEntity> loaded = repairNoteRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(RepairNoteEntity::getId, Function.identity()));
+        List<RepairNoteEntity> content = pageIds.stream().map(loaded::get).filter(note -> note != null).toList();
+        return new PageImpl<>(content, pageable, sortedIds.size());
+    }
+
+    @Override
+    public synchronized void index(RepairNoteEntity note) {
+        remove(note.getId());
+        Set<String> terms = tokenize(note.getNoteText());
+        notes.put(note.getId(), new IndexedNote(note.getDeviceId(), note.getNoteDate(), terms));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, ignored -> ConcurrentHashMap.newKeySet()).add(note.getId());
+        }
+    }
+
+    @Override
+    public synchronized void remove(UUID noteId) {
+        IndexedNote previous = notes.remove(noteId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Set<UUID> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(noteId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.GERMAN).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    private static String stem(String token) {
+        for (String suffix : SUFFIXES) {
+            if (token.length() - suffix.length() >= 4 && token.endsWith(suffix)) {
+                return token.substring(0, token.length() - suffix.length());
+            }
+        }
+        return token;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.drivebackend.services.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.drivebackend.services.ProfilingService;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+@Service
+public class JfrProfilingServiceImpl implements ProfilingService {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrProfilingServiceImpl.class);
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    public Recording startRecording(Duration duration, String settings) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName("drivebackend-on-demand");
+            recording.setToDisk(true);
+            recording.setDuration(duration);
+            recording.start();
+            log.info("Started JFR recording ({}, {})", settings, duration);
+            return recording;
+        } catch (ParseException e) {
+            running.set(false);
+            throw new IOException("Invalid JFR settings " + settings, e);
+        } catch (IOException | RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    @Override
+    public Path awaitAndDump(Recording recording) throws IOException, InterruptedException {
+        try {
+            Instant stopAt = recording.getStartTime().plus(recording.getDuration());
+            long remaining = Duration.between(Instant.now(), stopAt).toMillis();
+            if (remaining > 0) {
+                Thread.sleep(remaining);
+            }
+            Path file = Files.createTempFile("drivebackend-", ".jfr");
+            // Mit gesetzter Dauer stoppt JFR die Aufnahme selbst, dump() schreibt auch eine noch laufende
+            recording.dump(file);
+            log.info("JFR recording written ({} bytes)", Files.size(file));
+            return file;
+        } finally {
+            recording.close();
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.drivebackend.services.impl;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.example.drivebackend.services.PhotoStorageService;
+import com.example.drivebackend.services.PhotoThumbnailService;
+
+@Service
+public class PhotoThumbnailServiceImpl implements PhotoThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoThumbnailServiceImpl.class);
+
+    private final PhotoStorageService photoStorageService;
+    private final long maxPixels;
+    // Fotos über dem Pixel-Limit, damit nicht jeder Abruf der fehlenden Varianten sie erneut liest
+    private final Set<String> tooLarge = ConcurrentHashMap.newKeySet();
+
+    public PhotoThumbnailServiceImpl(PhotoStorageService photoStorageService,
+                                     @Value("${app.photos.max-pixels:40000000}") long maxPixels) {
+        this.photoStorageService = photoStorageService;
+        this.maxPixels = maxPixels;
+    }
+
+    @Override
+    @Async
+    public CompletableFuture<Void> generateVariants(String hash, String contentType) {
+        if (!supports(contentType) || tooLarge.contains(hash)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Optional<Resource> original = photoStorageService.load(hash);
+        if (original.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        try {
+            byte[] originalBytes;
+            try (InputStream in = original.get().getInputStream()) {
+                originalBytes = in.readAllBytes();
+            }
+            BufferedImage image = decode(hash, originalBytes);
+            if (image == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            boolean jpeg = MediaType.IMAGE_JPEG_VALUE.equals(contentType);
+            boolean sameFormat = variantContentType(contentType).equals(contentType);
+            for (int size : VARIANT_SIZES) {
+                String variant = variantName(size, contentType);
+                if (photoStorageService.loadVariant(hash, variant).isPresent()) {
+                    continue;
+                }
+                BufferedImage scaled = scale(image, size, jpeg);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(scaled, jpeg ? "jpg" : "png", out);
+                // Kleine Originale würden durch Neukodierung nur größer werden
+                byte[] encoded = sameFormat && out.size() >= originalBytes.length ? originalBytes : out.toByteArray();
+                photoStorageService.storeVariant(hash, variant, encoded);
+            }
+            log.debug("Generated variants {} for photo {}", VARIANT_SIZES, hash);
+        } catch (IOException e) {
+            log.warn("Could not generate variants for photo {}", hash, e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public Optional<Integer> resolveVariantSize(int requestedSize) {
+        return VARIANT_SIZES.stream().filter(size -> size >= requestedSize).findFirst();
+    }
+
+    @Override
+    public boolean supports(String contentType) {
+        return MediaType.IMAGE_JPEG_VALUE.equals(contentType)
+                || MediaType.IMAGE_PNG_VALUE.equals(contentType)
+                || MediaType.IMAGE_GIF_VALUE.equals(contentType);
+    }
+
+    @Override
+    public String variantName(int size, String contentType) {
+        return size + (MediaType.IMAGE_JPEG_VALUE.equals(contentType) ? ".jpg" : ".png");
+    }
+
+    @Override
+    public String variantContentType(String contentType) {
+        return MediaType.IMAGE_JPEG_VALUE.equals(contentType) ? MediaType.IMAGE_JPEG_VALUE : MediaType.IMAGE_PNG_VALUE;
+    }
+
+    // Abmessungen aus dem Header lesen, bevor dekodiert wird: ein kleines PNG kann Gigapixel groß sein
+    private BufferedImage decode(String hash, byte[] originalBytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(originalBytes))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                log.debug("Photo {} could not be decoded, no variants generated", hash);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Photo {} has {}x{} pixels, more than app.photos.max-pixels ({}), no variants generated",
+                            hash, width, height, maxPixels);
+                    tooLarge.add(hash);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Verkleinert schrittweise um max. Faktor 2, damit auch große Fotos ohne Aliasing skaliert werden
+    private static BufferedImage scale(BufferedImage source, int maxEdge, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        double factor = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+}
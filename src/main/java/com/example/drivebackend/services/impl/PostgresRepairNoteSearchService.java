@@ -0,0 +1,37 @@
+package com.example.drivebackend.services.impl;
+
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.example.drivebackend.entities.RepairNoteEntity;
+import com.example.drivebackend.repository.RepairNoteRepository;
+import com.example.drivebackend.services.RepairNoteSearchService;
+
+/**
+ * Full-text search via PostgreSQL tsvector and the GIN expression index {@code idx_repair_note_fts}
+ * (created by migration V3). The index is maintained by the database itself, so
+ * {@link #index(RepairNoteEntity)} and {@link #remove(UUID)} are no-ops.
+ */
+public class PostgresRepairNoteSearchService implements RepairNoteSearchService {
+
+    private final RepairNoteRepository repairNoteRepository;
+
+    public PostgresRepairNoteSearchService(RepairNoteRepository repairNoteRepository) {
+        this.repairNoteRepository = repairNoteRepository;
+    }
+
+    @Override
+    public Page<RepairNoteEntity> search(String deviceId, String query, Pageable pageable) {
+        return repairNoteRepository.searchFullText(deviceId, query, pageable);
+    }
+
+    @Override
+    public void index(RepairNoteEntity note) {
+    }
+
+    @Override
+    public void remove(UUID noteId) {
+    }
+}
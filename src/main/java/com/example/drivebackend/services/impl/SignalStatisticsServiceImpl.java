@@ -0,0 +1,265 @@
+package com.example.drivebackend.services.impl;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.drivebackend.dto.DrivingBehaviourResponse;
+import com.example.drivebackend.dto.DrivingEvent;
+import com.example.drivebackend.dto.HistogramBucket;
+import com.example.drivebackend.dto.SignalHistogramResponse;
+import com.example.drivebackend.dto.SignalPercentilesResponse;
+import com.example.drivebackend.dto.SignalStatisticsResponse;
+import com.example.drivebackend.dto.SignalSummary;
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.entities.DeviceSignalStatsEntity;
+import com.example.drivebackend.entities.TelemetryEntity;
+import com.example.drivebackend.entities.TripEntity;
+import com.example.drivebackend.entities.TripSignalDataEntity;
+import com.example.drivebackend.mapper.TelemetryMapper;
+import com.example.drivebackend.repository.DeviceSignalStatsRepository;
+import com.example.drivebackend.repository.TelemetrySampleRepository;
+import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.repository.TripSignalDataRepository;
+import com.example.drivebackend.services.SignalStatisticsService;
+import com.example.drivebackend.services.TelemetryArchiveService;
+import com.example.drivebackend.stats.DrivingBehaviour;
+import com.example.drivebackend.stats.DrivingBehaviour.EventType;
+import com.example.drivebackend.stats.MovingTimeMetric;
+import com.example.drivebackend.stats.RunningStats;
+import com.example.drivebackend.stats.SignalSketches;
+import com.example.drivebackend.stats.SignalStatistics;
+import com.example.drivebackend.stats.SignalStatisticsEngine;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SignalStatisticsServiceImpl implements SignalStatisticsService {
+
+    private static final Instant MIN_TIME = Instant.EPOCH;
+    private static final Instant MAX_TIME = Instant.parse("9999-12-31T23:59:59Z");
+    // Zu schmale Buckets werden verbreitert, statt zehntausende leere Buckets auszuliefern
+    private static final int MAX_BUCKETS = 1000;
+
+    private final SignalStatisticsEngine engine;
+    private final TripRepository tripRepository;
+    private final DeviceSignalStatsRepository deviceSignalStatsRepository;
+    private final TripSignalDataRepository tripSignalDataRepository;
+    private final TelemetrySampleRepository telemetrySampleRepository;
+    private final TelemetryArchiveService telemetryArchiveService;
+
+    /**
+     * Merged sketch of one signal and how many trips went into it.
+     */
+    private record Merged(Histogram histogram, int trips, int tripsWithoutSketch) {}
+
+    @Override
+    @Transactional
+    public void record(DeviceEntity device, TripEntity trip, TelemetryEntity sample) {
+        if (sample.getTimed_data() == null || sample.getTimed_data().isEmpty()) {
+            return;
+        }
+        // Eigene Zeile statt DeviceEntity: das Gerät kommt evtl. abgekoppelt aus dem API-Key-Index und liegt im L2-Cache.
+        // Uploads eines Geräts kommen nacheinander, parallele Uploads desselben Geräts können sich wie bei der Fahrt überschreiben
+        DeviceSignalStatsEntity deviceStats = deviceSignalStatsRepository.findById(device.getDeviceId())
+                .orElseGet(() -> {
+                    DeviceSignalStatsEntity created = new DeviceSignalStatsEntity();
+                    created.setDeviceId(device.getDeviceId());
+                    return created;
+                });
+
+        // Die Fahrt ist vom Ingest gesperrt, ihre Zeile hier wird damit ebenfalls nur nacheinander fortgeschrieben
+        TripSignalDataEntity tripData = signalData(trip.getId());
+
+        SignalStatistics tripStatistics = SignalStatistics.decode(tripData.getSignalStats());
+        SignalStatistics deviceStatistics = SignalStatistics.decode(deviceStats.getSignalStats());
+        SignalSketches tripSketches = engine.sketches(tripData.getSignalSketches());
+        DrivingBehaviour behaviour = DrivingBehaviour.decode(tripData.getDrivingBehaviour());
+        engine.accept(sample.getTimed_data(), List.of(tripStatistics, deviceStatistics), List.of(tripSketches), behaviour);
+
+        tripData.setSignalStats(tripStatistics.encode());
+        tripData.setSignalSketches(tripSketches.encode());
+        applyBehaviour(engine, trip, tripData, behaviour);
+        tripSignalDataRepository.save(tripData);
+        deviceStats.setSignalStats(deviceStatistics.encode());
+        deviceSignalStatsRepository.save(deviceStats);
+    }
+
+    @Override
+    public Optional<SignalStatisticsResponse> tripStatistics(String deviceId, UUID tripId) {
+        return findTrip(deviceId, tripId).map(trip -> {
+            byte[] stats = tripSignalDataRepository.findById(tripId).map(TripSignalDataEntity::getSignalStats).orElse(null);
+            SignalStatistics statistics;
+            if (stats != null) {
+                statistics = SignalStatistics.decode(stats);
+            } else {
+                statistics = new SignalStatistics();
+                replaySamples(trip, List.of(statistics), List.of(), null);
+            }
+            return toResponse(deviceId, tripId, statistics);
+        });
+    }
+
+    @Override
+    public Optional<SignalStatisticsResponse> deviceStatistics(String deviceId) {
+        return deviceSignalStatsRepository.findById(deviceId)
+                .map(stats -> toResponse(deviceId, null, SignalStatistics.decode(stats.getSignalStats())));
+    }
+
+    @Override
+    public Optional<DrivingBehaviourResponse> tripBehaviour(String deviceId, UUID tripId) {
+        return findTrip(deviceId, tripId).map(trip -> {
+            byte[] stored = tripSignalDataRepository.findById(tripId).map(TripSignalDataEntity::getDrivingBehaviour).orElse(null);
+            DrivingBehaviour behaviour;
+            if (stored != null) {
+                behaviour = DrivingBehaviour.decode(stored);
+            } else {
+                behaviour = new DrivingBehaviour();
+                replaySamples(trip, List.of(), List.of(), behaviour);
+            }
+            List<DrivingEvent> events = behaviour.events().stream()
+                    .map(event -> new DrivingEvent(event.type().name(),
+                            Instant.ofEpochSecond(event.epochSecond() + TelemetryMapper.EPOCH_2000_OFFSET_SECONDS),
+                            event.durationSeconds(), event.peak()))
+                    .toList();
+            return new DrivingBehaviourResponse(deviceId, tripId, engine.detector().score(behaviour),
+                    behaviour.count(EventType.HARSH_ACCELERATION), behaviour.count(EventType.HARSH_BRAKING),
+                    behaviour.count(EventType.OVER_REV), behaviour.drivingSeconds(), events);
+        });
+    }
+
+    // Zähler und Score als Spalten der Fahrt, der ganze Zustand als Blob daneben; auch für die Neu-Segmentierung
+    static void applyBehaviour(SignalStatisticsEngine engine, TripEntity trip, TripSignalDataEntity data, DrivingBehaviour behaviour) {
+        data.setDrivingBehaviour(behaviour.encode());
+        trip.setHarsh_acceleration_count(behaviour.count(EventType.HARSH_ACCELERATION));
+        trip.setHarsh_braking_count(behaviour.count(EventType.HARSH_BRAKING));
+        trip.setOver_rev_count(behaviour.count(EventType.OVER_REV));
+        trip.setDriving_score(engine.detector().score(behaviour));
+    }
+
+    @Override
+    public boolean hasSketch(String signal) {
+        return engine.hasSketch(signal);
+    }
+
+    @Override
+    public Optional<SignalPercentilesResponse> percentiles(String deviceId, UUID tripId, Instant since, Instant end, String signal, List<Double> percentiles) {
+        return merge(deviceId, tripId, since, end, signal).map(merged -> {
+            Histogram histogram = merged.histogram();
+            Map<String, Long> values = new LinkedHashMap<>();
+            if (histogram.getTotalCount() > 0) {
+                for (double percentile : percentiles) {
+                    values.put(BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(), histogram.getValueAtPercentile(percentile));
+                }
+            }
+            return new SignalPercentilesResponse(deviceId, tripId, signal, since, end, merged.trips(), merged.tripsWithoutSketch(),
+                    histogram.getTotalCount(), histogram.getMinValue(), histogram.getMaxValue(),
+                    histogram.getTotalCount() > 0 ? histogram.getMean() : 0, values);
+        });
+    }
+
+    @Override
+    public Optional<SignalHistogramResponse> histogram(String deviceId, UUID tripId, Instant since, Instant end, String signal, long bucketWidth) {
+        return merge(deviceId, tripId, since, end, signal).map(merged -> {
+            Histogram histogram = merged.histogram();
+            List<HistogramBucket> buckets = new ArrayList<>();
+            if (histogram.getTotalCount() > 0) {
+                long width = Math.max(bucketWidth, Math.ceilDiv(histogram.getMaxValue() + 1, MAX_BUCKETS));
+                for (HistogramIterationValue step : histogram.linearBucketValues(width)) {
+                    long to = step.getValueIteratedTo();
+                    buckets.add(new HistogramBucket(to - width + 1, to, step.getCountAddedInThisIterationStep()));
+                }
+            }
+            return new SignalHistogramResponse(deviceId, tripId, signal, since, end, merged.trips(), merged.tripsWithoutSketch(),
+                    histogram.getTotalCount(), buckets);
+        });
+    }
+
+    // Pro Fahrt nur ein paar hundert Bytes der Sketch-Spalte, unabhängig von der Zahl der Samples darunter
+    private Optional<Merged> merge(String deviceId, UUID tripId, Instant since, Instant end, String signal) {
+        Histogram merged = SignalSketches.newHistogram(engine.sketchPrecision());
+        if (tripId != null) {
+            return findTrip(deviceId, tripId).map(trip -> {
+                byte[] stored = tripSignalDataRepository.findById(tripId).map(TripSignalDataEntity::getSignalSketches).orElse(null);
+                Histogram sketch;
+                if (stored != null) {
+                    sketch = SignalSketches.decodeSignal(stored, signal);
+                } else {
+                    SignalSketches sketches = engine.sketches(null);
+                    replaySamples(trip, List.of(), List.of(sketches), null);
+                    sketch = sketches.sketches().get(signal);
+                }
+                if (sketch != null) {
+                    merged.add(sketch);
+                }
+                return new Merged(merged, 1, 0);
+            });
+        }
+
+        List<byte[]> sketches = tripRepository.findSignalSketchesInRange(deviceId, since != null ? since : MIN_TIME, end != null ? end : MAX_TIME);
+        int withoutSketch = 0;
+        for (byte[] data : sketches) {
+            if (data == null) {
+                withoutSketch++;
+                continue;
+            }
+            Histogram sketch = SignalSketches.decodeSignal(data, signal);
+            if (sketch != null) {
+                merged.add(sketch);
+            }
+        }
+        return Optional.of(new Merged(merged, sketches.size() - withoutSketch, withoutSketch));
+    }
+
+    private Optional<TripEntity> findTrip(String deviceId, UUID tripId) {
+        return tripRepository.findById(tripId).filter(trip -> trip.getDevice().getDeviceId().equals(deviceId));
+    }
+
+    // Neu angelegt bei neuen Fahrten und solchen von vor den Statistiken
+    private TripSignalDataEntity signalData(UUID tripId) {
+        return tripSignalDataRepository.findById(tripId).orElseGet(() -> {
+            TripSignalDataEntity created = new TripSignalDataEntity();
+            created.setTripId(tripId);
+            return created;
+        });
+    }
+
+    // Fahrten von vor den Statistiken: einmal über Archiv und Tabelle rechnen (wird nicht gespeichert, Lesetransaktion)
+    private void replaySamples(TripEntity trip, List<SignalStatistics> statistics, List<SignalSketches> sketches, DrivingBehaviour behaviour) {
+        String deviceId = trip.getDevice().getDeviceId();
+        for (TelemetryResponse sample : telemetryArchiveService.readArchived(deviceId, trip.getId(), trip.getStartTime(), trip.getEndTime())) {
+            engine.accept(sample.timed_data(), statistics, sketches, behaviour);
+        }
+        for (TelemetryEntity sample : telemetrySampleRepository.findAllByDevice_DeviceIdAndTrip_IdOrderByStartTimeAsc(deviceId, trip.getId())) {
+            engine.accept(sample.getTimed_data(), statistics, sketches, behaviour);
+        }
+    }
+
+    private static SignalStatisticsResponse toResponse(String deviceId, UUID tripId, SignalStatistics statistics) {
+        Map<String, SignalSummary> signals = new LinkedHashMap<>();
+        statistics.signals().forEach((name, stats) -> signals.put(name, new SignalSummary(
+                stats.count(),
+                stats.mean(),
+                stats.stddev(),
+                stats.min(),
+                stats.max(),
+                stats.timeWeightedMean(),
+                stats.durationSeconds())));
+        RunningStats moving = statistics.signals().get(MovingTimeMetric.SIGNAL);
+        long movingSeconds = moving != null ? Math.round(moving.integral()) : 0;
+        return new SignalStatisticsResponse(deviceId, tripId, movingSeconds, signals);
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.drivebackend.services.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.entities.TelemetryChunkEntity;
+import com.example.drivebackend.entities.TelemetrySegmentEntity;
+import com.example.drivebackend.repository.TelemetryChunkRepository;
+import com.example.drivebackend.repository.TelemetrySampleRepository;
+import com.example.drivebackend.repository.TelemetrySegmentRepository;
+import com.example.drivebackend.services.TelemetryArchiveService;
+import com.example.drivebackend.services.TelemetryPartitionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Cold tier for telemetry. Complete months older than the hot age are written to immutable
+ * {@code <dir>/<device>/<yyyy-MM>-<n>.ndjson.gz} files (one TelemetryResponse per line) and removed from the
+ * telemetry table; a {@link TelemetrySegmentEntity} row per file keeps the time range for read-through.
+ * With a partitioned telemetry table whole month partitions are dropped instead of deleting rows. Compacted
+ * chunks ({@link TelemetryChunkEntity}) are read through here as well and go into the segment of the month they
+ * start in.
+ */
+@Service
+public class TelemetryArchiveServiceImpl implements TelemetryArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryArchiveServiceImpl.class);
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private static final Instant MIN_TIME = Instant.EPOCH;
+    private static final Instant MAX_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private final TelemetrySampleRepository telemetrySampleRepository;
+    private final TelemetrySegmentRepository telemetrySegmentRepository;
+    private final TelemetryChunkRepository telemetryChunkRepository;
+    private final TelemetryPartitionService telemetryPartitionService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path baseDir;
+
+    public TelemetryArchiveServiceImpl(TelemetrySampleRepository telemetrySampleRepository,
+                                       TelemetrySegmentRepository telemetrySegmentRepository,
+                                       TelemetryChunkRepository telemetryChunkRepository,
+                                       TelemetryPartitionService telemetryPartitionService,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.retention.dir:./data/telemetry-archive}") String baseDir) {
+        this.telemetrySampleRepository = telemetrySampleRepository;
+        this.telemetrySegmentRepository = telemetrySegmentRepository;
+        this.telemetryChunkRepository = telemetryChunkRepository;
+        this.telemetryPartitionService = telemetryPartitionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.baseDir = Path.of(baseDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public int archiveBefore(Instant cutoff) {
+        YearMonth cutoffMonth = YearMonth.from(cutoff.atZone(ZoneOffset.UTC));
+        Instant monthCutoff = monthStart(cutoffMonth);
+
+        int archived = 0;
+
+        // Partitionierte Tabelle: ganze Monatspartitionen archivieren und droppen statt Zeilen zu löschen
+        for (YearMonth month : telemetryPartitionService.listPartitions()) {
+            if (!month.isBefore(cutoffMonth)) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> archivePartition(month));
+            archived += count != null ? count : 0;
+        }
+
+        // Übrige Zeilen (unpartitioniert oder Nachzügler in der Default-Partition) einzeln löschen, dazu Geräte mit alten Chunks
+        Map<String, Instant> oldest = new LinkedHashMap<>();
+        for (TelemetrySampleRepository.DeviceOldestSample device : telemetrySampleRepository.findDevicesWithTelemetryBefore(monthCutoff)) {
+            oldest.put(device.getDeviceId(), device.getOldestStartTime());
+        }
+        for (TelemetrySampleRepository.DeviceOldestSample device : telemetryChunkRepository.findDevicesWithChunksBefore(monthCutoff)) {
+            oldest.merge(device.getDeviceId(), device.getOldestStartTime(), (a, b) -> a.isBefore(b) ? a : b);
+        }
+        for (Map.Entry<String, Instant> device : oldest.entrySet()) {
+            YearMonth month = YearMonth.from(device.getValue().atZone(ZoneOffset.UTC));
+            for (; month.isBefore(cutoffMonth); month = month.plusMonths(1)) {
+                YearMonth current = month;
+                Integer count = transactionTemplate.execute(status -> archiveMonth(device.getKey(), current, true));
+                archived += count != null ? count : 0;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} telemetry samples older than {}", archived, monthCutoff);
+        }
+        return archived;
+    }
+
+    @Override
+    public List<TelemetryResponse> readArchived(String deviceId, UUID tripId, Instant since, Instant end) {
+        Instant from = since != null ? since : MIN_TIME;
+        Instant to = end != null ? end : MAX_TIME;
+        List<TelemetrySegmentEntity> segments = telemetrySegmentRepository.findOverlapping(deviceId, from, to);
+        List<TelemetryChunkEntity> chunks = tripId != null
+                ? telemetryChunkRepository.findOverlappingByTrip(deviceId, tripId, from, to)
+                : telemetryChunkRepository.findOverlapping(deviceId, from, to);
+        if (segments.isEmpty() && chunks.isEmpty()) {
+            return List.of();
+        }
+
+        List<TelemetryResponse> result = new ArrayList<>();
+        for (TelemetryChunkEntity chunk : chunks) {
+            for (TelemetryResponse sample : TelemetryChunkCodec.decode(chunk.getData())) {
+                if (!sample.start_time().isBefore(from) && !sample.start_time().isAfter(to)) {
+                    result.add(sample);
+                }
+            }
+        }
+        for (TelemetrySegmentEntity segment : segments) {
+            readSegment(segment, tripId, from, to, result::add);
+        }
+        // Segmente für denselben Monat (Nachzügler) und Chunks können sich zeitlich überlappen
+        result.sort(Comparator.comparing(TelemetryResponse::start_time));
+        return result;
+    }
+
+    @Override
+    public Iterator<TelemetryResponse> iterateArchivedSegments(String deviceId, Instant since, Instant end) {
+        Instant from = since != null ? since : MIN_TIME;
+        Instant to = end != null ? end : MAX_TIME;
+        List<TelemetrySegmentEntity> segments = telemetrySegmentRepository.findOverlapping(deviceId, from, to);
+        return new Iterator<>() {
+
+            private final PriorityQueue<TelemetryResponse> pending = new PriorityQueue<>(Comparator.comparing(TelemetryResponse::start_time));
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                // Nachzügler-Segmente überlappen ihren Monat: jedes laden, das vor dem frühesten offenen Sample beginnt
+                while (next < segments.size()
+                        && (pending.isEmpty() || !segments.get(next).getMinStartTime().isAfter(pending.peek().start_time()))) {
+                    readSegment(segments.get(next++), null, from, to, pending::add);
+                }
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public TelemetryResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return pending.poll();
+            }
+        };
+    }
+
+    private void readSegment(TelemetrySegmentEntity segment, UUID tripId, Instant from, Instant to, Consumer<TelemetryResponse> target) {
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(baseDir.resolve(segment.getFileName()))));
+             MappingIterator<TelemetryResponse> samples = objectMapper.readerFor(TelemetryResponse.class).readValues(in)) {
+            while (samples.hasNext()) {
+                TelemetryResponse sample = samples.next();
+                if (sample.start_time().isBefore(from) || sample.start_time().isAfter(to)) {
+                    continue;
+                }
+                if (tripId != null && !tripId.equals(sample.tripId())) {
+                    continue;
+                }
+                target.accept(sample);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Telemetrie-Segment " + segment.getFileName() + " nicht lesbar", e);
+        }
+    }
+
+    private int archivePartition(YearMonth month) {
+        telemetryPartitionService.lockPartition(month);
+        int archived = 0;
+        for (String deviceId : telemetrySampleRepository.findDeviceIdsInRange(monthStart(month), monthStart(month.plusMonths(1)))) {
+            archived += archiveMonth(deviceId, month, false);
+        }
+        telemetryPartitionService.dropPartition(month);
+        return archived;
+    }
+
+    private int archiveMonth(String deviceId, YearMonth month, boolean deleteRows) {
+        Instant from = monthStart(month);
+        // Abfrage ist inklusiv, Postgres speichert Mikrosekunden
+        Instant to = monthStart(month.plusMonths(1)).minus(1, ChronoUnit.MICROS);
+
+        long existingSegments = telemetrySegmentRepository.countByDeviceIdAndMonthStart(deviceId, from);
+        Path target = segmentPath(deviceId, month, existingSegments);
+        List<UUID> archivedIds = new ArrayList<>();
+        List<TelemetryChunkEntity> chunks = telemetryChunkRepository.findStartingInRange(deviceId, from, to);
+        int archivedChunkSamples = 0;
+        Instant minStart = null;
+        Instant maxStart = null;
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), "segment-", ".tmp");
+            try {
+                try (Stream<TelemetryResponse> samples = telemetrySampleRepository.streamAllByDeviceIdInRange(deviceId, from, to);
+                     OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)), 64 * 1024);
+                     SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                    Iterator<TelemetryResponse> iterator = samples.iterator();
+                    while (iterator.hasNext()) {
+                        TelemetryResponse sample = iterator.next();
+                        writer.write(sample);
+                        archivedIds.add(sample.id());
+                        if (minStart == null) {
+                            minStart = sample.start_time();
+                        }
+                        maxStart = sample.start_time();
+                    }
+                    for (TelemetryChunkEntity chunk : chunks) {
+                        for (TelemetryResponse sample : TelemetryChunkCodec.decode(chunk.getData())) {
+                            writer.write(sample);
+                            archivedChunkSamples++;
+                            minStart = minStart == null || sample.start_time().isBefore(minStart) ? sample.start_time() : minStart;
+                            maxStart = maxStart == null || sample.start_time().isAfter(maxStart) ? sample.start_time() : maxStart;
+                        }
+                    }
+                }
+                if (archivedIds.isEmpty() && archivedChunkSamples == 0) {
+                    return 0;
+                }
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Telemetrie-Segment " + target + " konnte nicht geschrieben werden", e);
+        }
+
+        TelemetrySegmentEntity segment = new TelemetrySegmentEntity();
+        segment.setDeviceId(deviceId);
+        segment.setMonthStart(from);
+        segment.setMinStartTime(minStart);
+        segment.setMaxStartTime(maxStart);
+        segment.setSampleCount(archivedIds.size() + archivedChunkSamples);
+        segment.setFileName(baseDir.relativize(target).toString());
+        segment.setSizeBytes(target.toFile().length());
+        segment.setCreatedAt(Instant.now());
+        telemetrySegmentRepository.save(segment);
+
+        // Chunks liegen nie in einer Partition und werden immer gelöscht
+        if (!chunks.isEmpty()) {
+            telemetryChunkRepository.deleteAllByIdIn(chunks.stream().map(TelemetryChunkEntity::getId).toList());
+        }
+
+        if (!deleteRows) {
+            return archivedIds.size() + archivedChunkSamples;
+        }
+
+        // Nur die tatsächlich geschriebenen Zeilen löschen, parallel eingegangene Nachzügler bleiben hot
+        for (int i = 0; i < archivedIds.size(); i += DELETE_BATCH_SIZE) {
+            telemetrySampleRepository.deleteAllByIdIn(archivedIds.subList(i, Math.min(i + DELETE_BATCH_SIZE, archivedIds.size())));
+        }
+
+        log.debug("Archived {} samples of device {} for {} into {}", archivedIds.size() + archivedChunkSamples, deviceId, month, target);
+        return archivedIds.size() + archivedChunkSamples;
+    }
+
+    private Path segmentPath(String deviceId, YearMonth month, long sequence) {
+        Path deviceDir = baseDir.resolve(deviceId.replaceAll("[^A-Za-z0-9._-]", "_"));
+        Path candidate;
+        do {
+            candidate = deviceDir.resolve(month + "-" + sequence++ + ".ndjson.gz");
+        } while (Files.exists(candidate));
+        return candidate;
+    }
+
+    private static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
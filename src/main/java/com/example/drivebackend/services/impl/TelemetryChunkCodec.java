@@ -0,0 +1,61 @@
+package com.example.drivebackend.services.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Data of a {@link com.example.drivebackend.entities.TelemetryChunkEntity}: one {@link TelemetryResponse} per line,
+ * gzip-compressed, the same layout as the archive segment files.
+ */
+final class TelemetryChunkCodec {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private TelemetryChunkCodec() {
+    }
+
+    static byte[] encode(List<TelemetryResponse> samples) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (OutputStream out = new GZIPOutputStream(bytes, 16 * 1024);
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            for (TelemetryResponse sample : samples) {
+                writer.write(sample);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<TelemetryResponse> decode(byte[] data) {
+        List<TelemetryResponse> samples = new ArrayList<>();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data), 16 * 1024);
+             MappingIterator<TelemetryResponse> iterator = objectMapper.readerFor(TelemetryResponse.class).readValues(in)) {
+            while (iterator.hasNext()) {
+                samples.add(iterator.next());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Telemetrie-Chunk nicht lesbar", e);
+        }
+        return samples;
+    }
+}
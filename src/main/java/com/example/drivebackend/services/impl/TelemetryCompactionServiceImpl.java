@@ -0,0 +1,258 @@
+package com.example.drivebackend.services.impl;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.entities.TelemetryChunkEntity;
+import com.example.drivebackend.entities.TelemetryMetricsConverter;
+import com.example.drivebackend.entities.TripEntity;
+import com.example.drivebackend.repository.TelemetryChunkRepository;
+import com.example.drivebackend.repository.TelemetrySampleRepository;
+import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.services.TelemetryCompactionService;
+
+/**
+ * Warm tier for telemetry. Once a trip is finished its rows are merged into {@link TelemetryChunkEntity} rows of
+ * up to {@code app.compaction.chunk-samples} samples each, so a two-hour trip shrinks from thousands of rows
+ * (each with its own ID, keys, timestamps and index entries) to a few. Reads find the chunks through
+ * {@link TelemetryArchiveServiceImpl#readArchived}, the retention moves them into segment files like rows.
+ * <p>
+ * A trip is only compacted while nobody holds the lock of its device ({@link #withoutCompaction}); trips of a device
+ * that is being re-segmented stay unmarked and are picked up by the next run.
+ */
+@Service
+public class TelemetryCompactionServiceImpl implements TelemetryCompactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryCompactionServiceImpl.class);
+    private static final int TRIP_BATCH_SIZE = 100;
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private static final Instant MIN_TIME = Instant.EPOCH;
+    private static final Instant MAX_TIME = Instant.parse("9999-12-31T23:59:59Z");
+    private static final String INSERT_SAMPLE = "INSERT INTO telemetry (id, device_id, trip_id, start_time, end_time, timed_data, aggregated_data) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final TelemetrySampleRepository telemetrySampleRepository;
+    private final TelemetryChunkRepository telemetryChunkRepository;
+    private final TripRepository tripRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TelemetryMetricsConverter metricsConverter = new TelemetryMetricsConverter();
+    private final int chunkSamples;
+    // Eine Sperre pro Gerät, das je kompaktiert oder neu geschnitten wurde; Einträge bleiben, es sind wenige Bytes pro Gerät
+    private final Map<String, ReentrantLock> deviceLocks = new ConcurrentHashMap<>();
+
+    public TelemetryCompactionServiceImpl(TelemetrySampleRepository telemetrySampleRepository,
+                                          TelemetryChunkRepository telemetryChunkRepository,
+                                          TripRepository tripRepository,
+                                          JdbcTemplate jdbcTemplate,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${app.compaction.chunk-samples:500}") int chunkSamples) {
+        this.telemetrySampleRepository = telemetrySampleRepository;
+        this.telemetryChunkRepository = telemetryChunkRepository;
+        this.tripRepository = tripRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.chunkSamples = chunkSamples;
+    }
+
+    @Override
+    public int compactTripsFinishedBefore(Instant finishedBefore) {
+        int compacted = 0;
+        int trips = 0;
+        int skipped = 0;
+        while (true) {
+            List<TripRepository.FinishedTrip> batch = readTransaction.execute(status ->
+                    tripRepository.findUncompactedFinishedBefore(finishedBefore, Limit.of(TRIP_BATCH_SIZE)));
+            int batchSamples = 0;
+            int batchSkipped = 0;
+            for (TripRepository.FinishedTrip trip : batch) {
+                ReentrantLock lock = deviceLock(trip.getDeviceId());
+                // Gerät wird gerade neu geschnitten: Fahrt bleibt unmarkiert und kommt im nächsten Lauf dran
+                if (!lock.tryLock()) {
+                    batchSkipped++;
+                    continue;
+                }
+                try {
+                    Integer count = transactionTemplate.execute(status -> compactTrip(trip.getDeviceId(), trip.getId()));
+                    batchSamples += count != null ? count : 0;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            compacted += batchSamples;
+            trips += batch.size() - batchSkipped;
+            skipped += batchSkipped;
+            // Jede bearbeitete Fahrt ist danach markiert, die nächste Runde holt die folgenden; besteht eine Runde
+            // nur noch aus übersprungenen Fahrten, käme immer wieder dieselbe
+            if (batch.size() < TRIP_BATCH_SIZE || batchSkipped == batch.size()) {
+                break;
+            }
+        }
+        if (compacted > 0) {
+            log.info("Compacted {} telemetry samples of {} trips finished before {}", compacted, trips, finishedBefore);
+        }
+        if (skipped > 0) {
+            log.info("Skipped compaction of {} trips of devices that are being re-segmented", skipped);
+        }
+        return compacted;
+    }
+
+    @Override
+    public Iterator<TelemetryResponse> iterateCompacted(String deviceId, Instant since, Instant end) {
+        Instant from = since != null ? since : MIN_TIME;
+        Instant to = end != null ? end : MAX_TIME;
+        List<TelemetryChunkRepository.ChunkRange> ranges = telemetryChunkRepository.findRangesOverlapping(deviceId, from, to);
+        return new Iterator<>() {
+
+            private final PriorityQueue<TelemetryResponse> pending = new PriorityQueue<>(Comparator.comparing(TelemetryResponse::start_time));
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                // Chunks von Nachzüglern können sich zeitlich überlappen: jeden laden, der vor dem frühesten offenen Sample beginnt
+                while (next < ranges.size()
+                        && (pending.isEmpty() || !ranges.get(next).getMinStartTime().isAfter(pending.peek().start_time()))) {
+                    for (TelemetryResponse sample : TelemetryChunkCodec.decode(telemetryChunkRepository.findDataById(ranges.get(next).getId()))) {
+                        if (!sample.start_time().isBefore(from) && !sample.start_time().isAfter(to)) {
+                            pending.add(sample);
+                        }
+                    }
+                    next++;
+                }
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public TelemetryResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return pending.poll();
+            }
+        };
+    }
+
+    @Override
+    public Optional<TelemetryResponse> latestCompacted(String deviceId) {
+        return telemetryChunkRepository.findTopByDeviceIdOrderByMaxStartTimeDesc(deviceId)
+                .flatMap(chunk -> TelemetryChunkCodec.decode(chunk.getData()).stream()
+                        .max(Comparator.comparing(TelemetryResponse::start_time)));
+    }
+
+    @Override
+    public <T> T withoutCompaction(String deviceId, Supplier<T> action) {
+        ReentrantLock lock = deviceLock(deviceId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int restoreCompacted(String deviceId) {
+        return withoutCompaction(deviceId, () -> restoreDevice(deviceId));
+    }
+
+    private int restoreDevice(String deviceId) {
+        List<TelemetryChunkRepository.ChunkRange> ranges = readTransaction.execute(status ->
+                telemetryChunkRepository.findRangesOverlapping(deviceId, MIN_TIME, MAX_TIME));
+        int restored = 0;
+        for (TelemetryChunkRepository.ChunkRange range : ranges) {
+            Integer count = transactionTemplate.execute(status -> restoreChunk(range.getId()));
+            restored += count != null ? count : 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> tripRepository.resetCompactedByDeviceId(deviceId));
+        if (restored > 0) {
+            log.info("Restored {} compacted telemetry samples of device {}", restored, deviceId);
+        }
+        return restored;
+    }
+
+    private ReentrantLock deviceLock(String deviceId) {
+        return deviceLocks.computeIfAbsent(deviceId, ignored -> new ReentrantLock());
+    }
+
+    private int compactTrip(String deviceId, UUID tripId) {
+        // Gesperrt und am Cache vorbei gelesen wie beim Ingest, sonst überschreibt das UPDATE neuere Summen
+        Optional<TripEntity> trip = tripRepository.findByIdForUpdate(tripId);
+        if (trip.isEmpty()) {
+            return 0;
+        }
+        trip.get().setCompacted(true);
+        List<TelemetryResponse> samples = telemetrySampleRepository.findResponsesByDeviceIdAndTripId(deviceId, tripId);
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        for (int i = 0; i < samples.size(); i += chunkSamples) {
+            List<TelemetryResponse> slice = samples.subList(i, Math.min(i + chunkSamples, samples.size()));
+            TelemetryChunkEntity chunk = new TelemetryChunkEntity();
+            chunk.setDeviceId(deviceId);
+            chunk.setTripId(tripId);
+            chunk.setMinStartTime(slice.getFirst().start_time());
+            chunk.setMaxStartTime(slice.getLast().start_time());
+            chunk.setSampleCount(slice.size());
+            chunk.setData(TelemetryChunkCodec.encode(slice));
+            chunk.setCreatedAt(now);
+            telemetryChunkRepository.save(chunk);
+        }
+
+        // Nur die gelesenen Zeilen löschen, Nachzügler der Fahrt kommen im nächsten Lauf dazu
+        List<UUID> ids = samples.stream().map(TelemetryResponse::id).toList();
+        for (int i = 0; i < ids.size(); i += DELETE_BATCH_SIZE) {
+            telemetrySampleRepository.deleteAllByIdIn(ids.subList(i, Math.min(i + DELETE_BATCH_SIZE, ids.size())));
+        }
+        log.debug("Compacted {} samples of trip {} into {} chunks", samples.size(), tripId, Math.ceilDiv(samples.size(), chunkSamples));
+        return samples.size();
+    }
+
+    private int restoreChunk(UUID chunkId) {
+        byte[] data = telemetryChunkRepository.findDataById(chunkId);
+        if (data == null) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (TelemetryResponse sample : TelemetryChunkCodec.decode(data)) {
+            rows.add(new Object[] {
+                    sample.id(),
+                    sample.deviceId(),
+                    sample.tripId(),
+                    OffsetDateTime.ofInstant(sample.start_time(), ZoneOffset.UTC),
+                    sample.end_time() != null ? OffsetDateTime.ofInstant(sample.end_time(), ZoneOffset.UTC) : null,
+                    metricsConverter.convertToDatabaseColumn(sample.timed_data()),
+                    metricsConverter.convertToDatabaseColumn(sample.aggregated_data())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SAMPLE, rows);
+        telemetryChunkRepository.deleteAllByIdIn(List.of(chunkId));
+        return rows.size();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.drivebackend.services.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.drivebackend.services.TelemetryPartitionService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Declarative monthly range partitioning of {@code telemetry} on {@code start_time} (PostgreSQL only).
+ * Partitions are named {@code telemetry_pYYYY_MM}; a {@code telemetry_default} partition catches samples
+ * outside the managed range (e.g. dongles with a wrong clock).
+ * An existing plain table is converted once at startup.
+ */
+@Service
+public class TelemetryPartitionServiceImpl implements TelemetryPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryPartitionServiceImpl.class);
+    private static final Pattern PARTITION_NAME = Pattern.compile("telemetry_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    // EntityManagerFactory als Abhängigkeit: Flyway ist gelaufen und Hibernate hat das Schema validiert
+    public TelemetryPartitionServiceImpl(DataSource dataSource,
+                                         JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         EntityManagerFactory entityManagerFactory,
+                                         @Value("${app.telemetry.partitioning.enabled:false}") boolean enabled,
+                                         @Value("${app.telemetry.partitioning.months-ahead:3}") int monthsAhead) throws SQLException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        boolean postgres;
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+        if (enabled && !postgres) {
+            log.warn("Telemetry partitioning is only supported on PostgreSQL, ignoring app.telemetry.partitioning.enabled");
+        }
+        this.enabled = enabled && postgres;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!isPartitioned()) {
+                convertToPartitionedTable();
+            }
+        });
+        ensurePartitions();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Scheduled(cron = "${app.telemetry.partitioning.cron:0 0 1 * * *}")
+    public void ensurePartitions() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            transactionTemplate.executeWithoutResult(status -> createPartition(month));
+        }
+    }
+
+    @Override
+    public List<YearMonth> listPartitions() {
+        if (!enabled) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        JOIN pg_class p ON p.oid = i.inhparent
+                        WHERE p.relname = 'telemetry'""", String.class)
+                .stream()
+                .map(name -> {
+                    Matcher matcher = PARTITION_NAME.matcher(name);
+                    return matcher.matches() ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))) : null;
+                })
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    public void lockPartition(YearMonth month) {
+        jdbcTemplate.execute("LOCK TABLE " + partitionName(month) + " IN SHARE ROW EXCLUSIVE MODE");
+    }
+
+    @Override
+    public void dropPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE telemetry DETACH PARTITION " + name);
+        jdbcTemplate.execute("DROP TABLE " + name);
+        log.info("Dropped telemetry partition {}", name);
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = 'telemetry'",
+                Integer.class);
+        return count != null && count > 0;
+    }
+
+    // Einmalige Umstellung der von den Migrationen angelegten Tabelle; der PK muss den Partitionsschlüssel enthalten
+    private void convertToPartitionedTable() {
+        log.info("Converting telemetry table to monthly partitions, this may take a while");
+        jdbcTemplate.execute("ALTER TABLE telemetry RENAME TO telemetry_unpartitioned");
+        jdbcTemplate.execute("CREATE TABLE telemetry (LIKE telemetry_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (start_time)");
+        jdbcTemplate.execute("ALTER TABLE telemetry ADD CONSTRAINT telemetry_partitioned_pkey PRIMARY KEY (id, start_time)");
+        jdbcTemplate.execute("ALTER TABLE telemetry ADD CONSTRAINT fk_telemetry_device FOREIGN KEY (device_id) REFERENCES device (device_id)");
+        jdbcTemplate.execute("ALTER TABLE telemetry ADD CONSTRAINT fk_telemetry_trip FOREIGN KEY (trip_id) REFERENCES trips (id)");
+        jdbcTemplate.execute("CREATE TABLE telemetry_default PARTITION OF telemetry DEFAULT");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT min(start_time) FROM telemetry_unpartitioned", Timestamp.class);
+        if (oldest != null) {
+            YearMonth last = YearMonth.now(ZoneOffset.UTC);
+            for (YearMonth month = YearMonth.from(oldest.toInstant().atZone(ZoneOffset.UTC)); !month.isAfter(last); month = month.plusMonths(1)) {
+                jdbcTemplate.execute("CREATE TABLE " + partitionName(month) + " PARTITION OF telemetry FOR VALUES FROM ('"
+                        + monthStart(month) + "') TO ('" + monthStart(month.plusMonths(1)) + "')");
+            }
+        }
+        // Sekundärindizes aus den Migrationen übernehmen; erst nach dem DROP, weil die Namen sonst belegt sind
+        List<String> indexDefinitions = jdbcTemplate.queryForList(
+                "SELECT pg_get_indexdef(i.indexrelid) FROM pg_index i WHERE i.indrelid = 'telemetry_unpartitioned'::regclass AND NOT i.indisprimary",
+                String.class);
+        int moved = jdbcTemplate.update("INSERT INTO telemetry SELECT * FROM telemetry_unpartitioned");
+        jdbcTemplate.execute("DROP TABLE telemetry_unpartitioned");
+        for (String definition : indexDefinitions) {
+            jdbcTemplate.execute(definition.replace(" ON public.telemetry_unpartitioned ", " ON public.telemetry "));
+        }
+        log.info("Moved {} telemetry rows into partitions", moved);
+    }
+
+    // Als eigene Tabelle anlegen, Nachzügler aus der Default-Partition umziehen und dann anhängen
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        Integer exists = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_class WHERE relname = ?", Integer.class, name);
+        if (exists != null && exists > 0) {
+            return;
+        }
+        String from = monthStart(month).toString();
+        String to = monthStart(month.plusMonths(1)).toString();
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE telemetry INCLUDING DEFAULTS)");
+        // Bis zum Commit keine neuen Zeilen in der Default-Partition, sonst bleiben Nachzügler aus der Zeit zwischen
+        // Umzug und ATTACH dort liegen und das ATTACH scheitert an ihnen; Lesen bleibt möglich
+        jdbcTemplate.execute("LOCK TABLE telemetry_default IN SHARE ROW EXCLUSIVE MODE");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM telemetry_default WHERE start_time >= ?::timestamptz AND start_time < ?::timestamptz RETURNING *) "
+                + "INSERT INTO " + name + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE telemetry ATTACH PARTITION " + name + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        log.info("Created telemetry partition {}{}", name, moved > 0 ? " (moved " + moved + " rows from default partition)" : "");
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("telemetry_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -9,12 +9,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.example.drivebackend.dto.TelemetryIngestRequest;
 import com.example.drivebackend.dto.TelemetryResponse;
@@ -23,12 +27,22 @@ import com.example.drivebackend.dto.TimeBucket;
 import com.example.drivebackend.entities.DeviceEntity;
 import com.example.drivebackend.entities.TelemetryEntity;
 import com.example.drivebackend.entities.TripEntity;
+import com.example.drivebackend.jfr.TelemetryIngestEvent;
+import com.example.drivebackend.jfr.TripDetailsEvent;
 import com.example.drivebackend.mapper.TelemetryMapper;
 import com.example.drivebackend.repository.DeviceRepository;
 import com.example.drivebackend.repository.TelemetrySampleRepository;
 import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.routing.RecentDeviceWrites;
+import com.example.drivebackend.series.LiveTelemetry;
+import com.example.drivebackend.services.SignalStatisticsService;
+import com.example.drivebackend.services.TelemetryArchiveService;
+import com.example.drivebackend.services.TelemetryCompactionService;
 import com.example.drivebackend.services.TelemetryService;
+import com.example.drivebackend.services.TripSegmentationService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -37,30 +51,62 @@ import lombok.RequiredArgsConstructor;
 public class TelemetryServiceImpl implements TelemetryService {
 
     private static final Logger log = LoggerFactory.getLogger(TelemetryServiceImpl.class);
-    private static final Duration TRIP_GAP = Duration.ofMinutes(30);
 
     private final TelemetrySampleRepository telemetrySampleRepository;
     private final DeviceRepository deviceRepository;
     private final TripRepository tripRepository;
     private final TelemetryMapper telemetryMapper;
+    private final TelemetryArchiveService telemetryArchiveService;
+    private final MeterRegistry meterRegistry;
+    private final RecentDeviceWrites recentDeviceWrites;
+    private final TripSegmentationService tripSegmentationService;
+    private final SignalStatisticsService signalStatisticsService;
+    private final TelemetryCompactionService telemetryCompactionService;
+    private final LiveTelemetry liveTelemetry;
 
     @Override
     @Transactional
-    public TelemetryResponse ingestTelemetry(TelemetryIngestRequest request) {
-        DeviceEntity device = deviceRepository.findById(request.deviceId())
+    public TelemetryResponse ingestTelemetry(TelemetryIngestRequest request, DeviceEntity authenticatedDevice, long payloadBytes) {
+        TelemetryIngestEvent event = new TelemetryIngestEvent();
+        event.begin();
+        // Mit gerätespezifischem API-Key kommt das Gerät schon aus dem Index des ApiKeyFilter
+        DeviceEntity device = authenticatedDevice != null ? authenticatedDevice : timed("device_lookup", () -> deviceRepository.findById(request.deviceId())
             .orElseGet(() -> {
                 DeviceEntity newDevice = new DeviceEntity();
                 newDevice.setDeviceId(request.deviceId());
                 return deviceRepository.save(newDevice);
-            });
+            }));
 
         TelemetryEntity sample = telemetryMapper.toEntity(request);
-        TripEntity trip = resolveTrip(device, sample.getStartTime());
+        TripEntity trip = timed("trip_resolution", () -> resolveTrip(device, sample.getStartTime()));
 
         sample.setDevice(device);
         sample.setTrip(trip);
-        telemetrySampleRepository.save(sample);
+        // Flush im Schritt selbst, sonst landet die Zeit für den INSERT unsichtbar im Commit
+        timed("sample_insert", () -> telemetrySampleRepository.saveAndFlush(sample));
+        // Statistiken der Fahrt landen mit dem UPDATE aus trip_update in der Datenbank
+        timed("signal_stats", () -> signalStatisticsService.record(device, trip, sample));
+        timed("trip_update", () -> updateTrip(trip, sample));
+
+        meterRegistry.counter("telemetry.ingest.samples", "device", device.getDeviceId()).increment();
+        // Folgende Lesezugriffe für das Gerät bleiben eine Weile auf der Primary (Replikate hängen evtl. hinterher)
+        recentDeviceWrites.record(device.getDeviceId());
+        recordLive(device.getDeviceId(), sample.getTimed_data());
+        log.debug("Stored telemetry sample for device {}", request.deviceId());
+        TelemetryResponse response = telemetryMapper.toDto(sample);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.deviceId = device.getDeviceId();
+            event.tripCreated = trip.getTelemetry_count() == 1;
+            event.payloadBytes = payloadBytes;
+            event.samples = sample.getTimed_data() != null ? sample.getTimed_data().size() : 0;
+            event.commit();
+        }
+        return response;
+    }
 
+    private TripEntity updateTrip(TripEntity trip, TelemetryEntity sample) {
         trip = updateTripEndTime(trip, sample.getEndTime() != null ? sample.getEndTime() : sample.getStartTime());
 
         // update trip values
@@ -70,17 +116,51 @@ public class TelemetryServiceImpl implements TelemetryService {
 
         Integer count = trip.getTelemetry_count() != null ? trip.getTelemetry_count() : 0;
         trip.setTelemetry_count(count + 1);
+        // Nachzügler einer schon kompaktierten Fahrt: der nächste Kompaktierungslauf holt die neue Zeile
+        trip.setCompacted(false);
 
-        tripRepository.save(trip);
+        return tripRepository.saveAndFlush(trip);
+    }
 
-        log.debug("Stored telemetry sample for device {}", request.deviceId());
-        return telemetryMapper.toDto(sample);
+    // Erst nach dem Commit, damit die Live-Ansicht keine Punkte eines zurückgerollten Uploads zeigt
+    private void recordLive(String deviceId, Map<String, Object> timedData) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            liveTelemetry.record(deviceId, timedData);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                liveTelemetry.record(deviceId, timedData);
+            }
+        });
+    }
+
+    private <T> T timed(String stage, Supplier<T> step) {
+        return stageTimer(stage).record(step);
+    }
+
+    private void timed(String stage, Runnable step) {
+        stageTimer(stage).record(step);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("telemetry.ingest.stage")
+            .description("Duration of one step of ingestTelemetry")
+            .tag("stage", stage)
+            .register(meterRegistry);
     }
 
     @Override
     public Optional<TelemetryResponse> fetchLatestTelemetry(String deviceId) {
-        return telemetrySampleRepository.findTopByDevice_DeviceIdOrderByStartTimeDesc(deviceId)
+        Optional<TelemetryResponse> hot = telemetrySampleRepository.findTopByDevice_DeviceIdOrderByStartTimeDesc(deviceId)
                 .map(telemetryMapper::toDto);
+        // Steht das Gerät länger, sind auch seine letzten Samples schon kompaktiert
+        Optional<TelemetryResponse> compacted = telemetryCompactionService.latestCompacted(deviceId);
+        if (compacted.isPresent() && (hot.isEmpty() || compacted.get().start_time().isAfter(hot.get().start_time()))) {
+            return compacted;
+        }
+        return hot;
     }
 
     @Override
@@ -95,7 +175,7 @@ public class TelemetryServiceImpl implements TelemetryService {
         } else {
             response = telemetrySampleRepository.findAllByDevice_DeviceIdOrderByStartTimeAsc(deviceId);
         }
-        return response.stream().map(telemetryMapper::toDto).toList();
+        return mergeWithArchive(telemetryArchiveService.readArchived(deviceId, null, since, end), response);
     }
 
     @Override
@@ -110,22 +190,16 @@ public class TelemetryServiceImpl implements TelemetryService {
         } else {
             response = telemetrySampleRepository.findAllByDevice_DeviceIdAndTrip_IdOrderByStartTimeAsc(deviceId, tripId);
         }
-        return response.stream().map(telemetryMapper::toDto).toList();
+        // Ohne Zeitraum nur die Archivsegmente im Zeitraum der Fahrt lesen
+        Optional<TripEntity> trip = since == null || end == null ? tripRepository.findById(tripId) : Optional.empty();
+        Instant archiveSince = since != null ? since : trip.map(TripEntity::getStartTime).orElse(null);
+        Instant archiveEnd = end != null ? end : trip.map(TripEntity::getEndTime).orElse(null);
+        return mergeWithArchive(telemetryArchiveService.readArchived(deviceId, tripId, archiveSince, archiveEnd), response);
     }
 
     @Override
     public Map<UUID, List<TelemetryResponse>> fetchTelemetryGroupedByTrip(String deviceId, Instant since, Instant end) {
-        List<TelemetryEntity> response;
-        if (since != null && end != null) {
-            response = telemetrySampleRepository.findAllByDeviceIdInRange(deviceId, since, end);
-        } else if (since != null) {
-            response = telemetrySampleRepository.findAllByDevice_DeviceIdAndStartTimeGreaterThanEqualOrderByStartTimeAsc(deviceId, since);
-        } else if (end != null) {
-            response = telemetrySampleRepository.findAllByDevice_DeviceIdAndStartTimeLessThanEqualOrderByStartTimeAsc(deviceId, end);
-        } else {
-            response = telemetrySampleRepository.findAllByDevice_DeviceIdOrderByStartTimeAsc(deviceId);
-        }
-        List<TelemetryResponse> dtoResponses = response.stream().map(telemetryMapper::toDto).toList();
+        List<TelemetryResponse> dtoResponses = fetchTelemetryInRange(deviceId, since, end);
         Map<UUID, List<TelemetryResponse>> aggregatedDrivesMap = new LinkedHashMap<>();
 
         for (TelemetryResponse entity : dtoResponses) {
@@ -138,6 +212,8 @@ public class TelemetryServiceImpl implements TelemetryService {
 
     @Override
     public Map<UUID, TripDetailsResponse> fetchTripDetails(String deviceId, Instant since, Instant end) {
+        TripDetailsEvent event = new TripDetailsEvent();
+        event.begin();
         Map<UUID, List<TelemetryResponse>> grouped = fetchTelemetryGroupedByTrip(deviceId, since, end);
         Map<UUID, TripEntity> tripEntities = tripRepository.findAllById(grouped.keySet())
                 .stream()
@@ -175,6 +251,15 @@ public class TelemetryServiceImpl implements TelemetryService {
             result.put(tripId, tripDetails);
         }
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.deviceId = deviceId;
+            event.since = since != null ? since.toEpochMilli() : 0;
+            event.end = end != null ? end.toEpochMilli() : 0;
+            event.trips = result.size();
+            event.samples = grouped.values().stream().mapToInt(List::size).sum();
+            event.commit();
+        }
         return result;
     }
 
@@ -218,16 +303,41 @@ public List<TimeBucket> fetchTripsPerHour(String deviceId, Instant since, Instan
        return (int) Math.round((double) count / total * 100);
     }
 
+    // Archivierte (cold) und aktuelle (hot) Samples sind jeweils nach Startzeit sortiert
+    private List<TelemetryResponse> mergeWithArchive(List<TelemetryResponse> archived, List<TelemetryEntity> hot) {
+        if (archived.isEmpty()) {
+            return hot.stream().map(telemetryMapper::toDto).toList();
+        }
+        List<TelemetryResponse> merged = new ArrayList<>(archived.size() + hot.size());
+        int i = 0;
+        for (TelemetryEntity entity : hot) {
+            while (i < archived.size() && !archived.get(i).start_time().isAfter(entity.getStartTime())) {
+                merged.add(archived.get(i++));
+            }
+            merged.add(telemetryMapper.toDto(entity));
+        }
+        merged.addAll(archived.subList(i, archived.size()));
+        return merged;
+    }
+
     private TripEntity resolveTrip(DeviceEntity device, Instant currentStartTime) {
-        return telemetrySampleRepository.findTopByDevice_DeviceIdOrderByStartTimeDesc(device.getDeviceId())
-            .map(TelemetryEntity::getTrip)
-            .filter(existingTrip -> !isNewTrip(existingTrip, currentStartTime))
-            .orElseGet(() -> createTrip(device, currentStartTime));
+        // Die Fahrt wird gesperrt und frisch gelesen, parallele Uploads des Geräts laufen dadurch nacheinander
+        List<UUID> latestTripIds = telemetrySampleRepository.findLatestTripIds(device.getDeviceId(), Limit.of(1));
+        Optional<TripEntity> lastTrip = latestTripIds.isEmpty() || latestTripIds.getFirst() == null
+            ? Optional.empty()
+            : tripRepository.findByIdForUpdate(latestTripIds.getFirst());
+        if (lastTrip.isPresent() && !isNewTrip(lastTrip.get(), currentStartTime)) {
+            return lastTrip.get();
+        }
+        // Eine Fahrt gilt als beendet, sobald die nächste nach der Lücke beginnt
+        lastTrip.ifPresent(closed -> meterRegistry.counter("telemetry.trips.closed").increment());
+        return createTrip(device, currentStartTime);
     }
 
     private boolean isNewTrip(TripEntity existingTrip, Instant currentStartTime) {
         Instant lastEnd = existingTrip.getEndTime();
-        return lastEnd == null || Duration.between(lastEnd, currentStartTime).compareTo(TRIP_GAP) > 0;
+        // Gerät der Fahrt statt dem aus dem API-Key-Index, damit eine geänderte Lücke sofort gilt
+        return lastEnd == null || Duration.between(lastEnd, currentStartTime).compareTo(tripSegmentationService.tripGap(existingTrip.getDevice())) > 0;
     }
 
     private TripEntity createTrip(DeviceEntity device, Instant startTime) {
@@ -235,6 +345,7 @@ public List<TimeBucket> fetchTripsPerHour(String deviceId, Instant since, Instan
         trip.setDevice(device);
         trip.setStartTime(startTime);
         trip.setEndTime(startTime);
+        meterRegistry.counter("telemetry.trips.opened").increment();
         return tripRepository.save(trip);
     }
 
@@ -0,0 +1,338 @@
+package com.example.drivebackend.services.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.drivebackend.dto.ResegmentationStatus;
+import com.example.drivebackend.dto.TripSegmentationSample;
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.entities.TelemetryEntity;
+import com.example.drivebackend.entities.TripEntity;
+import com.example.drivebackend.entities.TripSignalDataEntity;
+import com.example.drivebackend.repository.DeviceRepository;
+import com.example.drivebackend.repository.TelemetrySampleRepository;
+import com.example.drivebackend.repository.TelemetrySegmentRepository;
+import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.repository.TripSignalDataRepository;
+import com.example.drivebackend.routing.RoutingContext;
+import com.example.drivebackend.services.TelemetryCompactionService;
+import com.example.drivebackend.services.TripSegmentationService;
+import com.example.drivebackend.stats.DrivingBehaviour;
+import com.example.drivebackend.stats.SignalSketches;
+import com.example.drivebackend.stats.SignalStatistics;
+import com.example.drivebackend.stats.SignalStatisticsEngine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Trip gap per device and the re-segmentation job. A device is processed in two phases: the hot telemetry
+ * between the archive and the open trip is streamed in keyset chunks (short read-only transactions, pinned to
+ * the primary: a lagging replica would miss just restored or late samples that the swap then points at the
+ * wrong trip) and cut into trips with the same rule as the ingest; then one write transaction
+ * updates or inserts the trips (including their signal statistics and sketches), points the samples at them by time range
+ * and deletes the trips that are left without samples.
+ * <p>
+ * Ingest only ever touches the open trip (the one of the latest sample), which is excluded together with its
+ * late samples, so uploads keep running while a device is rebuilt. Trips whose first sample still belongs to
+ * an old trip keep its ID, note and locations. Compacted trips of the device are restored into rows first and
+ * get compacted again by the first compaction run after the device is done; until then the compaction skips it.
+ */
+@Service
+public class TripSegmentationServiceImpl implements TripSegmentationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TripSegmentationServiceImpl.class);
+    private static final UUID MIN_UUID = new UUID(0, 0);
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final TelemetrySampleRepository telemetrySampleRepository;
+    private final TripRepository tripRepository;
+    private final TripSignalDataRepository tripSignalDataRepository;
+    private final DeviceRepository deviceRepository;
+    private final TelemetrySegmentRepository telemetrySegmentRepository;
+    private final SignalStatisticsEngine signalStatisticsEngine;
+    private final TelemetryCompactionService telemetryCompactionService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Duration defaultGap;
+    private final int parallelism;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Run lastRun;
+
+    /**
+     * Hot range of one device: from the first trip after the archive up to the start of the open trip.
+     */
+    private record Bounds(Instant from, Instant before, UUID openTripId, Duration gap) {}
+
+    private record Result(long samples, long tripsBefore, long tripsAfter) {}
+
+    /**
+     * A new trip while streaming; samples arrive ordered by start time.
+     */
+    private static final class Segment {
+
+        private final Instant startTime;
+        // Fahrt des ersten Samples, deren ID (samt Notiz) übernommen wird
+        private final UUID originTripId;
+        private Instant endTime;
+        private Instant lastSampleStart;
+        private Float distanceKm = 0f;
+        private int count;
+        private final SignalStatistics statistics = new SignalStatistics();
+        private final SignalSketches sketches;
+        private final DrivingBehaviour behaviour = new DrivingBehaviour();
+
+        Segment(Instant startTime, UUID originTripId, SignalSketches sketches) {
+            this.startTime = startTime;
+            this.originTripId = originTripId;
+            this.endTime = startTime;
+            this.sketches = sketches;
+        }
+
+        void add(TripSegmentationSample sample, SignalStatisticsEngine engine) {
+            // Wie updateTrip() beim Ingest: Ende ist das späteste Sample-Ende, Distanz in km aufsummiert
+            Instant sampleEnd = sample.endTime() != null ? sample.endTime() : sample.startTime();
+            if (sampleEnd.isAfter(endTime)) {
+                endTime = sampleEnd;
+            }
+            lastSampleStart = sample.startTime();
+            Object distance = sample.aggregated_data() != null ? sample.aggregated_data().get("distance") : null;
+            if (distance != null) {
+                distanceKm = distanceKm + Float.valueOf(distance.toString()) / 1000;
+            }
+            count++;
+            engine.accept(sample.timed_data(), List.of(statistics), List.of(sketches), behaviour);
+        }
+    }
+
+    private static final class Run {
+
+        private final Instant startedAt = Instant.now();
+        private final int devicesTotal;
+        private final AtomicInteger devicesDone = new AtomicInteger();
+        private final AtomicInteger devicesFailed = new AtomicInteger();
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicLong tripsBefore = new AtomicLong();
+        private final AtomicLong tripsAfter = new AtomicLong();
+        private volatile Instant finishedAt;
+
+        Run(int devicesTotal) {
+            this.devicesTotal = devicesTotal;
+        }
+
+        ResegmentationStatus toStatus() {
+            return new ResegmentationStatus(finishedAt == null, startedAt, finishedAt, devicesTotal, devicesDone.get(),
+                    devicesFailed.get(), samples.get(), tripsBefore.get(), tripsAfter.get());
+        }
+    }
+
+    public TripSegmentationServiceImpl(TelemetrySampleRepository telemetrySampleRepository,
+                                       TripRepository tripRepository,
+                                       TripSignalDataRepository tripSignalDataRepository,
+                                       DeviceRepository deviceRepository,
+                                       TelemetrySegmentRepository telemetrySegmentRepository,
+                                       SignalStatisticsEngine signalStatisticsEngine,
+                                       TelemetryCompactionService telemetryCompactionService,
+                                       MeterRegistry meterRegistry,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.trips.gap:30m}") Duration defaultGap,
+                                       @Value("${app.trips.resegment.parallelism:2}") int parallelism,
+                                       @Value("${app.trips.resegment.chunk-size:5000}") int chunkSize) {
+        this.telemetrySampleRepository = telemetrySampleRepository;
+        this.tripRepository = tripRepository;
+        this.tripSignalDataRepository = tripSignalDataRepository;
+        this.deviceRepository = deviceRepository;
+        this.telemetrySegmentRepository = telemetrySegmentRepository;
+        this.signalStatisticsEngine = signalStatisticsEngine;
+        this.telemetryCompactionService = telemetryCompactionService;
+        this.meterRegistry = meterRegistry;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.defaultGap = defaultGap;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Duration tripGap(DeviceEntity device) {
+        return device.getTripGapSeconds() != null ? Duration.ofSeconds(device.getTripGapSeconds()) : defaultGap;
+    }
+
+    @Override
+    public ResegmentationStatus startResegmentation(Collection<String> deviceIds) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A re-segmentation is already running");
+        }
+        try {
+            List<String> devices = !deviceIds.isEmpty() ? List.copyOf(deviceIds) : readTransaction.execute(status ->
+                    deviceRepository.findAll().stream().map(DeviceEntity::getDeviceId).toList());
+            Run run = new Run(devices.size());
+            lastRun = run;
+            log.info("Re-segmenting trips of {} devices with {} threads", devices.size(), parallelism);
+
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("trip-resegment-", 1).factory());
+            CompletableFuture<?>[] tasks = devices.stream()
+                    .map(deviceId -> CompletableFuture.runAsync(() -> resegmentDevice(deviceId, run), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tasks).whenComplete((ignored, error) -> {
+                executor.shutdown();
+                run.finishedAt = Instant.now();
+                running.set(false);
+                log.info("Re-segmentation finished: {} devices ({} failed), {} samples, {} trips before, {} after",
+                        run.devicesDone.get(), run.devicesFailed.get(), run.samples.get(), run.tripsBefore.get(), run.tripsAfter.get());
+            });
+            return run.toStatus();
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    @Override
+    public ResegmentationStatus status() {
+        Run run = lastRun;
+        return run != null ? run.toStatus() : new ResegmentationStatus(false, null, null, 0, 0, 0, 0, 0, 0);
+    }
+
+    private void resegmentDevice(String deviceId, Run run) {
+        Timer.Sample timer = Timer.start(meterRegistry);
+        // Zählen und Umhängen müssen denselben Stand sehen, die Lesetransaktionen bleiben auf der Primary
+        RoutingContext.pinToPrimary();
+        try {
+            // Sonst kompaktiert der Job die gerade zurückgeholten Zeilen unter den alten Fahrten, bevor swap() sie umhängt
+            Result result = telemetryCompactionService.withoutCompaction(deviceId, () -> resegment(deviceId));
+            run.samples.addAndGet(result.samples());
+            run.tripsBefore.addAndGet(result.tripsBefore());
+            run.tripsAfter.addAndGet(result.tripsAfter());
+            log.debug("Re-segmented device {}: {} samples, {} trips before, {} after", deviceId, result.samples(), result.tripsBefore(), result.tripsAfter());
+        } catch (RuntimeException e) {
+            run.devicesFailed.incrementAndGet();
+            log.warn("Re-segmentation of device {} failed, its trips are unchanged", deviceId, e);
+        } finally {
+            RoutingContext.clear();
+            run.devicesDone.incrementAndGet();
+            timer.stop(meterRegistry.timer("telemetry.trips.resegmentation"));
+        }
+    }
+
+    private Result resegment(String deviceId) {
+        // Kompaktierte Fahrten zurück in Zeilen, damit sie neu geschnitten und umgehängt werden können
+        telemetryCompactionService.restoreCompacted(deviceId);
+        Bounds bounds = readTransaction.execute(status -> bounds(deviceId));
+        if (bounds == null) {
+            return new Result(0, 0, 0);
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        Segment current = null;
+        long samples = 0;
+        Instant afterTime = bounds.from();
+        UUID afterId = MIN_UUID;
+        while (true) {
+            Instant chunkAfterTime = afterTime;
+            UUID chunkAfterId = afterId;
+            List<TripSegmentationSample> chunk = readTransaction.execute(status -> telemetrySampleRepository.findSegmentationChunk(
+                    deviceId, chunkAfterTime, chunkAfterId, bounds.before(), Limit.of(chunkSize)));
+            for (TripSegmentationSample sample : chunk) {
+                // Nachzügler der offenen Fahrt gehören dem Ingest
+                if (bounds.openTripId().equals(sample.tripId())) {
+                    continue;
+                }
+                if (current == null || Duration.between(current.endTime, sample.startTime()).compareTo(bounds.gap()) > 0) {
+                    current = new Segment(sample.startTime(), sample.tripId(), signalStatisticsEngine.sketches(null));
+                    segments.add(current);
+                }
+                current.add(sample, signalStatisticsEngine);
+                samples++;
+            }
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            afterTime = chunk.getLast().startTime();
+            afterId = chunk.getLast().id();
+        }
+
+        long sampleCount = samples;
+        return writeTransaction.execute(status -> swap(deviceId, bounds, segments, sampleCount));
+    }
+
+    private Bounds bounds(String deviceId) {
+        Optional<TripEntity> openTrip = telemetrySampleRepository.findTopByDevice_DeviceIdOrderByStartTimeDesc(deviceId)
+                .map(TelemetryEntity::getTrip);
+        if (openTrip.isEmpty()) {
+            return null;
+        }
+        Optional<Instant> archivedUntil = telemetrySegmentRepository.findLatestArchivedStartTime(deviceId);
+        Optional<TripEntity> firstTrip = archivedUntil.isPresent()
+                ? tripRepository.findFirstByDevice_DeviceIdAndStartTimeAfterOrderByStartTimeAsc(deviceId, archivedUntil.get())
+                : tripRepository.findFirstByDevice_DeviceIdOrderByStartTimeAsc(deviceId);
+        Instant before = openTrip.get().getStartTime();
+        if (firstTrip.isEmpty() || !firstTrip.get().getStartTime().isBefore(before)) {
+            return null;
+        }
+        return new Bounds(firstTrip.get().getStartTime(), before, openTrip.get().getId(), tripGap(openTrip.get().getDevice()));
+    }
+
+    private Result swap(String deviceId, Bounds bounds, List<Segment> segments, long samples) {
+        List<UUID> oldTripIds = tripRepository.findIdsByDeviceIdInRange(deviceId, bounds.from(), bounds.before());
+        Set<UUID> oldTrips = new HashSet<>(oldTripIds);
+        Set<UUID> reused = new HashSet<>();
+        DeviceEntity device = deviceRepository.getReferenceById(deviceId);
+        TripEntity openTrip = tripRepository.getReferenceById(bounds.openTripId());
+
+        for (Segment segment : segments) {
+            TripEntity trip = null;
+            if (segment.originTripId != null && oldTrips.contains(segment.originTripId) && reused.add(segment.originTripId)) {
+                trip = tripRepository.findById(segment.originTripId).orElse(null);
+            }
+            if (trip == null) {
+                trip = new TripEntity();
+                trip.setDevice(device);
+            }
+            trip.setStartTime(segment.startTime);
+            trip.setEndTime(segment.endTime);
+            trip.setTrip_distance_km(segment.distanceKm);
+            trip.setTelemetry_count(segment.count);
+            TripSignalDataEntity data = new TripSignalDataEntity();
+            data.setSignalStats(segment.statistics.encode());
+            data.setSignalSketches(segment.sketches.encode());
+            SignalStatisticsServiceImpl.applyBehaviour(signalStatisticsEngine, trip, data, segment.behaviour);
+            // Flush vor dem Bulk-Update, das auf die neue Fahrt verweist
+            trip = tripRepository.saveAndFlush(trip);
+            data.setTripId(trip.getId());
+            tripSignalDataRepository.save(data);
+            telemetrySampleRepository.reassignTrip(deviceId, segment.startTime, segment.lastSampleStart, trip, openTrip);
+        }
+
+        List<UUID> obsolete = oldTripIds.stream().filter(id -> !reused.contains(id)).toList();
+        for (int i = 0; i < obsolete.size(); i += DELETE_BATCH_SIZE) {
+            tripRepository.deleteUnreferencedByIdIn(obsolete.subList(i, Math.min(i + DELETE_BATCH_SIZE, obsolete.size())));
+        }
+        return new Result(samples, oldTripIds.size(), segments.size());
+    }
+}
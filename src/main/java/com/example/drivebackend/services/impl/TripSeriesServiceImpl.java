@@ -0,0 +1,99 @@
+package com.example.drivebackend.services.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.series.TripSeries;
+import com.example.drivebackend.series.TripSeriesCache;
+import com.example.drivebackend.services.TelemetryService;
+import com.example.drivebackend.services.TripSeriesService;
+
+@Service
+@Transactional(readOnly = true)
+public class TripSeriesServiceImpl implements TripSeriesService {
+
+    private static final Instant MIN_TIME = Instant.EPOCH;
+    private static final Instant MAX_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final TripRepository tripRepository;
+    private final TelemetryService telemetryService;
+    private final TripSeriesCache tripSeriesCache;
+    private final List<String> signals;
+    private final Duration recent;
+
+    public TripSeriesServiceImpl(TripRepository tripRepository,
+                                 TelemetryService telemetryService,
+                                 TripSeriesCache tripSeriesCache,
+                                 @Value("${app.trips.series.signals:speed,rpm}") List<String> signals,
+                                 @Value("${app.trips.series.recent:30d}") Duration recent) {
+        this.tripRepository = tripRepository;
+        this.telemetryService = telemetryService;
+        this.tripSeriesCache = tripSeriesCache;
+        this.signals = List.copyOf(signals);
+        this.recent = recent;
+    }
+
+    @Override
+    public List<TripSeries> fetchTripSeries(String deviceId, Instant since, Instant end) {
+        List<TripRepository.TripVersion> trips = tripRepository.findVersionsOverlapping(deviceId,
+                since != null ? since : MIN_TIME, end != null ? end : MAX_TIME);
+        Instant recentSince = Instant.now().minus(recent);
+
+        TripSeries[] result = new TripSeries[trips.size()];
+        Instant loadFrom = null;
+        Instant loadTo = null;
+        for (int i = 0; i < trips.size(); i++) {
+            TripRepository.TripVersion trip = trips.get(i);
+            if (isCached(trip, recentSince)) {
+                result[i] = tripSeriesCache.get(trip.getId(), trip.getStartTime(), trip.getEndTime(), sampleCount(trip));
+            }
+            if (result[i] == null) {
+                loadFrom = loadFrom == null || trip.getStartTime().isBefore(loadFrom) ? trip.getStartTime() : loadFrom;
+                loadTo = loadTo == null || trip.getEndTime().isAfter(loadTo) ? trip.getEndTime() : loadTo;
+            }
+        }
+
+        if (loadFrom != null) {
+            // Fehlende Fahrten komplett in einem Zug lesen, der Zeitraum der Anfrage wird erst beim Aggregieren angewendet
+            Map<UUID, List<TelemetryResponse>> grouped = telemetryService.fetchTelemetryGroupedByTrip(deviceId, loadFrom, loadTo);
+            for (int i = 0; i < trips.size(); i++) {
+                TripRepository.TripVersion trip = trips.get(i);
+                List<TelemetryResponse> samples = grouped.get(trip.getId());
+                if (result[i] != null || samples == null) {
+                    continue;
+                }
+                boolean cached = isCached(trip, recentSince);
+                result[i] = TripSeries.of(trip.getId(), samples, signals, cached);
+                if (cached) {
+                    tripSeriesCache.put(result[i], trip.getStartTime(), trip.getEndTime(), sampleCount(trip));
+                }
+            }
+        }
+
+        List<TripSeries> series = new ArrayList<>(result.length);
+        for (TripSeries trip : result) {
+            if (trip != null) {
+                series.add(trip);
+            }
+        }
+        return series;
+    }
+
+    private boolean isCached(TripRepository.TripVersion trip, Instant recentSince) {
+        return tripSeriesCache.isEnabled() && trip.getEndTime() != null && !trip.getEndTime().isBefore(recentSince);
+    }
+
+    private static int sampleCount(TripRepository.TripVersion trip) {
+        return trip.getTelemetryCount() != null ? trip.getTelemetryCount() : 0;
+    }
+}
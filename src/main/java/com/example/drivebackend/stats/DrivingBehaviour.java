@@ -0,0 +1,209 @@
+package com.example.drivebackend.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Driving events of one trip and the detector state carried from one upload to the next (last speed and its
+ * second, open episodes). {@link DrivingEventDetector} only touches primitive fields and a byte buffer here,
+ * so feeding a point does not allocate; the buffer grows by doubling up to {@value #MAX_EVENTS} events.
+ * Counts keep going past that, only the event records stop.
+ * <p>
+ * Binary format: a format version, the state, the counts and the events with {@value #EVENT_BYTES} bytes each
+ * (type, epoch-2000 second, duration in seconds, peak value).
+ */
+public final class DrivingBehaviour {
+
+    public enum EventType {
+        HARSH_ACCELERATION,
+        HARSH_BRAKING,
+        OVER_REV
+    }
+
+    /**
+     * @param epochSecond Start of the episode in epoch-2000 seconds
+     * @param peak Strongest value during the episode: m/s² for acceleration and braking, rpm for over-revving
+     */
+    public record Event(EventType type, long epochSecond, int durationSeconds, float peak) {}
+
+    public static final int MAX_EVENTS = 500;
+    static final int EVENT_BYTES = 11;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int TYPES = EventType.values().length;
+    private static final int CLOSED = -1;
+    // Episode läuft, hat aber wegen MAX_EVENTS keinen Eintrag im Puffer
+    private static final int NOT_STORED = -2;
+
+    long lastSpeedSecond = Long.MIN_VALUE;
+    double lastSpeed;
+    long drivingSeconds;
+
+    private final int[] counts = new int[TYPES];
+    private final int[] openEvent = new int[TYPES];
+    private final long[] openSince = new long[TYPES];
+    private final long[] openLast = new long[TYPES];
+    private byte[] events = new byte[0];
+    private int eventCount;
+
+    public DrivingBehaviour() {
+        Arrays.fill(openEvent, CLOSED);
+    }
+
+    public int count(EventType type) {
+        return counts[type.ordinal()];
+    }
+
+    public int totalEvents() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Seconds between consecutive speed points while the vehicle moved, gaps above the detector limit excluded.
+     */
+    public long drivingSeconds() {
+        return drivingSeconds;
+    }
+
+    public List<Event> events() {
+        EventType[] types = EventType.values();
+        List<Event> result = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            int offset = i * EVENT_BYTES;
+            result.add(new Event(types[events[offset]], readInt(offset + 1) & 0xFFFFFFFFL,
+                    readShort(offset + 5), Float.intBitsToFloat(readInt(offset + 7))));
+        }
+        return result;
+    }
+
+    boolean isOpen(EventType type) {
+        return openEvent[type.ordinal()] != CLOSED;
+    }
+
+    long openLast(EventType type) {
+        return openLast[type.ordinal()];
+    }
+
+    void open(EventType type, long epochSecond, double peak) {
+        int t = type.ordinal();
+        counts[t]++;
+        openSince[t] = epochSecond;
+        openLast[t] = epochSecond;
+        if (eventCount == MAX_EVENTS) {
+            openEvent[t] = NOT_STORED;
+            return;
+        }
+        if (events.length < (eventCount + 1) * EVENT_BYTES) {
+            events = Arrays.copyOf(events, Math.min(Math.max(8, eventCount * 2), MAX_EVENTS) * EVENT_BYTES);
+        }
+        int offset = eventCount * EVENT_BYTES;
+        events[offset] = (byte) t;
+        writeInt(offset + 1, (int) epochSecond);
+        writeShort(offset + 5, 0);
+        writeInt(offset + 7, Float.floatToIntBits((float) peak));
+        openEvent[t] = eventCount++;
+    }
+
+    void extend(EventType type, long epochSecond, double value) {
+        int t = type.ordinal();
+        openLast[t] = epochSecond;
+        int index = openEvent[t];
+        if (index < 0) {
+            return;
+        }
+        int offset = index * EVENT_BYTES;
+        writeShort(offset + 5, (int) Math.min(Short.MAX_VALUE, epochSecond - openSince[t]));
+        if (value > Float.intBitsToFloat(readInt(offset + 7))) {
+            writeInt(offset + 7, Float.floatToIntBits((float) value));
+        }
+    }
+
+    void close(EventType type) {
+        openEvent[type.ordinal()] = CLOSED;
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96 + eventCount * EVENT_BYTES);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(lastSpeedSecond);
+            out.writeDouble(lastSpeed);
+            out.writeLong(drivingSeconds);
+            out.writeByte(TYPES);
+            for (int t = 0; t < TYPES; t++) {
+                out.writeInt(counts[t]);
+                out.writeInt(openEvent[t]);
+                out.writeLong(openSince[t]);
+                out.writeLong(openLast[t]);
+            }
+            out.writeShort(eventCount);
+            out.write(events, 0, eventCount * EVENT_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param data Output of {@link #encode()}, null or empty for a new trip
+     */
+    public static DrivingBehaviour decode(byte[] data) {
+        DrivingBehaviour behaviour = new DrivingBehaviour();
+        if (data == null || data.length == 0) {
+            return behaviour;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown driving behaviour format " + version);
+            }
+            behaviour.lastSpeedSecond = in.readLong();
+            behaviour.lastSpeed = in.readDouble();
+            behaviour.drivingSeconds = in.readLong();
+            int types = in.readUnsignedByte();
+            for (int t = 0; t < types; t++) {
+                behaviour.counts[t] = in.readInt();
+                behaviour.openEvent[t] = in.readInt();
+                behaviour.openSince[t] = in.readLong();
+                behaviour.openLast[t] = in.readLong();
+            }
+            behaviour.eventCount = in.readUnsignedShort();
+            behaviour.events = in.readNBytes(behaviour.eventCount * EVENT_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return behaviour;
+    }
+
+    private int readInt(int offset) {
+        return (events[offset] & 0xFF) << 24 | (events[offset + 1] & 0xFF) << 16
+                | (events[offset + 2] & 0xFF) << 8 | events[offset + 3] & 0xFF;
+    }
+
+    private int readShort(int offset) {
+        return (events[offset] & 0xFF) << 8 | events[offset + 1] & 0xFF;
+    }
+
+    private void writeInt(int offset, int value) {
+        events[offset] = (byte) (value >>> 24);
+        events[offset + 1] = (byte) (value >>> 16);
+        events[offset + 2] = (byte) (value >>> 8);
+        events[offset + 3] = (byte) value;
+    }
+
+    private void writeShort(int offset, int value) {
+        events[offset] = (byte) (value >>> 8);
+        events[offset + 1] = (byte) value;
+    }
+}
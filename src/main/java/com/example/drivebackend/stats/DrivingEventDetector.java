@@ -0,0 +1,102 @@
+package com.example.drivebackend.stats;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.drivebackend.stats.DrivingBehaviour.EventType;
+
+/**
+ * Streaming detection of harsh acceleration, harsh braking and over-revving. Acceleration comes from the speed
+ * difference to the previous point of the trip, which may be in the previous upload. An episode above a threshold
+ * counts as one event, its record is extended while the condition holds. Points must arrive in time order, as
+ * {@link SignalStatisticsEngine} feeds them.
+ */
+@Component
+public class DrivingEventDetector {
+
+    private static final double KMH_TO_MS = 1 / 3.6;
+    // Kurze Fahrten sollen nicht schon mit einem Ereignis auf 0 fallen
+    private static final double MIN_SCORE_HOURS = 0.25;
+
+    private final double harshAcceleration;
+    private final double harshBraking;
+    private final double overRevRpm;
+    private final long maxGapSeconds;
+    private final double penaltyPerEventHour;
+
+    /**
+     * @param harshAcceleration Acceleration in m/s² from which an acceleration counts as harsh
+     * @param harshBraking Deceleration in m/s² (positive) from which braking counts as harsh
+     * @param overRevRpm Engine speed from which the engine counts as over-revved
+     * @param maxGap Longest gap between two points that is still used for acceleration and driving time
+     * @param penaltyPerEventHour Points deducted from 100 per event and hour of driving
+     */
+    public DrivingEventDetector(@Value("${app.trips.behaviour.harsh-acceleration:3.0}") double harshAcceleration,
+                                @Value("${app.trips.behaviour.harsh-braking:3.5}") double harshBraking,
+                                @Value("${app.trips.behaviour.over-rev:4500}") double overRevRpm,
+                                @Value("${app.trips.behaviour.max-gap:3s}") Duration maxGap,
+                                @Value("${app.trips.behaviour.penalty:10}") double penaltyPerEventHour) {
+        this.harshAcceleration = harshAcceleration;
+        this.harshBraking = harshBraking;
+        this.overRevRpm = overRevRpm;
+        this.maxGapSeconds = maxGap.toSeconds();
+        this.penaltyPerEventHour = penaltyPerEventHour;
+    }
+
+    public void accept(long epochSecond, Map<?, ?> point, DrivingBehaviour state) {
+        if (point.get("speed") instanceof Number speedValue) {
+            double speed = speedValue.doubleValue();
+            boolean hasLast = state.lastSpeedSecond != Long.MIN_VALUE;
+            long elapsed = hasLast ? epochSecond - state.lastSpeedSecond : 0;
+            if (hasLast && elapsed > 0 && elapsed <= maxGapSeconds) {
+                double acceleration = (speed - state.lastSpeed) * KMH_TO_MS / elapsed;
+                track(state, EventType.HARSH_ACCELERATION, acceleration >= harshAcceleration, epochSecond, acceleration);
+                track(state, EventType.HARSH_BRAKING, -acceleration >= harshBraking, epochSecond, -acceleration);
+                if (speed > 0 || state.lastSpeed > 0) {
+                    state.drivingSeconds += elapsed;
+                }
+            } else if (elapsed > 0) {
+                // Nach einer Lücke ist die Differenz keine Beschleunigung mehr
+                state.close(EventType.HARSH_ACCELERATION);
+                state.close(EventType.HARSH_BRAKING);
+            }
+            // Doppelte oder ältere Sekunden (verspätete Uploads) verschieben den Bezugspunkt nicht
+            if (!hasLast || elapsed > 0) {
+                state.lastSpeedSecond = epochSecond;
+                state.lastSpeed = speed;
+            }
+        }
+        if (point.get("rpm") instanceof Number rpm) {
+            double value = rpm.doubleValue();
+            track(state, EventType.OVER_REV, value >= overRevRpm, epochSecond, value);
+        }
+    }
+
+    /**
+     * 100 minus {@code app.trips.behaviour.penalty} per event and hour of driving (at least a quarter of an hour),
+     * not below 0.
+     */
+    public float score(DrivingBehaviour state) {
+        double hours = Math.max(state.drivingSeconds() / 3600.0, MIN_SCORE_HOURS);
+        double score = 100 - penaltyPerEventHour * state.totalEvents() / hours;
+        return (float) (Math.round(Math.max(0, score) * 10) / 10.0);
+    }
+
+    private void track(DrivingBehaviour state, EventType type, boolean active, long epochSecond, double value) {
+        if (!active) {
+            state.close(type);
+            return;
+        }
+        if (state.isOpen(type) && epochSecond - state.openLast(type) > maxGapSeconds) {
+            state.close(type);
+        }
+        if (state.isOpen(type)) {
+            state.extend(type, epochSecond, value);
+        } else {
+            state.open(type, epochSecond, value);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.drivebackend.stats;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records {@value #SIGNAL} as 1 while the speed is above the threshold and 0 otherwise, so its time integral
+ * is the moving time and its time-weighted mean the share of the trip spent moving.
+ */
+@Component
+public class MovingTimeMetric implements TripMetric {
+
+    public static final String SIGNAL = "moving";
+
+    private final double minSpeed;
+
+    public MovingTimeMetric(@Value("${app.trips.stats.moving-speed:1}") double minSpeed) {
+        this.minSpeed = minSpeed;
+    }
+
+    @Override
+    public void accept(long epochSecond, Map<?, ?> point, Recorder recorder) {
+        if (point.get("speed") instanceof Number speed) {
+            recorder.record(SIGNAL, speed.doubleValue() >= minSpeed ? 1 : 0);
+        }
+    }
+}
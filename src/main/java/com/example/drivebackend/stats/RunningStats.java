@@ -0,0 +1,154 @@
+package com.example.drivebackend.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Running statistics of one signal: count, Welford mean and variance, min/max and a time-weighted mean. For the
+ * latter each value holds until the next point, at most {@code maxHoldSeconds}, so pauses between uploads do not
+ * count. Primitive fields only; two instances can be merged (Chan et al.), e.g. several trips into one total.
+ */
+public final class RunningStats {
+
+    /** Size of one encoded instance in bytes. */
+    static final int ENCODED_BYTES = 9 * Long.BYTES;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    // Zeitintegral (Wert * Sekunden) und gewichtete Dauer für den zeitgewichteten Mittelwert
+    private double integral;
+    private double durationSeconds;
+    private long lastSecond = Long.MIN_VALUE;
+    private double lastValue;
+
+    public void add(long epochSecond, double value, long maxHoldSeconds) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        // Punkte außer der Reihe zählen nur für Mittelwert/Varianz, nicht für die Zeitgewichtung
+        if (epochSecond > lastSecond) {
+            if (lastSecond != Long.MIN_VALUE) {
+                long held = Math.min(epochSecond - lastSecond, maxHoldSeconds);
+                integral += lastValue * held;
+                durationSeconds += held;
+            }
+            lastSecond = epochSecond;
+            lastValue = value;
+        }
+    }
+
+    /**
+     * Add the points of {@code other}. The time between the last point of one and the first of the other is not
+     * weighted, which only matters when merging adjacent pieces of the same trip.
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            copyFrom(other);
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        integral += other.integral;
+        durationSeconds += other.durationSeconds;
+        if (other.lastSecond > lastSecond) {
+            lastSecond = other.lastSecond;
+            lastValue = other.lastValue;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    /** Sample variance, 0 for fewer than two points. */
+    public double variance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    public double stddev() {
+        return Math.sqrt(variance());
+    }
+
+    public double min() {
+        return count > 0 ? min : 0;
+    }
+
+    public double max() {
+        return count > 0 ? max : 0;
+    }
+
+    /** Mean weighted by how long each value held; the plain mean while there is no duration yet. */
+    public double timeWeightedMean() {
+        return durationSeconds > 0 ? integral / durationSeconds : mean;
+    }
+
+    /** Sum of value times held seconds, e.g. the moving time for a 0/1 signal. */
+    public double integral() {
+        return integral;
+    }
+
+    public double durationSeconds() {
+        return durationSeconds;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeDouble(integral);
+        out.writeDouble(durationSeconds);
+        out.writeLong(lastSecond);
+        out.writeDouble(lastValue);
+    }
+
+    static RunningStats read(DataInput in) throws IOException {
+        RunningStats stats = new RunningStats();
+        stats.count = in.readLong();
+        stats.mean = in.readDouble();
+        stats.m2 = in.readDouble();
+        stats.min = in.readDouble();
+        stats.max = in.readDouble();
+        stats.integral = in.readDouble();
+        stats.durationSeconds = in.readDouble();
+        stats.lastSecond = in.readLong();
+        stats.lastValue = in.readDouble();
+        return stats;
+    }
+
+    private void copyFrom(RunningStats other) {
+        count = other.count;
+        mean = other.mean;
+        m2 = other.m2;
+        min = other.min;
+        max = other.max;
+        integral = other.integral;
+        durationSeconds = other.durationSeconds;
+        lastSecond = other.lastSecond;
+        lastValue = other.lastValue;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.drivebackend.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Value distribution per signal as auto-resizing HdrHistograms, so percentiles and histograms of any number of
+ * trips come from merging a few hundred bytes per trip instead of the raw points. Values are recorded as whole
+ * numbers (negative ones as 0) with {@code significantDigits} precision, which suits speed and rpm.
+ * <p>
+ * Binary format: a format version, the number of signals and per signal its name, the length and the
+ * HdrHistogram encoding. {@link #decodeSignal} skips the other signals without decoding them.
+ */
+public final class SignalSketches {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int significantDigits;
+    private final Map<String, Histogram> sketches = new LinkedHashMap<>();
+
+    public SignalSketches(int significantDigits) {
+        this.significantDigits = significantDigits;
+    }
+
+    public void record(String signal, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        sketches.computeIfAbsent(signal, ignored -> newHistogram(significantDigits))
+                .recordValue(Math.max(0, Math.round(value)));
+    }
+
+    public Map<String, Histogram> sketches() {
+        return Collections.unmodifiableMap(sketches);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + sketches.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(sketches.size());
+            for (Map.Entry<String, Histogram> sketch : sketches.entrySet()) {
+                ByteBuffer buffer = ByteBuffer.allocate(sketch.getValue().getNeededByteBufferCapacity());
+                int length = sketch.getValue().encodeIntoByteBuffer(buffer);
+                out.writeUTF(sketch.getKey());
+                out.writeInt(length);
+                out.write(buffer.array(), 0, length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param data Output of {@link #encode()}, null or empty for no sketches yet
+     * @param significantDigits Precision of signals that are added later
+     */
+    public static SignalSketches decode(byte[] data, int significantDigits) {
+        SignalSketches sketches = new SignalSketches(significantDigits);
+        read(data, null, (name, histogram) -> sketches.sketches.put(name, histogram));
+        return sketches;
+    }
+
+    /**
+     * Only the sketch of {@code signal}, or null if the data has none.
+     */
+    public static Histogram decodeSignal(byte[] data, String signal) {
+        Histogram[] found = new Histogram[1];
+        read(data, signal, (name, histogram) -> found[0] = histogram);
+        return found[0];
+    }
+
+    private interface SketchConsumer {
+
+        void accept(String signal, Histogram histogram);
+    }
+
+    private static void read(byte[] data, String only, SketchConsumer consumer) {
+        if (data == null || data.length == 0) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown signal sketch format " + version);
+            }
+            int size = in.readUnsignedShort();
+            for (int i = 0; i < size; i++) {
+                String name = in.readUTF();
+                int length = in.readInt();
+                if (only != null && !only.equals(name)) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+                Histogram histogram = Histogram.decodeFromByteBuffer(ByteBuffer.wrap(data, data.length - in.available(), length), 0);
+                histogram.setAutoResize(true);
+                in.skipNBytes(length);
+                consumer.accept(name, histogram);
+                if (only != null) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Empty sketch to merge others into with {@link Histogram#add}.
+     */
+    public static Histogram newHistogram(int significantDigits) {
+        return new Histogram(significantDigits);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.drivebackend.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@link RunningStats} of all signals of one trip or device, stored as a small binary blob: a format
+ * version, the number of signals and per signal its name plus {@value RunningStats#ENCODED_BYTES} bytes.
+ */
+public final class SignalStatistics {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Map<String, RunningStats> signals = new LinkedHashMap<>();
+
+    public RunningStats signal(String name) {
+        return signals.computeIfAbsent(name, ignored -> new RunningStats());
+    }
+
+    public Map<String, RunningStats> signals() {
+        return Collections.unmodifiableMap(signals);
+    }
+
+    public boolean isEmpty() {
+        return signals.isEmpty();
+    }
+
+    public void merge(SignalStatistics other) {
+        other.signals.forEach((name, stats) -> signal(name).merge(stats));
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(3 + signals.size() * (16 + RunningStats.ENCODED_BYTES));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(signals.size());
+            for (Map.Entry<String, RunningStats> signal : signals.entrySet()) {
+                out.writeUTF(signal.getKey());
+                signal.getValue().write(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param data Output of {@link #encode()}, null or empty for no statistics yet
+     */
+    public static SignalStatistics decode(byte[] data) {
+        SignalStatistics statistics = new SignalStatistics();
+        if (data == null || data.length == 0) {
+            return statistics;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown signal statistics format " + version);
+            }
+            int size = in.readUnsignedShort();
+            for (int i = 0; i < size; i++) {
+                statistics.signals.put(in.readUTF(), RunningStats.read(in));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.drivebackend.stats;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the {@code timed_data} of an upload into {@link SignalStatistics}: every configured signal directly,
+ * plus whatever the {@link TripMetric} beans derive from a point. The signals in {@code app.trips.sketches.signals}
+ * also go into {@link SignalSketches}, and the trip's {@link DrivingBehaviour} gets every point through the
+ * {@link DrivingEventDetector}. Points are processed in time order, one pass, into any number of targets at once
+ * (trip and device).
+ */
+@Component
+public class SignalStatisticsEngine {
+
+    private final String[] signals;
+    private final Set<String> sketchSignals;
+    private final List<TripMetric> metrics;
+    private final DrivingEventDetector detector;
+    private final long maxHoldSeconds;
+    private final int sketchPrecision;
+
+    public SignalStatisticsEngine(List<TripMetric> metrics,
+                                  DrivingEventDetector detector,
+                                  @Value("${app.trips.stats.signals:speed,rpm,coolant_temp,intake_temp,oil_temp,fuel_level,temp}") List<String> signals,
+                                  @Value("${app.trips.stats.max-hold:10s}") Duration maxHold,
+                                  @Value("${app.trips.sketches.signals:speed,rpm}") List<String> sketchSignals,
+                                  @Value("${app.trips.sketches.precision:2}") int sketchPrecision) {
+        this.metrics = List.copyOf(metrics);
+        this.detector = detector;
+        this.sketchSignals = Set.copyOf(trimmed(sketchSignals));
+        // Sketch-Signale werden auch dann gelesen, wenn sie keine eigene Statistik haben sollen
+        Set<String> read = new LinkedHashSet<>(trimmed(signals));
+        read.addAll(this.sketchSignals);
+        this.signals = read.toArray(String[]::new);
+        this.maxHoldSeconds = maxHold.toSeconds();
+        this.sketchPrecision = sketchPrecision;
+    }
+
+    /**
+     * Sketches from their stored form, new signals get the configured precision.
+     */
+    public SignalSketches sketches(byte[] data) {
+        return SignalSketches.decode(data, sketchPrecision);
+    }
+
+    public boolean hasSketch(String signal) {
+        return sketchSignals.contains(signal);
+    }
+
+    public int sketchPrecision() {
+        return sketchPrecision;
+    }
+
+    public DrivingEventDetector detector() {
+        return detector;
+    }
+
+    /**
+     * @param timedData {@code timed_data} of one upload: epoch-2000 seconds to the values of that second
+     * @param targets Statistics to update, e.g. the trip and the device
+     */
+    public void accept(Map<String, Object> timedData, SignalStatistics... targets) {
+        accept(timedData, List.of(targets), List.of());
+    }
+
+    /**
+     * @param timedData {@code timed_data} of one upload
+     * @param statistics Statistics to update
+     * @param sketches Sketches to update, e.g. only the trip
+     */
+    public void accept(Map<String, Object> timedData, List<SignalStatistics> statistics, List<SignalSketches> sketches) {
+        accept(timedData, statistics, sketches, null);
+    }
+
+    /**
+     * @param timedData {@code timed_data} of one upload
+     * @param statistics Statistics to update
+     * @param sketches Sketches to update
+     * @param behaviour Driving events of the trip the upload belongs to (optional)
+     */
+    public void accept(Map<String, Object> timedData, List<SignalStatistics> statistics, List<SignalSketches> sketches,
+                       DrivingBehaviour behaviour) {
+        if (timedData == null || timedData.isEmpty() || (statistics.isEmpty() && sketches.isEmpty() && behaviour == null)) {
+            return;
+        }
+        long[] times = new long[timedData.size()];
+        Map<?, ?>[] points = new Map<?, ?>[timedData.size()];
+        int size = 0;
+        boolean sorted = true;
+        for (Map.Entry<String, Object> entry : timedData.entrySet()) {
+            if (!(entry.getValue() instanceof Map<?, ?> point)) {
+                continue;
+            }
+            long time;
+            try {
+                time = Long.parseLong(entry.getKey());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            sorted &= size == 0 || time >= times[size - 1];
+            times[size] = time;
+            points[size] = point;
+            size++;
+        }
+        if (!sorted) {
+            sortByTime(times, points, size);
+        }
+
+        TargetRecorder recorder = new TargetRecorder(statistics, sketches, sketchSignals, maxHoldSeconds);
+        for (int i = 0; i < size; i++) {
+            recorder.epochSecond = times[i];
+            Map<?, ?> point = points[i];
+            for (String signal : signals) {
+                if (point.get(signal) instanceof Number value) {
+                    recorder.record(signal, value.doubleValue());
+                }
+            }
+            for (TripMetric metric : metrics) {
+                metric.accept(times[i], point, recorder);
+            }
+            if (behaviour != null) {
+                detector.accept(times[i], point, behaviour);
+            }
+        }
+    }
+
+    // Die Dongles schicken aufsteigend, die Map kommt aber ungeordnet an; Insertion Sort reicht für fast sortierte Uploads
+    private static void sortByTime(long[] times, Map<?, ?>[] points, int size) {
+        for (int i = 1; i < size; i++) {
+            long time = times[i];
+            Map<?, ?> point = points[i];
+            int j = i - 1;
+            while (j >= 0 && times[j] > time) {
+                times[j + 1] = times[j];
+                points[j + 1] = points[j];
+                j--;
+            }
+            times[j + 1] = time;
+            points[j + 1] = point;
+        }
+    }
+
+    private static List<String> trimmed(List<String> signals) {
+        return signals.stream().map(String::trim).filter(signal -> !signal.isEmpty()).toList();
+    }
+
+    private static final class TargetRecorder implements TripMetric.Recorder {
+
+        private final List<SignalStatistics> statistics;
+        private final List<SignalSketches> sketches;
+        private final Set<String> sketchSignals;
+        private final long maxHoldSeconds;
+        private long epochSecond;
+
+        TargetRecorder(List<SignalStatistics> statistics, List<SignalSketches> sketches, Set<String> sketchSignals, long maxHoldSeconds) {
+            this.statistics = statistics;
+            this.sketches = sketches;
+            this.sketchSignals = sketchSignals;
+            this.maxHoldSeconds = maxHoldSeconds;
+        }
+
+        @Override
+        public void record(String signal, double value) {
+            for (SignalStatistics target : statistics) {
+                target.signal(signal).add(epochSecond, value, maxHoldSeconds);
+            }
+            if (!sketches.isEmpty() && sketchSignals.contains(signal)) {
+                for (SignalSketches target : sketches) {
+                    target.record(signal, value);
+                }
+            }
+        }
+    }
+}
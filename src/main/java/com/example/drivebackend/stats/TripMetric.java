@@ -0,0 +1,25 @@
+package com.example.drivebackend.stats;
+
+import java.util.Map;
+
+/**
+ * A derived metric of the {@link SignalStatisticsEngine}. Register an implementation as a Spring bean to add
+ * one: it sees every {@code timed_data} point of an upload in time order and records values under its own
+ * signal name. Plain signals such as speed or rpm need no metric, they are configured in
+ * {@code app.trips.stats.signals}.
+ */
+public interface TripMetric {
+
+    /**
+     * @param epochSecond Time of the point (epoch-2000 seconds, as in {@code timed_data})
+     * @param point Values of the point by signal name, as uploaded
+     * @param recorder Target for the values of this metric
+     */
+    void accept(long epochSecond, Map<?, ?> point, Recorder recorder);
+
+    @FunctionalInterface
+    interface Recorder {
+
+        void record(String signal, double value);
+    }
+}
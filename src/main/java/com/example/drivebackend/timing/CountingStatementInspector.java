@@ -0,0 +1,15 @@
+package com.example.drivebackend.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares for the current request.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTimings.recordStatement();
+        return sql;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.drivebackend.timing;
+
+import java.util.Locale;
+
+/**
+ * Database and JSON time of the current request, collected per thread by {@code ServerTimingFilter}.
+ * Outside of a request (jobs, async streaming) all record methods are no-ops.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long repositoryNanos;
+    private int repositoryCalls;
+    private int statements;
+    private long jsonNanos;
+    private int jsonConversions;
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void recordRepositoryCall(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.repositoryNanos += nanos;
+            timings.repositoryCalls++;
+        }
+    }
+
+    public static void recordStatement() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.statements++;
+        }
+    }
+
+    public static void recordJsonConversion(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.jsonNanos += nanos;
+            timings.jsonConversions++;
+        }
+    }
+
+    public double totalMillis() {
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    public double repositoryMillis() {
+        return repositoryNanos / 1e6;
+    }
+
+    public int repositoryCalls() {
+        return repositoryCalls;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public double jsonMillis() {
+        return jsonNanos / 1e6;
+    }
+
+    public int jsonConversions() {
+        return jsonConversions;
+    }
+
+    /**
+     * Value of the {@code Server-Timing} header. Repository time includes the JSON conversion of loaded
+     * entities, the entries overlap and do not add up to the total.
+     */
+    public String toServerTiming() {
+        return String.format(Locale.ROOT,
+                "db;dur=%.1f;desc=\"%d repository calls\", sql;desc=\"%d statements\", json;dur=%.1f;desc=\"%d conversions\", total;dur=%.1f",
+                repositoryMillis(), repositoryCalls, statements, jsonMillis(), jsonConversions, totalMillis());
+    }
+}
@@ -0,0 +1,6 @@
+-- Merker für die Kompaktierung: einmal geprüfte beendete Fahrten fallen aus der Suche heraus, statt bei jedem Lauf
+-- alle historischen Fahrten erneut auf verbliebene Zeilen zu prüfen. Bestehende Fahrten werden beim ersten Lauf
+-- einmal durchgegangen.
+ALTER TABLE trips ADD COLUMN compacted BOOLEAN DEFAULT FALSE NOT NULL;
+
+CREATE INDEX idx_trips_compaction ON trips (compacted, end_time);
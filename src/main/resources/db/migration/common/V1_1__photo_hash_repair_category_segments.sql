@@ -0,0 +1,26 @@
+-- Schemaänderungen, die nach dem Ausgangsschema (V1) dazugekommen sind: Foto-Hash statt BYTEA-Spalte,
+-- Kategorie und Listen-Index der Reparaturnotizen, Metadaten der archivierten Telemetrie-Segmente.
+-- Läuft auch auf gebaselineten Datenbanken; dort kann ein Teil davon schon von ddl-auto=update
+-- angelegt worden sein, daher durchgehend IF NOT EXISTS. Muss auf H2 und PostgreSQL laufen.
+
+-- device.note_photo bleibt, bis LegacyPhotoMigration die alten Fotos in den Blob-Store verschoben hat
+ALTER TABLE device ADD COLUMN IF NOT EXISTS note_photo_hash VARCHAR(64);
+
+ALTER TABLE repair_note ADD COLUMN IF NOT EXISTS category VARCHAR(50);
+
+CREATE INDEX IF NOT EXISTS idx_repair_note_device_date ON repair_note (device_id, note_date);
+
+CREATE TABLE IF NOT EXISTS telemetry_segment (
+    id             UUID                        NOT NULL,
+    device_id      VARCHAR(255)                NOT NULL,
+    month_start    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    min_start_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    max_start_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    sample_count   INTEGER                     NOT NULL,
+    file_name      VARCHAR(500)                NOT NULL,
+    size_bytes     BIGINT                      NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT telemetry_segment_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_telemetry_segment_device_time ON telemetry_segment (device_id, min_start_time);
@@ -0,0 +1,50 @@
+-- Ausgangsschema, wie es ddl-auto=update vor der Einführung von Flyway erzeugt hat.
+-- Bestehende Datenbanken werden auf Version 1 gebaselined (spring.flyway.baseline-on-migrate),
+-- dieses Skript läuft also nur gegen leere Datenbanken. Es darf deshalb nichts enthalten, was es
+-- in diesen Datenbanken noch nicht gibt; spätere Änderungen gehören in eigene Migrationen (ab V1_1).
+-- Muss auf H2 und PostgreSQL laufen.
+
+CREATE TABLE device (
+    device_id               VARCHAR(255) NOT NULL,
+    name                    VARCHAR(255) NOT NULL,
+    note_photo              BYTEA,
+    note_photo_content_type VARCHAR(100),
+    CONSTRAINT device_pkey PRIMARY KEY (device_id)
+);
+
+CREATE TABLE trips (
+    id               UUID                        NOT NULL,
+    device_id        VARCHAR(255)                NOT NULL,
+    start_time       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    end_time         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    start_location   VARCHAR(255),
+    end_location     VARCHAR(255),
+    note             VARCHAR(255),
+    trip_distance_km REAL,
+    telemetry_count  INTEGER,
+    CONSTRAINT trips_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_trips_device FOREIGN KEY (device_id) REFERENCES device (device_id)
+);
+
+CREATE TABLE telemetry (
+    id              UUID                        NOT NULL,
+    device_id       VARCHAR(255)                NOT NULL,
+    trip_id         UUID,
+    start_time      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    end_time        TIMESTAMP(6) WITH TIME ZONE,
+    timed_data      TEXT,
+    aggregated_data TEXT,
+    CONSTRAINT telemetry_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_telemetry_device FOREIGN KEY (device_id) REFERENCES device (device_id),
+    CONSTRAINT fk_telemetry_trip FOREIGN KEY (trip_id) REFERENCES trips (id)
+);
+
+CREATE TABLE repair_note (
+    id          UUID          NOT NULL,
+    device_id   VARCHAR(255)  NOT NULL,
+    note_text   VARCHAR(2000) NOT NULL,
+    note_date   DATE          NOT NULL,
+    note_price  NUMERIC(12,2) NOT NULL,
+    CONSTRAINT repair_note_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_repair_note_device FOREIGN KEY (device_id) REFERENCES device (device_id)
+);
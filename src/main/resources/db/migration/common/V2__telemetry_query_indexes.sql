@@ -0,0 +1,12 @@
+-- Indizes für die Prädikate, die TelemetrySampleRepository tatsächlich ausführt.
+-- IF NOT EXISTS, weil gebaselinete Datenbanken einzelne Indizes schon haben können
+-- (z.B. idx_telemetry_device_start aus der Partitionierung).
+
+-- Zeitraumabfragen pro Gerät, "latest" (rückwärts gelesen) und Streaming-Export
+CREATE INDEX IF NOT EXISTS idx_telemetry_device_start ON telemetry (device_id, start_time);
+
+-- Telemetrie einer Fahrt, optional mit Zeitfenster, bereits in start_time-Reihenfolge
+CREATE INDEX IF NOT EXISTS idx_telemetry_device_trip_start ON telemetry (device_id, trip_id, start_time);
+
+-- Retention: Geräte mit Daten vor dem Stichtag bzw. in einem Monat, ohne die Tabelle zu lesen
+CREATE INDEX IF NOT EXISTS idx_telemetry_start_device ON telemetry (start_time, device_id);
@@ -0,0 +1,7 @@
+-- Gerätespezifische API-Keys. Gespeichert wird nur der SHA-256 (hex) des Keys,
+-- api_key_updated_at dient dem inkrementellen Abgleich des In-Memory-Index.
+ALTER TABLE device ADD COLUMN api_key_hash VARCHAR(64);
+ALTER TABLE device ADD COLUMN api_key_updated_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_device_api_key_hash ON device (api_key_hash);
+CREATE INDEX IF NOT EXISTS idx_device_api_key_updated ON device (api_key_updated_at);
@@ -0,0 +1,2 @@
+-- Fahrtlücke pro Gerät in Sekunden, NULL = app.trips.gap
+ALTER TABLE device ADD COLUMN trip_gap_seconds INTEGER;
@@ -0,0 +1,16 @@
+-- Laufende Statistiken der Signale (Welford, Min/Max, zeitgewichtet), binär kodiert von SignalStatistics.
+-- Pro Fahrt in trip_signal_data neben trips, damit Fahrtenlisten, Tageszeit-Verteilung und der Ingest die Blobs
+-- nicht mitladen; pro Gerät in einer eigenen Tabelle, damit der Ingest die gecachte Gerätezeile nicht anfasst.
+CREATE TABLE trip_signal_data (
+    trip_id      UUID  NOT NULL,
+    signal_stats BYTEA,
+    CONSTRAINT trip_signal_data_pkey PRIMARY KEY (trip_id),
+    CONSTRAINT fk_trip_signal_data_trip FOREIGN KEY (trip_id) REFERENCES trips (id) ON DELETE CASCADE
+);
+
+CREATE TABLE device_signal_stats (
+    device_id    VARCHAR(255) NOT NULL,
+    signal_stats BYTEA        NOT NULL,
+    CONSTRAINT device_signal_stats_pkey PRIMARY KEY (device_id),
+    CONSTRAINT fk_device_signal_stats_device FOREIGN KEY (device_id) REFERENCES device (device_id)
+);
@@ -0,0 +1,2 @@
+-- Verteilung von Geschwindigkeit und Drehzahl pro Fahrt als HdrHistogram, binär kodiert von SignalSketches
+ALTER TABLE trip_signal_data ADD COLUMN signal_sketches BYTEA;
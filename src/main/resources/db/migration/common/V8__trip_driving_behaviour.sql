@@ -0,0 +1,7 @@
+-- Fahrverhalten pro Fahrt, beim Ingest fortgeschrieben: Zähler und Score als Spalten in trips für Listen und
+-- Abfragen, Detektorzustand und Ereignisse binär kodiert von DrivingBehaviour in trip_signal_data.
+ALTER TABLE trips ADD COLUMN harsh_acceleration_count INTEGER;
+ALTER TABLE trips ADD COLUMN harsh_braking_count INTEGER;
+ALTER TABLE trips ADD COLUMN over_rev_count INTEGER;
+ALTER TABLE trips ADD COLUMN driving_score REAL;
+ALTER TABLE trip_signal_data ADD COLUMN driving_behaviour BYTEA;
@@ -0,0 +1,18 @@
+-- Kompaktierte Telemetrie abgeschlossener Fahrten: viele Samples pro Zeile als gzip-NDJSON (TelemetryChunkCodec).
+-- Die Zeitspanne steht als Spalten daneben, damit Bereichsabfragen nur die überlappenden Chunks lesen.
+CREATE TABLE telemetry_chunk (
+    id             UUID                        NOT NULL,
+    device_id      VARCHAR(255)                NOT NULL,
+    trip_id        UUID,
+    min_start_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    max_start_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    sample_count   INTEGER                     NOT NULL,
+    data           BYTEA                       NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT telemetry_chunk_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_telemetry_chunk_device FOREIGN KEY (device_id) REFERENCES device (device_id),
+    CONSTRAINT fk_telemetry_chunk_trip FOREIGN KEY (trip_id) REFERENCES trips (id)
+);
+
+CREATE INDEX idx_telemetry_chunk_device_time ON telemetry_chunk (device_id, min_start_time);
+CREATE INDEX idx_telemetry_chunk_device_trip ON telemetry_chunk (device_id, trip_id);
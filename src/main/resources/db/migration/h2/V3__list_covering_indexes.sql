@@ -0,0 +1,3 @@
+-- H2 kennt kein INCLUDE, daher nur der zusammengesetzte Schlüssel für /api/trips/list und time-of-day.
+-- Gegenstück zu postgresql/V3__list_covering_indexes.sql.
+CREATE INDEX IF NOT EXISTS idx_trips_device_start ON trips (device_id, start_time);
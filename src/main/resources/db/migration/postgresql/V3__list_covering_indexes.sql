@@ -0,0 +1,13 @@
+-- Covering-Indizes für die Listen-Endpunkte, damit PostgreSQL sie per Index-Only-Scan beantworten kann.
+
+-- /api/trips/list, time-of-day und Trip-Export: Gerät + Zeitraum, sortiert nach start_time,
+-- alle übrigen Spalten als Payload (ein Eintrag pro Fahrt, der Index bleibt klein)
+CREATE INDEX IF NOT EXISTS idx_trips_device_start ON trips (device_id, start_time)
+    INCLUDE (id, end_time, start_location, end_location, note, trip_distance_km, telemetry_count);
+
+-- Reparaturnotizen: Liste nach Datum und Kostenauswertungen ohne Heap-Zugriff
+DROP INDEX IF EXISTS idx_repair_note_device_date;
+CREATE INDEX idx_repair_note_device_date ON repair_note (device_id, note_date) INCLUDE (note_price, category);
+
+-- Volltextsuche, bisher beim Start von PostgresRepairNoteSearchService angelegt
+CREATE INDEX IF NOT EXISTS idx_repair_note_fts ON repair_note USING GIN (to_tsvector('german', note_text));
@@ -0,0 +1,372 @@
+package com.example.drivebackend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import com.example.drivebackend.entities.TripEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs every query of {@link TelemetrySampleRepository} and {@link TripRepository} against a seeded schema
+ * built by the Flyway migrations, captures the SQL Hibernate actually sends and fails if its plan contains a
+ * sequential scan over a table with more than {@link #MAX_SCANNED_ROWS} rows.
+ * <p>
+ * Runs against H2 by default. To check the PostgreSQL plans, point the test at a scratch database, e.g.
+ * {@code SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/plan_test mvn test -Dtest=RepositoryQueryPlanTest}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Repository query plan tests")
+class RepositoryQueryPlanTest {
+
+    private static final int MAX_SCANNED_ROWS = 1_000;
+    private static final int DEVICES = 20;
+    private static final int TRIPS_PER_DEVICE = 100;
+    private static final int SAMPLES_PER_TRIP = 10;
+    private static final Instant FIRST_TRIP = Instant.parse("2024-01-01T06:00:00Z");
+
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan \\*/");
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private TelemetrySampleRepository telemetrySampleRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private boolean postgres;
+
+    private final String deviceId = "device-07";
+    private UUID tripId;
+    private UUID sampleId;
+    private Instant since;
+    private Instant end;
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor(ObjectProvider<StatementRecorder> recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? recorder.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    // Außerhalb der Testtransaktion, damit ANALYZE echte Statistiken sammelt; die Daten bleiben für alle Tests stehen
+    @BeforeTransaction
+    void seedOnce() throws SQLException {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM device", Long.class) == 0) {
+            seed();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        tripId = jdbcTemplate.queryForObject(
+                "SELECT id FROM trips WHERE device_id = ? ORDER BY start_time OFFSET 50 ROWS FETCH FIRST 1 ROWS ONLY", UUID.class, deviceId);
+        sampleId = jdbcTemplate.queryForObject(
+                "SELECT id FROM telemetry WHERE trip_id = ? ORDER BY start_time FETCH FIRST 1 ROWS ONLY", UUID.class, tripId);
+        since = FIRST_TRIP.plus(Duration.ofDays(45));
+        end = since.plus(Duration.ofDays(7));
+    }
+
+    @Test
+    @DisplayName("TelemetrySampleRepository queries do not scan the telemetry table")
+    void telemetryQueriesUseIndexes() throws Exception {
+        // Act
+        List<RecordedStatement> statements = record(() -> {
+            telemetrySampleRepository.findTopByDevice_DeviceIdOrderByStartTimeDesc(deviceId);
+            telemetrySampleRepository.findLatestTripIds(deviceId, Limit.of(1));
+            telemetrySampleRepository.findAllByDeviceIdInRange(deviceId, since, end);
+            telemetrySampleRepository.findAllByDeviceIdAndTripIdInRange(deviceId, tripId, since, end);
+            telemetrySampleRepository.findAllByDevice_DeviceIdOrderByStartTimeAsc(deviceId);
+            telemetrySampleRepository.findAllByDevice_DeviceIdAndStartTimeGreaterThanEqualOrderByStartTimeAsc(deviceId, end);
+            telemetrySampleRepository.findAllByDevice_DeviceIdAndStartTimeLessThanEqualOrderByStartTimeAsc(deviceId, since);
+            telemetrySampleRepository.findAllByDevice_DeviceIdAndTrip_IdOrderByStartTimeAsc(deviceId, tripId);
+            telemetrySampleRepository.findAllByDevice_DeviceIdAndTrip_IdAndStartTimeGreaterThanEqualOrderByStartTimeAsc(deviceId, tripId, since);
+            telemetrySampleRepository.findAllByDevice_DeviceIdAndTrip_IdAndStartTimeLessThanEqualOrderByStartTimeAsc(deviceId, tripId, end);
+            telemetrySampleRepository.findByTrip_IdAndDevice_DeviceId(tripId, deviceId);
+            try (Stream<?> stream = telemetrySampleRepository.streamAllByDeviceIdInRange(deviceId, since, end)) {
+                stream.forEach(row -> { });
+            }
+            telemetrySampleRepository.findDevicesWithTelemetryBefore(FIRST_TRIP.plus(Duration.ofDays(1)));
+            telemetrySampleRepository.findDeviceIdsInRange(since, end);
+            telemetrySampleRepository.findResponsesByDeviceIdAndTripId(deviceId, tripId);
+            telemetrySampleRepository.findSegmentationChunk(deviceId, since, new UUID(0, 0), end, Limit.of(500));
+            telemetrySampleRepository.reassignTrip(deviceId, since, end,
+                    entityManager.getReference(TripEntity.class, tripId), entityManager.getReference(TripEntity.class, new UUID(0, 0)));
+            telemetrySampleRepository.deleteAllByIdIn(List.of(sampleId));
+        });
+
+        // Assert
+        assertThat(statements).hasSizeGreaterThanOrEqualTo(18);
+        assertNoLargeSequentialScans(statements);
+    }
+
+    @Test
+    @DisplayName("TripRepository queries do not scan the trips table")
+    void tripQueriesUseIndexes() throws Exception {
+        // Arrange
+        Pageable page = PageRequest.of(1, 20, Sort.by("startTime").descending());
+
+        // Act
+        List<RecordedStatement> statements = record(() -> {
+            tripRepository.findByDevice_DeviceId(deviceId, page);
+            tripRepository.findByDevice_DeviceIdAndStartTimeBetween(deviceId, since, end, page);
+            tripRepository.findByDevice_DeviceIdAndStartTimeAfter(deviceId, end, page);
+            tripRepository.findByDevice_DeviceIdAndStartTimeBefore(deviceId, since, page);
+            tripRepository.findAllByDevice_DeviceIdAndStartTimeBetween(deviceId, since, end);
+            tripRepository.findAllByDevice_DeviceId(deviceId);
+            try (Stream<?> stream = tripRepository.streamAllByDeviceIdInRange(deviceId, since, end)) {
+                stream.forEach(row -> { });
+            }
+            tripRepository.findByIdForUpdate(tripId);
+            tripRepository.findSignalSketchesInRange(deviceId, since, end);
+            tripRepository.findVersionsOverlapping(deviceId, since, end);
+            tripRepository.findIdsByDeviceIdInRange(deviceId, since, end);
+            tripRepository.findUncompactedFinishedBefore(since, Limit.of(100));
+            tripRepository.resetCompactedByDeviceId(deviceId);
+        });
+
+        // Assert
+        assertThat(statements).hasSizeGreaterThanOrEqualTo(13);
+        assertNoLargeSequentialScans(statements);
+    }
+
+    private List<RecordedStatement> record(ThrowingRunnable queries) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statementRecorder.start();
+        try {
+            queries.run();
+            entityManager.flush();
+        } finally {
+            statementRecorder.stop();
+        }
+        return statementRecorder.statements();
+    }
+
+    private void assertNoLargeSequentialScans(List<RecordedStatement> statements) throws Exception {
+        List<String> violations = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (RecordedStatement statement : statements) {
+                QueryPlan plan = explain(connection, statement);
+                for (String table : plan.sequentiallyScannedTables()) {
+                    long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+                    if (rows > MAX_SCANNED_ROWS) {
+                        violations.add("Sequential scan on " + table + " (" + rows + " rows): " + statement.sql() + "\n" + plan.text());
+                    }
+                }
+            }
+        }
+        assertThat(violations).isEmpty();
+    }
+
+    private QueryPlan explain(Connection connection, RecordedStatement statement) throws Exception {
+        String explain = postgres ? "EXPLAIN (FORMAT JSON) " : "EXPLAIN ";
+        try (PreparedStatement ps = connection.prepareStatement(explain + statement.sql())) {
+            statement.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                String plan = rs.getString(1);
+                List<String> tables = new ArrayList<>();
+                if (postgres) {
+                    collectSeqScans(objectMapper.readTree(plan).get(0).get("Plan"), tables);
+                } else {
+                    Matcher matcher = H2_TABLE_SCAN.matcher(plan);
+                    while (matcher.find()) {
+                        tables.add(matcher.group(1));
+                    }
+                }
+                return new QueryPlan(plan, tables);
+            }
+        }
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> tables) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            tables.add(node.get("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, tables);
+        }
+    }
+
+    // Gleichmäßig verteilte Fahrten über rund ein Jahr, direkt per JDBC, damit der Persistence Context leer bleibt
+    private void seed() {
+        List<Object[]> devices = new ArrayList<>();
+        List<Object[]> trips = new ArrayList<>();
+        List<Object[]> samples = new ArrayList<>();
+        for (int d = 0; d < DEVICES; d++) {
+            String device = String.format("device-%02d", d);
+            devices.add(new Object[] { device, "Testfahrzeug " + d });
+            for (int t = 0; t < TRIPS_PER_DEVICE; t++) {
+                UUID trip = UUID.randomUUID();
+                Instant tripStart = FIRST_TRIP.plus(Duration.ofHours(t * 84L + d));
+                Instant tripEnd = tripStart.plus(Duration.ofMinutes(SAMPLES_PER_TRIP));
+                trips.add(new Object[] { trip, device, Timestamp.from(tripStart), Timestamp.from(tripEnd), 12.5f, SAMPLES_PER_TRIP });
+                for (int s = 0; s < SAMPLES_PER_TRIP; s++) {
+                    Instant sampleStart = tripStart.plus(Duration.ofMinutes(s));
+                    samples.add(new Object[] { UUID.randomUUID(), device, trip, Timestamp.from(sampleStart),
+                            Timestamp.from(sampleStart.plusSeconds(60)), "{\"0\":{\"speed\":50}}", "{\"distance\":800}" });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO device (device_id, name) VALUES (?, ?)", devices);
+        jdbcTemplate.batchUpdate("INSERT INTO trips (id, device_id, start_time, end_time, trip_distance_km, telemetry_count) VALUES (?, ?, ?, ?, ?, ?)", trips);
+        jdbcTemplate.batchUpdate("INSERT INTO telemetry (id, device_id, trip_id, start_time, end_time, timed_data, aggregated_data) VALUES (?, ?, ?, ?, ?, ?, ?)", samples);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private record QueryPlan(String text, List<String> sequentiallyScannedTables) {
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /**
+     * A prepared statement as executed by Hibernate, including the parameter setter calls so it can be re-bound
+     * to an {@code EXPLAIN} statement with exactly the same values and JDBC types.
+     */
+    record RecordedStatement(String sql, List<Object[]> setterCalls) {
+
+        void bind(PreparedStatement target) throws Exception {
+            for (Object[] call : setterCalls) {
+                Method setter = (Method) call[0];
+                setter.invoke(target, (Object[]) call[1]);
+            }
+        }
+    }
+
+    /**
+     * Wraps the application {@link DataSource} so that prepared statements executed between {@link #start()} and
+     * {@link #stop()} are recorded. Only plain JDK proxies, so the driver and pool stay untouched.
+     */
+    static class StatementRecorder {
+
+        private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        void start() {
+            statements.clear();
+            recording = true;
+        }
+
+        void stop() {
+            recording = false;
+        }
+
+        List<RecordedStatement> statements() {
+            return List.copyOf(statements);
+        }
+
+        DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, target, (method, args, result) ->
+                    result instanceof Connection connection ? wrapConnection(connection) : result);
+        }
+
+        private Connection wrapConnection(Connection target) {
+            return proxy(Connection.class, target, (method, args, result) -> {
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                    return wrapStatement(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrapStatement(PreparedStatement target, String sql) {
+            List<Object[]> setterCalls = new ArrayList<>();
+            return proxy(PreparedStatement.class, target, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    setterCalls.add(new Object[] { method, args.clone() });
+                } else if (name.equals("clearParameters")) {
+                    setterCalls.clear();
+                } else if (recording && name.startsWith("execute") && (args == null || args.length == 0)) {
+                    statements.add(new RecordedStatement(sql, List.copyOf(setterCalls)));
+                }
+                return result;
+            });
+        }
+
+        @FunctionalInterface
+        private interface ResultDecorator {
+            Object decorate(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, ResultDecorator decorator) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+                try {
+                    return decorator.decorate(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.drivebackend.series;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.drivebackend.mapper.TelemetryMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("DeviceLiveBuffer Tests")
+class DeviceLiveBufferTest {
+
+    private static final List<String> SIGNALS = List.of("speed", "rpm");
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    @Test
+    @DisplayName("append/copySince - Should return the points in order with NaN for missing signals")
+    void appendAndCopy() {
+        // Arrange
+        DeviceLiveBuffer buffer = new DeviceLiveBuffer(8, SIGNALS.size());
+        Map<String, Object> upload = new LinkedHashMap<>();
+        upload.put("100", Map.of("speed", 10, "rpm", 1500));
+        upload.put("101", Map.of("speed", 12.5));
+        upload.put("102", "kein Punkt");
+
+        // Act
+        int appended = buffer.append(upload, SIGNALS, NO_LIMIT);
+        LiveTelemetry.Window window = buffer.copySince(0);
+
+        // Assert
+        assertThat(appended).isEqualTo(3);
+        assertThat(buffer.lastSecond()).isEqualTo(102);
+        assertThat(window.seconds()).containsExactly(100, 101, 102);
+        assertThat(window.values()[0]).containsExactly(10f, 12.5f, Float.NaN);
+        assertThat(window.values()[1]).containsExactly(1500f, Float.NaN, Float.NaN);
+    }
+
+    @Test
+    @DisplayName("Wrap-around - Should keep the newest capacity points in order after the ring wrapped")
+    void wrapAround() {
+        // Arrange
+        DeviceLiveBuffer buffer = new DeviceLiveBuffer(4, SIGNALS.size());
+
+        // Act: 10 Punkte in drei Uploads, der Ring läuft zweimal über
+        buffer.append(points(1, 3), SIGNALS, NO_LIMIT);
+        buffer.append(points(4, 4), SIGNALS, NO_LIMIT);
+        buffer.append(points(8, 3), SIGNALS, NO_LIMIT);
+        LiveTelemetry.Window window = buffer.copySince(0);
+
+        // Assert
+        assertThat(window.seconds()).containsExactly(7, 8, 9, 10);
+        assertThat(window.values()[0]).containsExactly(7f, 8f, 9f, 10f);
+        assertThat(window.values()[1]).containsExactly(700f, 800f, 900f, 1000f);
+    }
+
+    @Test
+    @DisplayName("copySince - Should only return points at or after the given second, also across the wrap")
+    void copySinceAcrossWrap() {
+        // Arrange
+        DeviceLiveBuffer buffer = new DeviceLiveBuffer(5, SIGNALS.size());
+        buffer.append(points(1, 7), SIGNALS, NO_LIMIT);
+
+        // Act
+        LiveTelemetry.Window recent = buffer.copySince(5);
+        LiveTelemetry.Window none = buffer.copySince(8);
+        LiveTelemetry.Window older = buffer.copySince(1);
+
+        // Assert
+        assertThat(recent.seconds()).containsExactly(5, 6, 7);
+        assertThat(recent.values()[0]).containsExactly(5f, 6f, 7f);
+        assertThat(none.seconds()).isEmpty();
+        assertThat(none.values()[0]).isEmpty();
+        assertThat(older.seconds()).containsExactly(3, 4, 5, 6, 7);
+    }
+
+    @Test
+    @DisplayName("Late points - Points not newer than the newest one should be skipped")
+    void latePointsSkipped() {
+        // Arrange
+        DeviceLiveBuffer buffer = new DeviceLiveBuffer(8, SIGNALS.size());
+        buffer.append(points(10, 3), SIGNALS, NO_LIMIT);
+
+        // Act: verspäteter Upload, Wiederholung und ein Upload, der sich mit dem letzten überschneidet
+        int late = buffer.append(points(5, 3), SIGNALS, NO_LIMIT);
+        int repeated = buffer.append(points(10, 3), SIGNALS, NO_LIMIT);
+        int overlapping = buffer.append(points(11, 4), SIGNALS, NO_LIMIT);
+
+        // Assert
+        assertThat(late).isZero();
+        assertThat(repeated).isZero();
+        assertThat(overlapping).isEqualTo(2);
+        assertThat(buffer.copySince(0).seconds()).containsExactly(10, 11, 12, 13, 14);
+        assertThat(buffer.lastSecond()).isEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("Future points - Points after the latest allowed second should be skipped and not hold back later ones")
+    void futurePointsSkipped() {
+        // Arrange
+        DeviceLiveBuffer buffer = new DeviceLiveBuffer(8, SIGNALS.size());
+        Map<String, Object> upload = points(10, 3);
+        upload.put("1000000", Map.of("speed", 99));
+
+        // Act: ein Punkt weit nach der erlaubten Grenze, danach normale Uploads
+        int appended = buffer.append(upload, SIGNALS, 20);
+        int later = buffer.append(points(13, 3), SIGNALS, 20);
+
+        // Assert
+        assertThat(appended).isEqualTo(3);
+        assertThat(later).isEqualTo(3);
+        assertThat(buffer.copySince(0).seconds()).containsExactly(10, 11, 12, 13, 14, 15);
+        assertThat(buffer.lastSecond()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("LiveTelemetry - A device that only sent a point from a clock far ahead should make room")
+    void liveTelemetryEvictsDeviceAhead() {
+        // Arrange: Platz für ein Gerät, dessen Uhr eine Stunde vorgeht
+        LiveTelemetry live = new LiveTelemetry(8, SIGNALS, 1, Duration.ofMinutes(10), Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        int now = (int) (Instant.now().getEpochSecond() - TelemetryMapper.EPOCH_2000_OFFSET_SECONDS);
+        live.record("device-ahead", points(now + 3600, 1));
+
+        // Act
+        live.record("device-other", points(now - 5, 2));
+
+        // Assert: der Zukunftspunkt wurde nicht gepuffert, das Gerät gilt als inaktiv und macht Platz
+        assertThat(live.window("device-ahead", Duration.ofMinutes(1))).isEmpty();
+        assertThat(live.window("device-other", Duration.ofMinutes(1))).get()
+                .extracting(window -> window.seconds().length).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("append - Should skip keys that are no second or do not fit into an int")
+    void invalidKeysSkipped() {
+        // Arrange
+        DeviceLiveBuffer buffer = new DeviceLiveBuffer(4, SIGNALS.size());
+        Map<String, Object> upload = new LinkedHashMap<>();
+        upload.put("abc", Map.of("speed", 1));
+        upload.put("20", Map.of("speed", 2));
+        upload.put(String.valueOf(Integer.MAX_VALUE + 1L), Map.of("speed", 3));
+
+        // Act
+        int appended = buffer.append(upload, SIGNALS, NO_LIMIT);
+
+        // Assert
+        assertThat(appended).isEqualTo(1);
+        assertThat(buffer.copySince(0).seconds()).containsExactly(20);
+    }
+
+    @Test
+    @DisplayName("Empty buffer - Should report no points and Long.MIN_VALUE as last second")
+    void emptyBuffer() {
+        // Arrange
+        DeviceLiveBuffer buffer = new DeviceLiveBuffer(4, SIGNALS.size());
+
+        // Act & Assert
+        assertThat(buffer.lastSecond()).isEqualTo(Long.MIN_VALUE);
+        assertThat(buffer.copySince(Long.MIN_VALUE).seconds()).isEmpty();
+        assertThat(DeviceLiveBuffer.bytes(600, 2)).isEqualTo(600L * 12);
+    }
+
+    private static Map<String, Object> points(int firstSecond, int count) {
+        Map<String, Object> upload = new LinkedHashMap<>();
+        for (int second = firstSecond; second < firstSecond + count; second++) {
+            upload.put(String.valueOf(second), Map.of("speed", second, "rpm", second * 100));
+        }
+        return upload;
+    }
+}
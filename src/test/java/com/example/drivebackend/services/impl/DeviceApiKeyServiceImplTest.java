@@ -0,0 +1,176 @@
+package com.example.drivebackend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.example.drivebackend.entities.DeviceEntity;
+import com.example.drivebackend.repository.DeviceRepository;
+
+@DisplayName("DeviceApiKeyServiceImpl Tests")
+class DeviceApiKeyServiceImplTest {
+
+    private static final String DEVICE_ID = "device-001";
+
+    private DeviceRepository deviceRepository;
+    private DeviceApiKeyServiceImpl apiKeyService;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository = mock(DeviceRepository.class);
+        when(deviceRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(deviceRepository.saveAndFlush(any(DeviceEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(deviceRepository.findAllByApiKeyHashIsNotNull()).thenReturn(List.of());
+        apiKeyService = new DeviceApiKeyServiceImpl(deviceRepository);
+        apiKeyService.load();
+    }
+
+    @Test
+    @DisplayName("issueKey - Should register unknown devices, store only the hash and resolve the key")
+    void issueKeyResolves() throws Exception {
+        // Act
+        String apiKey = apiKeyService.issueKey(DEVICE_ID);
+
+        // Assert
+        ArgumentCaptor<DeviceEntity> saved = ArgumentCaptor.forClass(DeviceEntity.class);
+        verify(deviceRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getDeviceId()).isEqualTo(DEVICE_ID);
+        assertThat(saved.getValue().getApiKeyHash()).isEqualTo(sha256(apiKey)).doesNotContain(apiKey);
+        assertThat(apiKeyService.resolve(apiKey)).map(DeviceEntity::getDeviceId).contains(DEVICE_ID);
+        assertThat(apiKeyService.resolve(apiKey + "x")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("issueKey - A new key should replace the previous one")
+    void issueKeyReplacesPrevious() {
+        // Arrange
+        DeviceEntity device = device(null, null);
+        when(deviceRepository.findById(DEVICE_ID)).thenReturn(Optional.of(device));
+        String first = apiKeyService.issueKey(DEVICE_ID);
+
+        // Act
+        String second = apiKeyService.issueKey(DEVICE_ID);
+
+        // Assert
+        assertThat(second).isNotEqualTo(first);
+        assertThat(apiKeyService.resolve(first)).isEmpty();
+        assertThat(apiKeyService.resolve(second)).isPresent();
+    }
+
+    @Test
+    @DisplayName("revokeKey - Should drop the key from the index, false for unknown devices")
+    void revokeKey() {
+        // Arrange
+        DeviceEntity device = device(null, null);
+        when(deviceRepository.findById(DEVICE_ID)).thenReturn(Optional.of(device));
+        String apiKey = apiKeyService.issueKey(DEVICE_ID);
+
+        // Act
+        boolean revoked = apiKeyService.revokeKey(DEVICE_ID);
+        boolean unknown = apiKeyService.revokeKey("device-unknown");
+
+        // Assert
+        assertThat(revoked).isTrue();
+        assertThat(unknown).isFalse();
+        assertThat(device.getApiKeyHash()).isNull();
+        assertThat(apiKeyService.resolve(apiKey)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("load - Should index the stored keys")
+    void loadIndexesStoredKeys() throws Exception {
+        // Arrange
+        when(deviceRepository.findAllByApiKeyHashIsNotNull())
+                .thenReturn(List.of(device(sha256("stored-key"), Instant.now().minusSeconds(3600))));
+        DeviceApiKeyServiceImpl restarted = new DeviceApiKeyServiceImpl(deviceRepository);
+
+        // Act
+        restarted.load();
+
+        // Assert
+        assertThat(restarted.resolve("stored-key")).map(DeviceEntity::getDeviceId).contains(DEVICE_ID);
+    }
+
+    @Test
+    @DisplayName("refresh - Should apply keys issued or revoked by another instance")
+    void refreshAppliesNewerChanges() throws Exception {
+        // Arrange
+        Instant issuedAt = Instant.now();
+        when(deviceRepository.findAllByApiKeyUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(device(sha256("other-instance"), issuedAt)));
+        apiKeyService.refresh();
+        assertThat(apiKeyService.resolve("other-instance")).isPresent();
+        when(deviceRepository.findAllByApiKeyUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(device(null, issuedAt.plusSeconds(1))));
+
+        // Act
+        apiKeyService.refresh();
+
+        // Assert
+        assertThat(apiKeyService.resolve("other-instance")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("refresh - An older state read from the database should not undo a newer local change")
+    void refreshIgnoresOlderState() throws Exception {
+        // Arrange: Abgleich liest noch den alten Key, während lokal schon ein neuer ausgegeben wurde
+        DeviceEntity stale = device(sha256("old-key"), Instant.now().minusSeconds(10));
+        String apiKey = apiKeyService.issueKey(DEVICE_ID);
+        when(deviceRepository.findAllByApiKeyUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(stale));
+
+        // Act
+        apiKeyService.refresh();
+
+        // Assert
+        assertThat(apiKeyService.resolve(apiKey)).isPresent();
+        assertThat(apiKeyService.resolve("old-key")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("refresh - Should read changes since the last run with an overlap for late commits")
+    void refreshReadsSinceWatermarkWithOverlap() {
+        // Arrange
+        Instant beforeRefresh = Instant.now();
+        when(deviceRepository.findAllByApiKeyUpdatedAtGreaterThanEqual(any())).thenReturn(List.of());
+
+        // Act
+        apiKeyService.refresh();
+        apiKeyService.refresh();
+
+        // Assert: der zweite Lauf fragt ab dem Start des ersten, minus Überlappung
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(deviceRepository, times(2)).findAllByApiKeyUpdatedAtGreaterThanEqual(since.capture());
+        assertThat(since.getAllValues().get(1))
+                .isAfterOrEqualTo(beforeRefresh.minus(Duration.ofMinutes(1)))
+                .isBefore(Instant.now().minus(Duration.ofSeconds(59)));
+    }
+
+    private static DeviceEntity device(String hash, Instant updatedAt) {
+        DeviceEntity device = new DeviceEntity();
+        device.setDeviceId(DEVICE_ID);
+        device.setApiKeyHash(hash);
+        device.setApiKeyUpdatedAt(updatedAt);
+        return device;
+    }
+
+    private static String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
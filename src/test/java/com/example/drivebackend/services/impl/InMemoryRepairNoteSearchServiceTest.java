@@ -0,0 +1,177 @@
+package com.example.drivebackend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.drivebackend.entities.RepairNoteEntity;
+import com.example.drivebackend.repository.RepairNoteRepository;
+
+@DisplayName("InMemoryRepairNoteSearchService Tests")
+class InMemoryRepairNoteSearchServiceTest {
+
+    private static final String DEVICE_ID = "device-001";
+
+    private RepairNoteRepository repairNoteRepository;
+    private InMemoryRepairNoteSearchService searchService;
+    private final Map<UUID, RepairNoteEntity> stored = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        repairNoteRepository = mock(RepairNoteRepository.class);
+        when(repairNoteRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<RepairNoteEntity> found = new ArrayList<>();
+            for (UUID id : invocation.<Iterable<UUID>>getArgument(0)) {
+                if (stored.containsKey(id)) {
+                    found.add(stored.get(id));
+                }
+            }
+            return found;
+        });
+        searchService = new InMemoryRepairNoteSearchService(repairNoteRepository);
+    }
+
+    @Test
+    @DisplayName("search - Inflected forms should find each other through the stemmer")
+    void stemmerMatchesInflections() {
+        // Arrange
+        RepairNoteEntity brake = note(DEVICE_ID, "Bremse vorne links getauscht", LocalDate.of(2025, 1, 10));
+        RepairNoteEntity tyres = note(DEVICE_ID, "Profil des Reifens geprüft", LocalDate.of(2025, 2, 10));
+
+        // Act
+        Page<RepairNoteEntity> plural = searchService.search(DEVICE_ID, "Bremsen", PageRequest.of(0, 10));
+        Page<RepairNoteEntity> genitive = searchService.search(DEVICE_ID, "Reifen", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(plural.getContent()).containsExactly(brake);
+        assertThat(genitive.getContent()).containsExactly(tyres);
+    }
+
+    @Test
+    @DisplayName("search - Query terms should match as prefixes of compound words")
+    void prefixMatchesCompounds() {
+        // Arrange
+        RepairNoteEntity pads = note(DEVICE_ID, "Bremsbeläge erneuert", LocalDate.of(2025, 3, 1));
+        RepairNoteEntity brake = note(DEVICE_ID, "Bremsen entlüftet", LocalDate.of(2025, 1, 1));
+        note(DEVICE_ID, "Ölwechsel", LocalDate.of(2025, 2, 1));
+
+        // Act
+        Page<RepairNoteEntity> result = searchService.search(DEVICE_ID, "brems", PageRequest.of(0, 10));
+
+        // Assert: neueste Notiz zuerst
+        assertThat(result.getContent()).containsExactly(pads, brake);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("search - All query terms must match, case-insensitive")
+    void allTermsMustMatch() {
+        // Arrange
+        RepairNoteEntity front = note(DEVICE_ID, "Bremse VORNE getauscht", LocalDate.of(2025, 1, 1));
+        note(DEVICE_ID, "Bremse hinten getauscht", LocalDate.of(2025, 1, 2));
+
+        // Act
+        Page<RepairNoteEntity> result = searchService.search(DEVICE_ID, "bremsen vorne", PageRequest.of(0, 10));
+        Page<RepairNoteEntity> none = searchService.search(DEVICE_ID, "bremse auspuff", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(front);
+        assertThat(none.getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search - Should only return notes of the given device")
+    void filtersByDevice() {
+        // Arrange
+        RepairNoteEntity own = note(DEVICE_ID, "Zahnriemen gewechselt", LocalDate.of(2025, 1, 1));
+        note("device-002", "Zahnriemen gewechselt", LocalDate.of(2025, 1, 1));
+
+        // Act
+        Page<RepairNoteEntity> result = searchService.search(DEVICE_ID, "zahnriemen", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(own);
+    }
+
+    @Test
+    @DisplayName("search - Should page the date-sorted matches and only load the requested page")
+    void pagesResults() {
+        // Arrange
+        for (int day = 1; day <= 5; day++) {
+            note(DEVICE_ID, "Inspektion Nummer " + day, LocalDate.of(2025, 1, day));
+        }
+
+        // Act
+        Page<RepairNoteEntity> second = searchService.search(DEVICE_ID, "inspektion", PageRequest.of(1, 2));
+
+        // Assert
+        assertThat(second.getContent()).extracting(RepairNoteEntity::getNoteDate)
+                .containsExactly(LocalDate.of(2025, 1, 3), LocalDate.of(2025, 1, 2));
+        assertThat(second.getTotalElements()).isEqualTo(5);
+        verify(repairNoteRepository).findAllById(argThat(ids -> ((List<?>) ids).size() == 2));
+    }
+
+    @Test
+    @DisplayName("index/remove - Re-indexing should drop old terms and remove should drop the note")
+    void reindexAndRemove() {
+        // Arrange
+        RepairNoteEntity note = note(DEVICE_ID, "Kupplung geprüft", LocalDate.of(2025, 1, 1));
+
+        // Act
+        note.setNoteText("Getriebe geprüft");
+        searchService.index(note);
+        Page<RepairNoteEntity> oldTerm = searchService.search(DEVICE_ID, "kupplung", PageRequest.of(0, 10));
+        Page<RepairNoteEntity> newTerm = searchService.search(DEVICE_ID, "getriebe", PageRequest.of(0, 10));
+        searchService.remove(note.getId());
+        Page<RepairNoteEntity> removed = searchService.search(DEVICE_ID, "getriebe", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(oldTerm.getContent()).isEmpty();
+        assertThat(newTerm.getContent()).containsExactly(note);
+        assertThat(removed.getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search - A query without terms should return an empty page without loading notes")
+    void emptyQuery() {
+        // Arrange
+        note(DEVICE_ID, "Bremse getauscht", LocalDate.of(2025, 1, 1));
+
+        // Act
+        Page<RepairNoteEntity> result = searchService.search(DEVICE_ID, " ,.- ", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(result.getContent()).isEmpty();
+        verify(repairNoteRepository, never()).findAllById(any());
+    }
+
+    private RepairNoteEntity note(String deviceId, String text, LocalDate date) {
+        RepairNoteEntity note = new RepairNoteEntity();
+        note.setId(UUID.randomUUID());
+        note.setDeviceId(deviceId);
+        note.setNoteText(text);
+        note.setNoteDate(date);
+        note.setNotePrice(BigDecimal.TEN);
+        stored.put(note.getId(), note);
+        searchService.index(note);
+        return note;
+    }
+}
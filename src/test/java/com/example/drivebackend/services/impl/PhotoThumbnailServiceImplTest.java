@@ -0,0 +1,102 @@
+package com.example.drivebackend.services.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+
+import com.example.drivebackend.services.PhotoStorageService;
+import com.example.drivebackend.services.PhotoThumbnailService;
+
+@DisplayName("PhotoThumbnailServiceImpl Tests")
+class PhotoThumbnailServiceImplTest {
+
+    private static final String HASH = "abc123";
+
+    private PhotoStorageService photoStorageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        photoStorageService = mock(PhotoStorageService.class);
+        when(photoStorageService.load(HASH)).thenReturn(Optional.of(new ByteArrayResource(png(400, 300))));
+        when(photoStorageService.loadVariant(eq(HASH), anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("generateVariants - Should store every variant for photos within the pixel limit")
+    void generatesVariantsWithinLimit() throws IOException {
+        // Arrange
+        PhotoThumbnailServiceImpl thumbnailService = new PhotoThumbnailServiceImpl(photoStorageService, 400 * 300);
+
+        // Act
+        thumbnailService.generateVariants(HASH, MediaType.IMAGE_PNG_VALUE).join();
+
+        // Assert
+        for (int size : PhotoThumbnailService.VARIANT_SIZES) {
+            verify(photoStorageService).storeVariant(eq(HASH), eq(size + ".png"), any());
+        }
+    }
+
+    @Test
+    @DisplayName("generateVariants - Should skip photos with more pixels than the limit")
+    void skipsPhotosAboveLimit() throws IOException {
+        // Arrange
+        PhotoThumbnailServiceImpl thumbnailService = new PhotoThumbnailServiceImpl(photoStorageService, 400 * 300 - 1);
+
+        // Act
+        thumbnailService.generateVariants(HASH, MediaType.IMAGE_PNG_VALUE).join();
+
+        // Assert
+        verify(photoStorageService, never()).storeVariant(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("generateVariants - Should not read a photo above the limit again")
+    void remembersPhotosAboveLimit() {
+        // Arrange
+        PhotoThumbnailServiceImpl thumbnailService = new PhotoThumbnailServiceImpl(photoStorageService, 1000);
+        thumbnailService.generateVariants(HASH, MediaType.IMAGE_PNG_VALUE).join();
+
+        // Act
+        thumbnailService.generateVariants(HASH, MediaType.IMAGE_PNG_VALUE).join();
+
+        // Assert
+        verify(photoStorageService).load(HASH);
+    }
+
+    @Test
+    @DisplayName("generateVariants - Should skip data that is no image")
+    void skipsUndecodableData() throws IOException {
+        // Arrange
+        when(photoStorageService.load(HASH)).thenReturn(Optional.of(new ByteArrayResource("kein Bild".getBytes())));
+        PhotoThumbnailServiceImpl thumbnailService = new PhotoThumbnailServiceImpl(photoStorageService, Long.MAX_VALUE);
+
+        // Act
+        thumbnailService.generateVariants(HASH, MediaType.IMAGE_PNG_VALUE).join();
+
+        // Assert
+        verify(photoStorageService, never()).storeVariant(anyString(), anyString(), any());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.drivebackend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.drivebackend.dto.TelemetryResponse;
+
+@DisplayName("TelemetryChunkCodec Tests")
+class TelemetryChunkCodecTest {
+
+    private static final UUID TRIP_ID = UUID.randomUUID();
+
+    @Test
+    @DisplayName("encode/decode - Should round-trip samples in order with all fields")
+    void roundTrip() {
+        // Arrange
+        List<TelemetryResponse> samples = new ArrayList<>();
+        Instant start = Instant.parse("2025-03-01T08:00:00.123456Z");
+        for (int i = 0; i < 50; i++) {
+            samples.add(sample(start.plusSeconds(10L * i), i));
+        }
+
+        // Act
+        List<TelemetryResponse> decoded = TelemetryChunkCodec.decode(TelemetryChunkCodec.encode(samples));
+
+        // Assert
+        assertThat(decoded).containsExactlyElementsOf(samples);
+    }
+
+    @Test
+    @DisplayName("encode/decode - Should keep null end time and missing data maps")
+    void roundTripNulls() {
+        // Arrange
+        TelemetryResponse sample = new TelemetryResponse(UUID.randomUUID(), "device-001", TRIP_ID,
+                Instant.parse("2025-03-01T08:00:00Z"), null, null, null);
+
+        // Act
+        List<TelemetryResponse> decoded = TelemetryChunkCodec.decode(TelemetryChunkCodec.encode(List.of(sample)));
+
+        // Assert
+        assertThat(decoded).containsExactly(sample);
+    }
+
+    @Test
+    @DisplayName("encode/decode - An empty chunk should decode to no samples")
+    void roundTripEmpty() {
+        // Act & Assert
+        assertThat(TelemetryChunkCodec.decode(TelemetryChunkCodec.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("encode - Should be gzip and smaller than the plain JSON lines")
+    void encodeCompresses() {
+        // Arrange
+        List<TelemetryResponse> samples = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            samples.add(sample(Instant.parse("2025-03-01T08:00:00Z").plusSeconds(10L * i), i));
+        }
+
+        // Act
+        byte[] data = TelemetryChunkCodec.encode(samples);
+
+        // Assert
+        assertThat(data[0] & 0xFF).isEqualTo(0x1F);
+        assertThat(data[1] & 0xFF).isEqualTo(0x8B);
+        assertThat(data.length).isLessThan(samples.toString().length() / 4);
+    }
+
+    @Test
+    @DisplayName("decode - Should fail with UncheckedIOException for data that is not a chunk")
+    void decodeInvalid() {
+        // Arrange
+        byte[] data = "{\"id\":null}".getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertThatThrownBy(() -> TelemetryChunkCodec.decode(data)).isInstanceOf(UncheckedIOException.class);
+    }
+
+    private static TelemetryResponse sample(Instant start, int index) {
+        Map<String, Object> timed = new LinkedHashMap<>();
+        for (int second = 0; second < 10; second++) {
+            timed.put(String.valueOf(794_000_000 + index * 10 + second), Map.of("speed", 40 + second, "rpm", 2000.5 + index));
+        }
+        return new TelemetryResponse(UUID.randomUUID(), "device-001", TRIP_ID, start, start.plusSeconds(10), timed,
+                Map.of("distance", 0.12 * index, "fuel", Map.of("level", 55)));
+    }
+}
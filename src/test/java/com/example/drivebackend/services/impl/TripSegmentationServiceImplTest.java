@@ -0,0 +1,118 @@
+package com.example.drivebackend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.example.drivebackend.dto.TelemetryIngestRequest;
+import com.example.drivebackend.mapper.TelemetryMapper;
+import com.example.drivebackend.repository.TripRepository;
+import com.example.drivebackend.services.TelemetryCompactionService;
+import com.example.drivebackend.services.TelemetryService;
+import com.example.drivebackend.services.TripSegmentationService;
+
+/**
+ * Re-segmentation and compaction of the same device: a compaction run that starts after the compacted trips were
+ * restored but before the new trips are swapped in must leave the device alone.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:trip-segmentation-test;DB_CLOSE_DELAY=-1",
+    "app.auth.username=testuser",
+    "app.auth.password=testpass",
+    "app.auth.secret=testsecretkey"
+})
+@DisplayName("TripSegmentationServiceImpl Tests")
+class TripSegmentationServiceImplTest {
+
+    private static final String DEVICE_ID = "reseg-compaction-device";
+    // 2020-01-01T00:00:00Z in Sekunden seit 2000
+    private static final long START = Instant.parse("2020-01-01T00:00:00Z").getEpochSecond() - TelemetryMapper.EPOCH_2000_OFFSET_SECONDS;
+    private static final long HOUR = 3600;
+
+    @Autowired
+    private TelemetryService telemetryService;
+
+    @Autowired
+    private TelemetryCompactionService telemetryCompactionService;
+
+    @Autowired
+    private TripSegmentationService tripSegmentationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private TripRepository tripRepository;
+
+    @Test
+    @DisplayName("resegment - Compaction between restoreCompacted and swap should skip the device")
+    void compactionDuringResegmentationSkipsDevice() throws Exception {
+        // Arrange: zwei abgeschlossene Fahrten (kompaktiert) und die offene Fahrt, je drei Samples
+        for (long tripStart : new long[] { START, START + 2 * HOUR, START + 4 * HOUR }) {
+            for (int i = 0; i < 3; i++) {
+                ingest(tripStart + i * 10L);
+            }
+        }
+        Instant finishedBefore = Instant.ofEpochSecond(START + 3 * HOUR + TelemetryMapper.EPOCH_2000_OFFSET_SECONDS);
+        assertThat(telemetryCompactionService.compactTripsFinishedBefore(finishedBefore)).isEqualTo(6);
+
+        // swap() liest als Erstes die alten Fahrten; genau dann läuft der Kompaktierungs-Job von einem anderen Thread
+        AtomicInteger compactedDuringSwap = new AtomicInteger(-1);
+        Answer<?> repository = mockingDetails(tripRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            compactedDuringSwap.set(CompletableFuture.supplyAsync(() ->
+                    telemetryCompactionService.compactTripsFinishedBefore(finishedBefore)).join());
+            return repository.answer(invocation);
+        }).when(tripRepository).findIdsByDeviceIdInRange(eq(DEVICE_ID), any(), any());
+
+        // Act
+        tripSegmentationService.startResegmentation(List.of(DEVICE_ID));
+        awaitResegmentation();
+
+        // Assert: keine Fahrt doppelt, alle Samples wieder als Zeilen an genau einer Fahrt
+        assertThat(tripSegmentationService.status().devicesFailed()).isZero();
+        assertThat(compactedDuringSwap.get()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM trips WHERE device_id = ?")).isEqualTo(3);
+        assertThat(count("SELECT COALESCE(SUM(telemetry_count), 0) FROM trips WHERE device_id = ?")).isEqualTo(9);
+        assertThat(count("SELECT COUNT(*) FROM telemetry WHERE device_id = ?")).isEqualTo(9);
+        assertThat(count("SELECT COUNT(*) FROM telemetry_chunk WHERE device_id = ?")).isZero();
+
+        // Der nächste Lauf nach der Neu-Segmentierung kompaktiert die Fahrten wieder
+        assertThat(telemetryCompactionService.compactTripsFinishedBefore(finishedBefore)).isEqualTo(6);
+        assertThat(count("SELECT COUNT(*) FROM trips WHERE device_id = ?")).isEqualTo(3);
+    }
+
+    private void ingest(long epoch2000Second) {
+        telemetryService.ingestTelemetry(new TelemetryIngestRequest(DEVICE_ID, epoch2000Second, epoch2000Second + 10,
+                Map.of("distance", 100), Map.of(String.valueOf(epoch2000Second), Map.of("speed", 50, "rpm", 2000)), null), null, -1);
+    }
+
+    private void awaitResegmentation() throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(30));
+        while (tripSegmentationService.status().running() && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+        }
+        assertThat(tripSegmentationService.status().running()).isFalse();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, DEVICE_ID);
+    }
+}
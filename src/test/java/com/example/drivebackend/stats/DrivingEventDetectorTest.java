@@ -0,0 +1,223 @@
+package com.example.drivebackend.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.drivebackend.stats.DrivingBehaviour.Event;
+import com.example.drivebackend.stats.DrivingBehaviour.EventType;
+
+@DisplayName("DrivingEventDetector Tests")
+class DrivingEventDetectorTest {
+
+    private DrivingEventDetector detector;
+    private DrivingBehaviour behaviour;
+
+    @BeforeEach
+    void setUp() {
+        // Standardwerte aus application.properties
+        detector = new DrivingEventDetector(3.0, 3.5, 4500, Duration.ofSeconds(3), 10);
+        behaviour = new DrivingBehaviour();
+    }
+
+    @Test
+    @DisplayName("Harsh acceleration - Consecutive harsh points should form one event with duration and peak")
+    void harshAccelerationEpisode() {
+        // Act: +12 km/h und +15 km/h pro Sekunde, dann sanft
+        speed(100, 0);
+        speed(101, 12);
+        speed(102, 27);
+        speed(103, 29);
+
+        // Assert
+        assertThat(behaviour.count(EventType.HARSH_ACCELERATION)).isEqualTo(1);
+        assertThat(behaviour.events()).hasSize(1);
+        Event event = behaviour.events().getFirst();
+        assertThat(event.type()).isEqualTo(EventType.HARSH_ACCELERATION);
+        assertThat(event.epochSecond()).isEqualTo(101);
+        assertThat(event.durationSeconds()).isEqualTo(1);
+        assertThat((double) event.peak()).isCloseTo(15 / 3.6, within(1e-4));
+    }
+
+    @Test
+    @DisplayName("Harsh braking - Should count decelerations above the threshold with a positive peak")
+    void harshBraking() {
+        // Act: -15 km/h in einer Sekunde = 4,17 m/s², -10 km/h = 2,78 m/s²
+        speed(10, 50);
+        speed(11, 35);
+        speed(12, 25);
+
+        // Assert
+        assertThat(behaviour.count(EventType.HARSH_BRAKING)).isEqualTo(1);
+        assertThat(behaviour.count(EventType.HARSH_ACCELERATION)).isZero();
+        assertThat((double) behaviour.events().getFirst().peak()).isCloseTo(15 / 3.6, within(1e-4));
+    }
+
+    @Test
+    @DisplayName("Gaps - A speed difference across a gap above max-gap should not count as acceleration")
+    void gapIsNoAcceleration() {
+        // Act
+        speed(0, 0);
+        speed(10, 100);
+
+        // Assert
+        assertThat(behaviour.totalEvents()).isZero();
+        assertThat(behaviour.drivingSeconds()).isZero();
+    }
+
+    @Test
+    @DisplayName("Late points - Duplicate or older seconds should not move the reference point")
+    void latePointsKeepReference() {
+        // Arrange
+        speed(20, 40);
+
+        // Act: verspäteter Punkt mit ganz anderer Geschwindigkeit, danach +2 km/h zum Bezugspunkt
+        speed(19, 0);
+        speed(20, 0);
+        speed(21, 42);
+
+        // Assert
+        assertThat(behaviour.totalEvents()).isZero();
+        assertThat(behaviour.drivingSeconds()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Over-rev - Each episode above the rpm limit should count once")
+    void overRevEpisodes() {
+        // Act
+        rpm(1, 4800);
+        rpm(2, 5200);
+        rpm(3, 3000);
+        rpm(4, 4600);
+
+        // Assert
+        assertThat(behaviour.count(EventType.OVER_REV)).isEqualTo(2);
+        assertThat(behaviour.events()).extracting(Event::epochSecond).containsExactly(1L, 4L);
+        assertThat(behaviour.events().getFirst().peak()).isEqualTo(5200f);
+        assertThat(behaviour.events().getFirst().durationSeconds()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("MAX_EVENTS - Counts should keep going while the event records stop at the cap")
+    void maxEventsCap() {
+        // Arrange
+        int episodes = DrivingBehaviour.MAX_EVENTS + 100;
+
+        // Act
+        for (int i = 0; i < episodes; i++) {
+            rpm(2L * i, 5000);
+            rpm(2L * i + 1, 1000);
+        }
+        // Offene Episode ohne Eintrag darf beim Verlängern nichts überschreiben
+        rpm(2L * episodes, 5000);
+        rpm(2L * episodes + 1, 9000);
+
+        // Assert
+        assertThat(behaviour.count(EventType.OVER_REV)).isEqualTo(episodes + 1);
+        assertThat(behaviour.events()).hasSize(DrivingBehaviour.MAX_EVENTS);
+        assertThat(behaviour.events().getLast().epochSecond()).isEqualTo(2L * (DrivingBehaviour.MAX_EVENTS - 1));
+        assertThat(behaviour.events()).allMatch(event -> event.peak() == 5000f && event.durationSeconds() == 0);
+    }
+
+    @Test
+    @DisplayName("encode/decode - Should round-trip events and continue an open episode in the next upload")
+    void encodeDecodeContinuesEpisode() {
+        // Arrange: erster Upload endet mitten in einer Beschleunigung
+        speed(100, 0);
+        speed(101, 12);
+        rpm(101, 4700);
+
+        // Act
+        DrivingBehaviour decoded = DrivingBehaviour.decode(behaviour.encode());
+        detector.accept(102, Map.of("speed", 25, "rpm", 4900), decoded);
+        detector.accept(103, Map.of("speed", 26, "rpm", 2000), decoded);
+
+        // Assert
+        assertThat(decoded.count(EventType.HARSH_ACCELERATION)).isEqualTo(1);
+        assertThat(decoded.count(EventType.OVER_REV)).isEqualTo(1);
+        assertThat(decoded.drivingSeconds()).isEqualTo(3);
+        assertThat(decoded.events()).extracting(Event::type, Event::durationSeconds)
+                .containsExactly(
+                        tuple(EventType.HARSH_ACCELERATION, 1),
+                        tuple(EventType.OVER_REV, 1));
+        assertThat(decoded.events().get(1).peak()).isEqualTo(4900f);
+    }
+
+    @Test
+    @DisplayName("encode - Should store each event in EVENT_BYTES after a fixed header")
+    void encodedSize() {
+        // Arrange
+        byte[] empty = behaviour.encode();
+        rpm(1, 5000);
+        rpm(2, 1000);
+        rpm(3, 5000);
+
+        // Act
+        byte[] data = behaviour.encode();
+
+        // Assert
+        assertThat(data.length - empty.length).isEqualTo(2 * DrivingBehaviour.EVENT_BYTES);
+    }
+
+    @Test
+    @DisplayName("decode - Should start a new state for null or empty data and reject unknown versions")
+    void decodeEmptyAndUnknownVersion() {
+        // Arrange
+        byte[] data = behaviour.encode();
+        data[0] = 42;
+
+        // Act & Assert
+        assertThat(DrivingBehaviour.decode(null).totalEvents()).isZero();
+        assertThat(DrivingBehaviour.decode(new byte[0]).events()).isEmpty();
+        assertThatThrownBy(() -> DrivingBehaviour.decode(data))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("42");
+    }
+
+    @Test
+    @DisplayName("score - Should deduct the penalty per event and hour, at least a quarter hour, not below 0")
+    void score() {
+        // Arrange: ein Ereignis in kurzer Fahrt zählt wie in einer Viertelstunde
+        rpm(1, 5000);
+
+        // Act & Assert
+        assertThat(detector.score(behaviour)).isEqualTo(60f);
+        assertThat(detector.score(new DrivingBehaviour())).isEqualTo(100f);
+
+        for (int i = 1; i < 20; i++) {
+            rpm(2L * i, 1000);
+            rpm(2L * i + 1, 5000);
+        }
+        assertThat(detector.score(behaviour)).isZero();
+    }
+
+    @Test
+    @DisplayName("score - Should scale with driving time")
+    void scoreScalesWithDrivingTime() {
+        // Arrange: eine Stunde gleichmäßig fahren, dann ein Ereignis
+        for (int second = 0; second <= 3600; second++) {
+            speed(second, 50);
+        }
+        rpm(3600, 5000);
+
+        // Act & Assert
+        assertThat(behaviour.drivingSeconds()).isEqualTo(3600);
+        assertThat(detector.score(behaviour)).isEqualTo(90f);
+    }
+
+    private void speed(long second, double value) {
+        detector.accept(second, Map.of("speed", value), behaviour);
+    }
+
+    private void rpm(long second, double value) {
+        detector.accept(second, Map.of("rpm", value), behaviour);
+    }
+}
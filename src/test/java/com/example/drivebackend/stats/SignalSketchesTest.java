@@ -0,0 +1,134 @@
+package com.example.drivebackend.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SignalSketches Tests")
+class SignalSketchesTest {
+
+    private static final int PRECISION = 2;
+
+    @Test
+    @DisplayName("record - Should round values, clamp negatives to 0 and skip NaN")
+    void recordRoundsAndClamps() {
+        // Arrange
+        SignalSketches sketches = new SignalSketches(PRECISION);
+
+        // Act
+        sketches.record("speed", 49.6);
+        sketches.record("speed", -3);
+        sketches.record("speed", Double.NaN);
+        sketches.record("speed", Double.NEGATIVE_INFINITY);
+
+        // Assert
+        Histogram speed = sketches.sketches().get("speed");
+        assertThat(speed.getTotalCount()).isEqualTo(2);
+        assertThat(speed.getMinValue()).isZero();
+        assertThat(speed.getMaxValue()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("percentiles - Should be within the configured precision")
+    void percentilesWithinPrecision() {
+        // Arrange
+        SignalSketches sketches = new SignalSketches(PRECISION);
+        for (int value = 1; value <= 10_000; value++) {
+            sketches.record("rpm", value);
+        }
+
+        // Act
+        Histogram rpm = sketches.sketches().get("rpm");
+
+        // Assert: zwei signifikante Stellen, also höchstens 1 % Abweichung
+        assertThat(rpm.getValueAtPercentile(50)).isBetween(4_950L, 5_050L);
+        assertThat(rpm.getValueAtPercentile(95)).isBetween(9_405L, 9_595L);
+        assertThat(rpm.getValueAtPercentile(100)).isBetween(9_900L, 10_100L);
+    }
+
+    @Test
+    @DisplayName("merge - Merged trip sketches should give the percentiles of all points together")
+    void mergeTrips() {
+        // Arrange
+        SignalSketches slow = new SignalSketches(PRECISION);
+        SignalSketches fast = new SignalSketches(PRECISION);
+        SignalSketches all = new SignalSketches(PRECISION);
+        for (int value = 0; value < 100; value++) {
+            slow.record("speed", value);
+            fast.record("speed", 100 + value);
+            all.record("speed", value);
+            all.record("speed", 100 + value);
+        }
+
+        // Act
+        Histogram merged = SignalSketches.newHistogram(PRECISION);
+        merged.add(SignalSketches.decodeSignal(slow.encode(), "speed"));
+        merged.add(SignalSketches.decodeSignal(fast.encode(), "speed"));
+
+        // Assert
+        Histogram expected = all.sketches().get("speed");
+        assertThat(merged.getTotalCount()).isEqualTo(200);
+        for (double percentile : new double[] { 10, 50, 90, 99 }) {
+            assertThat(merged.getValueAtPercentile(percentile)).isEqualTo(expected.getValueAtPercentile(percentile));
+        }
+    }
+
+    @Test
+    @DisplayName("encode/decode - Should round-trip all signals and keep recording after decode")
+    void encodeDecodeRoundTrip() {
+        // Arrange
+        SignalSketches sketches = new SignalSketches(PRECISION);
+        for (int value = 0; value < 500; value++) {
+            sketches.record("speed", value % 130);
+            sketches.record("rpm", 800 + value * 7);
+        }
+
+        // Act
+        SignalSketches decoded = SignalSketches.decode(sketches.encode(), PRECISION);
+        // Auto-Resize muss nach dem Dekodieren aktiv sein, sonst scheitern Werte über dem bisherigen Maximum
+        decoded.record("rpm", 1_000_000);
+        decoded.record("coolant", 90);
+
+        // Assert
+        assertThat(decoded.sketches().keySet()).containsExactly("speed", "rpm", "coolant");
+        assertThat(decoded.sketches().get("speed")).isEqualTo(sketches.sketches().get("speed"));
+        assertThat(decoded.sketches().get("rpm").getTotalCount()).isEqualTo(501);
+        assertThat(decoded.sketches().get("coolant").getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("decodeSignal - Should return only the requested signal, null if it is missing")
+    void decodeSignal() {
+        // Arrange
+        SignalSketches sketches = new SignalSketches(PRECISION);
+        sketches.record("speed", 30);
+        sketches.record("rpm", 2000);
+        sketches.record("rpm", 2500);
+        byte[] data = sketches.encode();
+
+        // Act
+        Histogram rpm = SignalSketches.decodeSignal(data, "rpm");
+
+        // Assert
+        assertThat(rpm.getTotalCount()).isEqualTo(2);
+        assertThat(rpm.getMaxValue()).isEqualTo(rpm.highestEquivalentValue(2500));
+        assertThat(SignalSketches.decodeSignal(data, "coolant")).isNull();
+        assertThat(SignalSketches.decodeSignal(null, "rpm")).isNull();
+    }
+
+    @Test
+    @DisplayName("decode - Should reject an unknown format version")
+    void decodeUnknownVersion() {
+        // Arrange
+        byte[] data = new SignalSketches(PRECISION).encode();
+        data[0] = 7;
+
+        // Act & Assert
+        assertThatThrownBy(() -> SignalSketches.decode(data, PRECISION))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("7");
+    }
+}
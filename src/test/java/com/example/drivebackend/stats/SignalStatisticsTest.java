@@ -0,0 +1,201 @@
+package com.example.drivebackend.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SignalStatistics Tests")
+class SignalStatisticsTest {
+
+    private static final double[] VALUES = { 12.5, 48.0, 51.5, 0.0, 33.25, 97.0, 64.0, 22.75 };
+
+    @Test
+    @DisplayName("RunningStats - Should match the two-pass mean, variance, min and max")
+    void runningStatsMatchesTwoPass() {
+        // Arrange
+        RunningStats stats = new RunningStats();
+
+        // Act
+        for (int i = 0; i < VALUES.length; i++) {
+            stats.add(i, VALUES[i], 3);
+        }
+
+        // Assert
+        double mean = 0;
+        for (double value : VALUES) {
+            mean += value;
+        }
+        mean /= VALUES.length;
+        double squares = 0;
+        for (double value : VALUES) {
+            squares += (value - mean) * (value - mean);
+        }
+        assertThat(stats.count()).isEqualTo(VALUES.length);
+        assertThat(stats.mean()).isCloseTo(mean, within(1e-9));
+        assertThat(stats.variance()).isCloseTo(squares / (VALUES.length - 1), within(1e-9));
+        assertThat(stats.min()).isEqualTo(0.0);
+        assertThat(stats.max()).isEqualTo(97.0);
+    }
+
+    @Test
+    @DisplayName("RunningStats - Should weight values by held time, capped at maxHoldSeconds")
+    void runningStatsTimeWeighted() {
+        // Arrange
+        RunningStats stats = new RunningStats();
+
+        // Act: 10 hält 2 s, 20 hält 60 s, wird aber auf 5 s begrenzt
+        stats.add(100, 10, 5);
+        stats.add(102, 20, 5);
+        stats.add(162, 30, 5);
+
+        // Assert
+        assertThat(stats.durationSeconds()).isEqualTo(7.0);
+        assertThat(stats.integral()).isEqualTo(10 * 2 + 20 * 5);
+        assertThat(stats.timeWeightedMean()).isCloseTo(120.0 / 7, within(1e-9));
+        assertThat(stats.mean()).isCloseTo(20.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("RunningStats - Should ignore NaN and infinite values and count late points only for the mean")
+    void runningStatsIgnoresInvalidAndLatePoints() {
+        // Arrange
+        RunningStats stats = new RunningStats();
+
+        // Act
+        stats.add(10, 4, 60);
+        stats.add(11, Double.NaN, 60);
+        stats.add(12, Double.POSITIVE_INFINITY, 60);
+        stats.add(20, 8, 60);
+        stats.add(15, 6, 60);
+
+        // Assert
+        assertThat(stats.count()).isEqualTo(3);
+        assertThat(stats.mean()).isCloseTo(6.0, within(1e-9));
+        assertThat(stats.durationSeconds()).isEqualTo(10.0);
+        assertThat(stats.timeWeightedMean()).isCloseTo(4.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("RunningStats - Merging two halves should equal adding all points to one instance")
+    void runningStatsMerge() {
+        // Arrange
+        RunningStats all = new RunningStats();
+        RunningStats first = new RunningStats();
+        RunningStats second = new RunningStats();
+        for (int i = 0; i < VALUES.length; i++) {
+            all.add(i, VALUES[i], 3);
+            (i < 3 ? first : second).add(i, VALUES[i], 3);
+        }
+
+        // Act
+        first.merge(second);
+
+        // Assert
+        assertThat(first.count()).isEqualTo(all.count());
+        assertThat(first.mean()).isCloseTo(all.mean(), within(1e-9));
+        assertThat(first.variance()).isCloseTo(all.variance(), within(1e-9));
+        assertThat(first.min()).isEqualTo(all.min());
+        assertThat(first.max()).isEqualTo(all.max());
+    }
+
+    @Test
+    @DisplayName("RunningStats - Merging into an empty instance should copy the other one")
+    void runningStatsMergeIntoEmpty() {
+        // Arrange
+        RunningStats empty = new RunningStats();
+        RunningStats other = new RunningStats();
+        other.add(1, 5, 10);
+        other.add(3, 7, 10);
+
+        // Act
+        empty.merge(other);
+        empty.merge(new RunningStats());
+
+        // Assert
+        assertThat(empty.count()).isEqualTo(2);
+        assertThat(empty.mean()).isCloseTo(6.0, within(1e-9));
+        assertThat(empty.integral()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("RunningStats - Should report 0 for min, max and variance while empty")
+    void runningStatsEmpty() {
+        // Arrange
+        RunningStats stats = new RunningStats();
+
+        // Act & Assert
+        assertThat(stats.count()).isZero();
+        assertThat(stats.min()).isZero();
+        assertThat(stats.max()).isZero();
+        assertThat(stats.variance()).isZero();
+        assertThat(stats.timeWeightedMean()).isZero();
+    }
+
+    @Test
+    @DisplayName("encode/decode - Should round-trip all signals and continue from the decoded state")
+    void encodeDecodeRoundTrip() {
+        // Arrange
+        SignalStatistics statistics = new SignalStatistics();
+        for (int i = 0; i < VALUES.length; i++) {
+            statistics.signal("speed").add(i, VALUES[i], 3);
+            statistics.signal("rpm").add(i, VALUES[i] * 40, 3);
+        }
+
+        // Act
+        SignalStatistics decoded = SignalStatistics.decode(statistics.encode());
+        decoded.signal("speed").add(VALUES.length, 50, 3);
+        statistics.signal("speed").add(VALUES.length, 50, 3);
+
+        // Assert
+        assertThat(decoded.signals().keySet()).containsExactly("speed", "rpm");
+        for (String signal : statistics.signals().keySet()) {
+            RunningStats expected = statistics.signals().get(signal);
+            RunningStats actual = decoded.signals().get(signal);
+            assertThat(actual.count()).isEqualTo(expected.count());
+            assertThat(actual.mean()).isEqualTo(expected.mean());
+            assertThat(actual.variance()).isEqualTo(expected.variance());
+            assertThat(actual.min()).isEqualTo(expected.min());
+            assertThat(actual.max()).isEqualTo(expected.max());
+            assertThat(actual.integral()).isEqualTo(expected.integral());
+            assertThat(actual.durationSeconds()).isEqualTo(expected.durationSeconds());
+        }
+    }
+
+    @Test
+    @DisplayName("encode - Should need the format header plus name and fixed size per signal")
+    void encodedSize() {
+        // Arrange
+        SignalStatistics statistics = new SignalStatistics();
+        statistics.signal("speed").add(1, 1, 1);
+
+        // Act
+        byte[] data = statistics.encode();
+
+        // Assert: Version, Anzahl, UTF-Länge + Name, Werte
+        assertThat(data).hasSize(1 + 2 + 2 + "speed".length() + RunningStats.ENCODED_BYTES);
+    }
+
+    @Test
+    @DisplayName("decode - Should return empty statistics for null or empty data")
+    void decodeEmpty() {
+        // Act & Assert
+        assertThat(SignalStatistics.decode(null).isEmpty()).isTrue();
+        assertThat(SignalStatistics.decode(new byte[0]).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("decode - Should reject an unknown format version")
+    void decodeUnknownVersion() {
+        // Arrange
+        byte[] data = new SignalStatistics().encode();
+        data[0] = 99;
+
+        // Act & Assert
+        assertThatThrownBy(() -> SignalStatistics.decode(data))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("99");
+    }
+}